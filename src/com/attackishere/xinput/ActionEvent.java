@@ -0,0 +1,42 @@
+package com.attackishere.xinput;
+
+/**
+ * One change or continuation of a ControllerAction's state, as delivered by
+ * ActionEventBus. The bus reuses a single instance for every dispatch, so a
+ * listener must copy out anything it wants to keep.
+ *
+ * Times are System.nanoTime() based: {@link #nanos} is when the input was
+ * sampled (the polling thread's timestamp, or the queued edge's in
+ * event-queue mode), {@link #dispatchNanos} when the listener was called,
+ * so {@link #latencyNanos} is how long the action took to reach it.
+ */
+public final class ActionEvent {
+
+    public enum Type {
+        PRESSED,    // the action went down
+        RELEASED,   // the action came up
+        HELD,       // still down; every frame after the press
+        REPEAT      // still down; after the repeat delay, once per repeat interval
+    }
+
+    /** Receives the events of the actions it was registered for. */
+    public interface Listener {
+        void onAction(ActionEvent e);
+    }
+
+    public ControllerAction action;
+    public Type type;
+    public long nanos;           // sample time
+    public long dispatchNanos;   // delivery time
+    public long pressNanos;      // sample time of the press this event belongs to
+    public int  repeats;         // REPEAT events so far in this press
+
+    public long latencyNanos() {
+        return dispatchNanos - nanos;
+    }
+
+    /** How long the action has been down, as of this event's sample. */
+    public long heldNanos() {
+        return nanos - pressNanos;
+    }
+}
\ No newline at end of file
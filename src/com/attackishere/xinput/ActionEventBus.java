@@ -0,0 +1,134 @@
+package com.attackishere.xinput;
+
+/**
+ * Turns each frame's action bits (CompiledBindings.evaluate) into
+ * timestamped ActionEvents for the listeners registered on each action.
+ *
+ * The client tick calls {@link #update} with the frame's bits and sample
+ * time, then {@link #dispatch} once. For every action, in ordinal order,
+ * listeners get RELEASED, or PRESSED, or HELD followed by REPEAT when one is
+ * due. Per-action state lives in preallocated arrays and a single
+ * ActionEvent is reused, so dispatching never allocates. Registering copies
+ * the action's listener array, which also makes it safe from inside a
+ * listener (the change applies from the next dispatch).
+ *
+ * Client thread only.
+ */
+public class ActionEventBus {
+
+    public static final long REPEAT_DELAY_NANOS    = 400000000L;
+    public static final long REPEAT_INTERVAL_NANOS = 100000000L;
+
+    private static final ControllerAction[] ACTIONS = ControllerAction.values();
+    private static final ActionEvent.Listener[] NO_LISTENERS = new ActionEvent.Listener[0];
+
+    private final ActionEvent.Listener[][] listeners = new ActionEvent.Listener[ACTIONS.length][];
+    private final long[] pressNanos  = new long[ACTIONS.length];
+    private final long[] nextRepeat  = new long[ACTIONS.length];
+    private final int[]  repeats     = new int[ACTIONS.length];
+    private final long[] pressLatency = new long[ACTIONS.length];
+    private final ActionEvent event = new ActionEvent();
+
+    private int  down = 0;
+    // Pending for the next dispatch()
+    private int  pressed = 0, released = 0, held = 0;
+    private long frameNanos = 0;
+
+    public ActionEventBus() {
+        for (int i = 0; i < listeners.length; i++) listeners[i] = NO_LISTENERS;
+    }
+
+    public void register(ControllerAction action, ActionEvent.Listener l) {
+        ActionEvent.Listener[] old = listeners[action.ordinal()];
+        ActionEvent.Listener[] now = new ActionEvent.Listener[old.length + 1];
+        System.arraycopy(old, 0, now, 0, old.length);
+        now[old.length] = l;
+        listeners[action.ordinal()] = now;
+    }
+
+    public void unregister(ControllerAction action, ActionEvent.Listener l) {
+        ActionEvent.Listener[] old = listeners[action.ordinal()];
+        for (int i = 0; i < old.length; i++) {
+            if (old[i] != l) continue;
+            ActionEvent.Listener[] now = old.length == 1 ? NO_LISTENERS : new ActionEvent.Listener[old.length - 1];
+            System.arraycopy(old, 0, now, 0, i);
+            System.arraycopy(old, i + 1, now, i, old.length - i - 1);
+            listeners[action.ordinal()] = now;
+            return;
+        }
+    }
+
+    /** This frame's action bits (bit = ordinal), sampled at {@code nanos}. */
+    public void update(int actions, long nanos) {
+        pressed  = actions & ~down;
+        released = down & ~actions;
+        held     = actions & down;
+        down = actions;
+        frameNanos = nanos;
+    }
+
+    /** Delivers the events of the last {@link #update}; later calls deliver nothing until the next one. */
+    public void dispatch() {
+        int p = pressed, r = released, h = held;
+        pressed = released = held = 0;
+        long t = frameNanos;
+        for (int i = 0; i < ACTIONS.length; i++) {
+            int bit = 1 << i;
+            if ((r & bit) != 0) {
+                fire(i, ActionEvent.Type.RELEASED, t);
+            } else if ((p & bit) != 0) {
+                pressNanos[i] = t;
+                nextRepeat[i] = t + REPEAT_DELAY_NANOS;
+                repeats[i] = 0;
+                pressLatency[i] = fire(i, ActionEvent.Type.PRESSED, t);
+            } else if ((h & bit) != 0) {
+                fire(i, ActionEvent.Type.HELD, t);
+                if (t - nextRepeat[i] >= 0) {
+                    repeats[i]++;
+                    nextRepeat[i] += REPEAT_INTERVAL_NANOS;
+                    if (t - nextRepeat[i] >= 0) nextRepeat[i] = t + REPEAT_INTERVAL_NANOS;   // fell behind: no bursts
+                    fire(i, ActionEvent.Type.REPEAT, t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases every action that is down (the pad went away, or the
+     * controller was disabled), delivering RELEASED for each.
+     */
+    public void reset(long nanos) {
+        update(0, nanos);
+        dispatch();
+    }
+
+    public boolean isDown(ControllerAction a) {
+        return (down & 1 << a.ordinal()) != 0;
+    }
+
+    /** Sample-to-dispatch latency of {@code a}'s most recent press, or 0. */
+    public long pressLatencyNanos(ControllerAction a) {
+        return pressLatency[a.ordinal()];
+    }
+
+    /**
+     * Delivers one event to {@code i}'s listeners, refilling the shared
+     * event for each so one listener can't change what the next sees.
+     * Returns the sample-to-dispatch latency.
+     */
+    private long fire(int i, ActionEvent.Type type, long nanos) {
+        long latency = System.nanoTime() - nanos;
+        ActionEvent e = event;
+        ActionEvent.Listener[] ls = listeners[i];
+        for (int k = 0; k < ls.length; k++) {
+            e.action = ACTIONS[i];
+            e.type = type;
+            e.nanos = nanos;
+            e.pressNanos = pressNanos[i];
+            e.repeats = repeats[i];
+            e.dispatchNanos = System.nanoTime();
+            ls[k].onAction(e);
+        }
+        return latency;
+    }
+}
\ No newline at end of file
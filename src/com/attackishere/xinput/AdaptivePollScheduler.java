@@ -0,0 +1,131 @@
+package com.attackishere.xinput;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Decides how often to poll: at the full rate while the input is changing,
+ * decaying towards an idle rate once nothing has moved for a while (AFK, or
+ * playing on keyboard and mouse with the pad on the desk), and back to the
+ * full rate on the first change.
+ *
+ * "Changed" means a different button mask, a move of more than
+ * AXIS_EPSILON on any axis since the last change, or the device appearing
+ * or going away; stick noise below that doesn't keep the rate up. After
+ * idleAfter without a change the period doubles on every poll until it
+ * reaches the idle period.
+ *
+ * Also accounts the polls it schedules: count, current rate, and the CPU
+ * time the polling thread spent inside them (thread CPU time where the JVM
+ * supports it, wall time otherwise). Single polling thread; the metrics can
+ * be read from anywhere.
+ */
+public class AdaptivePollScheduler {
+
+    public static final float AXIS_EPSILON = 0.02f;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = cpuTimeSupported();
+
+    private final String name;
+    private final long fullPeriod, idlePeriod, idleAfterNanos;
+
+    private final ControllerState reference = new ControllerState();
+    private boolean referenceOk = false;
+    private long lastChange = System.nanoTime();
+    private long period;
+    private long cpuAtStart = 0, wallAtStart = 0;
+
+    private volatile long polls = 0;
+    private volatile long cpuNanos = 0;
+    private volatile boolean idle = false;
+    private volatile long currentPeriod;
+
+    /**
+     * @param fullHz      rate while input changes
+     * @param idleHz      lowest rate once idle (clamped to 1..fullHz)
+     * @param idleAfterMs time without a change before decaying
+     */
+    public AdaptivePollScheduler(String name, int fullHz, int idleHz, long idleAfterMs) {
+        this.name = name;
+        int full = Math.max(1, fullHz);
+        int low  = Math.max(1, Math.min(idleHz, full));
+        fullPeriod     = 1000000000L / full;
+        idlePeriod     = 1000000000L / low;
+        idleAfterNanos = Math.max(0, idleAfterMs) * 1000000L;
+        period = currentPeriod = fullPeriod;
+    }
+
+    private static boolean cpuTimeSupported() {
+        try {
+            if (!THREADS.isCurrentThreadCpuTimeSupported()) return false;
+            if (!THREADS.isThreadCpuTimeEnabled()) THREADS.setThreadCpuTimeEnabled(true);
+            return THREADS.isThreadCpuTimeEnabled();
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /** Call right before polling. */
+    public void beginPoll() {
+        wallAtStart = System.nanoTime();
+        cpuAtStart  = CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Call right after polling with the sample just taken. Returns the
+     * period to wait before the next poll.
+     */
+    public long endPoll(ControllerState sample, boolean ok, long now) {
+        long cost = CPU_TIME ? THREADS.getCurrentThreadCpuTime() - cpuAtStart : now - wallAtStart;
+        cpuNanos += cost;
+        polls++;
+
+        if (changed(sample, ok)) {
+            lastChange = now;
+            if (idle) {
+                idle = false;
+                System.out.println("[XInputMod] " + name + " polling back to " + hz(fullPeriod) + " Hz.");
+            }
+            period = fullPeriod;
+        } else if (now - lastChange >= idleAfterNanos && period < idlePeriod) {
+            period = Math.min(idlePeriod, period * 2);
+            if (!idle && period == idlePeriod) {
+                idle = true;
+                System.out.println("[XInputMod] " + name + " polling idle at " + hz(idlePeriod) + " Hz.");
+            }
+        }
+        currentPeriod = period;
+        return period;
+    }
+
+    private boolean changed(ControllerState s, boolean ok) {
+        if (ok != referenceOk) {
+            referenceOk = ok;
+            reference.copyFrom(s);
+            return true;
+        }
+        if (!ok) return false;
+        boolean moved = s.buttons != reference.buttons;
+        for (int i = 0; !moved && i < ControllerState.AXIS_COUNT; i++)
+            moved = Math.abs(s.axes[i] - reference.axes[i]) > AXIS_EPSILON;
+        if (moved) reference.copyFrom(s);
+        return moved;
+    }
+
+    private static int hz(long periodNanos) {
+        return (int) Math.round(1e9 / periodNanos);
+    }
+
+    // =========================================================================
+    // Metrics
+    // =========================================================================
+
+    /** Polling rate right now. */
+    public int rateHz()        { return hz(currentPeriod); }
+    public boolean isIdle()    { return idle; }
+    public long polls()        { return polls; }
+    /** CPU (or wall, see class doc) nanos spent inside polls so far. */
+    public long cpuNanos()     { return cpuNanos; }
+    public boolean measuresCpu() { return CPU_TIME; }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.attackishere.xinput;
+
+/**
+ * Fixed-size queue of timestamped button press/release edges.
+ *
+ * Single producer (whichever thread polls the backend: the client thread, or
+ * the background poller when enabled), single consumer (the client tick).
+ * Storage is preallocated parallel arrays, so offering and draining never
+ * allocate. If the consumer falls behind and the ring fills up, new edges
+ * are dropped and {@link #takeOverflow()} reports it, so the tick can fall
+ * back to diffing the final polled state.
+ */
+public class ButtonEdgeQueue {
+
+    /** Reusable holder the consumer drains into. */
+    public static final class Edge {
+        public int     button;   // ControllerState.BUTTON_*
+        public boolean pressed;
+        public long    nanos;    // System.nanoTime() base
+    }
+
+    /** Receives the frames {@link #replay} rebuilds, in order. */
+    public interface Frames {
+        void frame(int buttons, long nanos);
+    }
+
+    private final int      mask;
+    private final int[]    buttons;
+    private final boolean[] pressed;
+    private final long[]   nanos;
+
+    private volatile long head = 0;   // next slot to read  (consumer-owned)
+    private volatile long tail = 0;   // next slot to write (producer-owned)
+    private volatile boolean overflow = false;
+    private final Edge replayEdge = new Edge();   // consumer-owned
+
+    /** @param capacity rounded up to a power of two */
+    public ButtonEdgeQueue(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask    = cap - 1;
+        buttons = new int[cap];
+        pressed = new boolean[cap];
+        nanos   = new long[cap];
+    }
+
+    // =========================================================================
+    // Producer
+    // =========================================================================
+
+    public boolean offer(int button, boolean isPressed, long timeNanos) {
+        long t = tail;
+        if (t - head > mask) {
+            overflow = true;
+            return false;
+        }
+        int i = (int) (t & mask);
+        buttons[i] = button;
+        pressed[i] = isPressed;
+        nanos[i]   = timeNanos;
+        tail = t + 1;   // volatile write publishes the slot
+        return true;
+    }
+
+    // =========================================================================
+    // Consumer
+    // =========================================================================
+
+    /** Moves the oldest edge into {@code out}. Returns false if empty. */
+    public boolean poll(Edge out) {
+        return take(out, false, 0L);
+    }
+
+    /**
+     * Like {@link #poll(Edge)}, but leaves the oldest edge queued if it is
+     * newer than {@code notAfterNanos}. Lets the consumer stop at the sample
+     * it is processing while the producer is already queuing the next one.
+     */
+    public boolean poll(Edge out, long notAfterNanos) {
+        return take(out, true, notAfterNanos);
+    }
+
+    private boolean take(Edge out, boolean bounded, long notAfterNanos) {
+        long h = head;
+        if (h == tail) return false;
+        int i = (int) (h & mask);
+        if (bounded && nanos[i] - notAfterNanos > 0) return false;
+        out.button  = buttons[i];
+        out.pressed = pressed[i];
+        out.nanos   = nanos[i];
+        head = h + 1;   // hands the slot back to the producer
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    /** Returns and clears the overflow flag. */
+    public boolean takeOverflow() {
+        if (!overflow) return false;
+        overflow = false;
+        return true;
+    }
+
+    /** Consumer-side: discard everything queued so far. */
+    public void clear() {
+        head = tail;
+    }
+
+    /**
+     * Consumer-side: rebuilds the button masks between two samples. Starting
+     * from {@code fromButtons}, applies the queued edges up to
+     * {@code finalNanos} one at a time and hands each resulting mask to
+     * {@code frames}; edges that change nothing are skipped. If that doesn't
+     * end on {@code finalButtons} (or there were no edges), a last frame on
+     * the final state follows. After an overflow the queue is dropped and
+     * only that last frame is delivered. Returns the number of frames.
+     */
+    public int replay(int fromButtons, int finalButtons, long finalNanos, Frames frames) {
+        int buttons = fromButtons;
+        int n = 0;
+        if (takeOverflow()) {
+            clear();   // lost edges; the final-state frame below covers it
+        } else {
+            while (take(replayEdge, true, finalNanos)) {
+                int bit = 1 << replayEdge.button;
+                if (((buttons & bit) != 0) == replayEdge.pressed) continue;
+                buttons ^= bit;
+                frames.frame(buttons, replayEdge.nanos);
+                n++;
+            }
+        }
+        if (n == 0 || buttons != finalButtons) {
+            frames.frame(finalButtons, finalNanos);
+            n++;
+        }
+        return n;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.attackishere.xinput;
+
+/**
+ * Check for the event-queue path (ButtonEdgeTracker into ButtonEdgeQueue,
+ * replayed by ButtonEdgeQueue.replay as XInputTickHandler does), driven by
+ * synthetic events and run outside the game:
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.ButtonEdgeReplayCheck
+ *
+ * Each poll is fed the way JInputController.pollEvents feeds it: the
+ * events, then reconcile() against the polled state. A press and release
+ * inside one poll must both be replayed, in order; edges from after the
+ * sample must wait for the next one; edges that stop short of the sample
+ * must still end on it; an overflowing queue must fall back to a single
+ * frame on the polled state; and reconcile() must supply an edge the
+ * events missed. Failures are listed and the exit status is 1.
+ */
+public class ButtonEdgeReplayCheck {
+
+    private static final int A = ControllerState.MASK_A;
+    private static final int B = ControllerState.MASK_B;
+    private static final int UP = ControllerState.MASK_DPAD_UP;
+    private static final int LEFT = ControllerState.MASK_DPAD_LEFT;
+
+    private static int failures = 0;
+
+    public static void main(String[] args) {
+        ButtonEdgeQueue queue = new ButtonEdgeQueue(8);
+        ButtonEdgeTracker tracker = new ButtonEdgeTracker(queue);
+        Recorder frames = new Recorder();
+        ControllerState polled = new ControllerState();
+        int prev = 0;
+
+        // A tapped inside one poll: press then release, both replayed
+        tracker.button(ControllerState.BUTTON_A, true, 10);
+        tracker.button(ControllerState.BUTTON_A, false, 20);
+        prev = poll(tracker, queue, polled, 0, 100, prev, frames);
+        expectFrames("sub-poll tap", frames, A, 10, 0, 20);
+
+        // Hat to up-left and back inside one poll, with B held throughout
+        tracker.button(ControllerState.BUTTON_B, true, 110);
+        tracker.dpad(ButtonEdgeTracker.DPAD_UP | ButtonEdgeTracker.DPAD_LEFT, 120);
+        tracker.dpad(0, 130);
+        prev = poll(tracker, queue, polled, B, 200, prev, frames);
+        expectFrames("hat flick under a held button", frames,
+            B, 110, B | UP, 120, B | UP | LEFT, 120, B | LEFT, 130, B, 130);
+
+        // No edges: one frame on the polled state
+        prev = poll(tracker, queue, polled, B, 300, prev, frames);
+        expectFrames("idle poll", frames, B, 300);
+
+        // An edge queued after the sample waits for the next replay
+        tracker.button(ControllerState.BUTTON_A, true, 310);
+        tracker.reconcile(stateOf(polled, A | B), 320);   // sampled at 320 with A down
+        tracker.button(ControllerState.BUTTON_A, false, 350);   // the next poll, already queuing
+        queue.replay(prev, A | B, 320, frames);
+        expectFrames("bounded replay", frames, A | B, 310);
+        expect("edge after the sample still queued", !queue.isEmpty());
+        prev = A | B;
+        tracker.reconcile(stateOf(polled, B), 400);
+        queue.replay(prev, B, 400, frames);
+        expectFrames("held-back edge replayed next", frames, B, 350);
+        prev = B;
+
+        // Missed events: reconcile supplies a press (A) and a release (B)
+        prev = poll(tracker, queue, polled, A, 500, prev, frames);
+        expectFrames("missed edges", frames, A | B, 500, A, 500);
+
+        // Edges that stop short of the sample (a source without reconcile)
+        // still end on the polled state
+        tracker.button(ControllerState.BUTTON_B, true, 505);
+        queue.replay(prev, A | B | UP, 508, frames);
+        expectFrames("edges short of the sample", frames, A | B, 505, A | B | UP, 508);
+        prev = poll(tracker, queue, polled, A, 509, A | B | UP, frames);   // back in step
+        expectFrames("resync", frames, A | UP, 509, A, 509);
+
+        // Overflow: more edges than the queue holds, one frame on the final state
+        for (int i = 0; i < 12; i++)
+            tracker.button(ControllerState.BUTTON_X, i % 2 == 0, 510 + i);
+        expect("overflow reported", queue.takeOverflow());
+        tracker.button(ControllerState.BUTTON_X, true, 530);   // overflow again
+        prev = poll(tracker, queue, polled, A | ControllerState.MASK_X, 600, prev, frames);
+        expectFrames("overflow", frames, A | ControllerState.MASK_X, 600);
+        expect("queue dropped after overflow", queue.isEmpty());
+
+        System.out.println(failures == 0 ? "OK" : failures + " failure(s)");
+        if (failures > 0) System.exit(1);
+    }
+
+    /** One poll ending on {@code buttons} at {@code now}, then the tick's replay. Returns the new mask. */
+    private static int poll(ButtonEdgeTracker tracker, ButtonEdgeQueue queue, ControllerState polled,
+                            int buttons, long now, int prev, Recorder frames) {
+        tracker.reconcile(stateOf(polled, buttons), now);
+        queue.replay(prev, buttons, now, frames);
+        return buttons;
+    }
+
+    private static ControllerState stateOf(ControllerState cs, int buttons) {
+        cs.zero();
+        cs.buttons = buttons;
+        return cs;
+    }
+
+    /** Collects replayed frames as (buttons, nanos) pairs. */
+    private static final class Recorder implements ButtonEdgeQueue.Frames {
+        final long[] got = new long[32];
+        int n = 0;
+
+        @Override public void frame(int buttons, long nanos) {
+            if (n + 2 <= got.length) { got[n] = buttons; got[n + 1] = nanos; }
+            n += 2;
+        }
+    }
+
+    /** Expects exactly the given (buttons, nanos) frames, then clears the recorder. */
+    private static void expectFrames(String what, Recorder r, long... want) {
+        boolean ok = r.n == want.length;
+        for (int i = 0; ok && i < want.length; i++) ok = r.got[i] == want[i];
+        if (!ok) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i + 1 < Math.min(r.n, r.got.length); i += 2)
+                sb.append(" 0x").append(Long.toHexString(r.got[i])).append('@').append(r.got[i + 1]);
+            expect(what + ": frames" + sb, false);
+        }
+        r.n = 0;
+    }
+
+    private static void expect(String what, boolean ok) {
+        if (ok) return;
+        failures++;
+        System.out.println("FAIL " + what);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.attackishere.xinput;
+
+/**
+ * Turns a stream of raw component values into press/release edges.
+ *
+ * Backends feed it whatever their event source reports (one call per
+ * button or hat event, in order) and it emits an edge into the queue only
+ * when a logical button actually changes. Nothing here knows about JInput,
+ * so it can be driven by synthetic events just as well as by a real
+ * Controller's event queue.
+ */
+public class ButtonEdgeTracker {
+
+    // D-pad bits as produced by the backend's hat decoding
+    public static final int DPAD_UP    = 0x1;
+    public static final int DPAD_DOWN  = 0x2;
+    public static final int DPAD_LEFT  = 0x4;
+    public static final int DPAD_RIGHT = 0x8;
+
+    private final ButtonEdgeQueue queue;
+    private final boolean[] state = new boolean[ControllerState.BUTTON_COUNT];
+
+    // Estimated (host nanoTime - source nanos). Source clocks (e.g. JInput
+    // event nanos) use a platform-specific base; every event is observed
+    // after it happened, so the smallest observed offset is the best estimate.
+    private long    clockOffset = 0;
+    private boolean clockKnown  = false;
+
+    public ButtonEdgeTracker(ButtonEdgeQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Map a source timestamp onto System.nanoTime(). Pass 0 if the source has
+     * no timestamp; {@code now} is then used as-is.
+     */
+    public long toHostNanos(long sourceNanos, long now) {
+        if (sourceNanos <= 0) return now;
+        long off = now - sourceNanos;
+        if (!clockKnown || off < clockOffset) { clockOffset = off; clockKnown = true; }
+        long t = sourceNanos + clockOffset;
+        return t > now ? now : t;
+    }
+
+    /** A single logical button reported a new value. */
+    public void button(int button, boolean pressed, long hostNanos) {
+        if (button < 0 || button >= state.length || state[button] == pressed) return;
+        state[button] = pressed;
+        queue.offer(button, pressed, hostNanos);
+    }
+
+    /** The hat switch reported a new direction (DPAD_* bits, 0 = centred). */
+    public void dpad(int bits, long hostNanos) {
+        button(ControllerState.BUTTON_DPAD_UP,    (bits & DPAD_UP)    != 0, hostNanos);
+        button(ControllerState.BUTTON_DPAD_DOWN,  (bits & DPAD_DOWN)  != 0, hostNanos);
+        button(ControllerState.BUTTON_DPAD_LEFT,  (bits & DPAD_LEFT)  != 0, hostNanos);
+        button(ControllerState.BUTTON_DPAD_RIGHT, (bits & DPAD_RIGHT) != 0, hostNanos);
+    }
+
+    /**
+     * Bring the tracked state in line with a fully polled state. Emits edges
+     * for anything the event stream missed (dropped events, buttons only
+     * reachable through fallbacks), so the queue always ends on {@code cs}.
+     */
+    public void reconcile(ControllerState cs, long hostNanos) {
+        for (int i = 0; i < state.length; i++)
+            button(i, cs.getButton(i), hostNanos);
+    }
+
+    /** Forget everything (device lost); the next events start from released. */
+    public void reset() {
+        for (int i = 0; i < state.length; i++) state[i] = false;
+        clockKnown = false;
+    }
+}
\ No newline at end of file
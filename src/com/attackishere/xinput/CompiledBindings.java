@@ -0,0 +1,155 @@
+package com.attackishere.xinput;
+
+/**
+ * The action bindings from XInputConfig, compiled into one test per action
+ * so the tick evaluates every action without touching the config, the
+ * backend or any sentinel logic.
+ *
+ * Each action becomes one of:
+ *
+ *   MASK  - (cs.buttons & mask) != 0; d-pad sentinels, button defaults,
+ *           and button indices the backend maps to a logical button
+ *   AXIS  - cs.axes[axis] > threshold; the trigger sentinels and defaults
+ *   RAW   - backend.rawButtonPressed(index); only a button index the
+ *           backend has no logical button for (an extra button on an
+ *           unusual pad)
+ *   NONE  - unbound
+ *
+ * The table is rebuilt only when the config's bindings revision, the active
+ * backend or its device changes: a JInput index means a different logical
+ * button on a different pad. Results go into one int, bit = action ordinal.
+ */
+public class CompiledBindings {
+
+    private static final int NONE = 0;
+    private static final int MASK = 1;
+    private static final int AXIS = 2;
+    private static final int RAW  = 3;
+
+    private static final ControllerAction[] ACTIONS = ControllerAction.values();
+
+    private final float triggerThreshold;
+    private final int[] op  = new int[ACTIONS.length];
+    private final int[] arg = new int[ACTIONS.length];   // mask, axis or raw index
+
+    private XInputConfig compiledConfig = null;
+    private int    compiledRevision = -1;
+    private ControllerBackend compiledBackend = null;
+    private Object compiledDevice = null;
+    private int    rebuilds = 0;
+
+    public CompiledBindings(float triggerThreshold) {
+        this.triggerThreshold = triggerThreshold;
+    }
+
+    /** Bit for {@code a} in an {@link #evaluate} result. */
+    public static int bit(ControllerAction a) {
+        return 1 << a.ordinal();
+    }
+
+    /**
+     * Every action's state for {@code cs}, one bit per action ordinal.
+     * Recompiles first if the bindings or the device changed.
+     */
+    public int evaluate(XInputConfig config, ControllerBackend backend, ControllerState cs) {
+        if (config == null) return 0;
+        Object device = backend != null ? backend.device() : null;
+        if (config != compiledConfig || config.bindingsRevision() != compiledRevision
+                || backend != compiledBackend || device != compiledDevice)
+            compile(config, backend, device);
+
+        int bits = 0;
+        int buttons = cs.buttons;
+        for (int i = 0; i < op.length; i++) {
+            boolean on;
+            switch (op[i]) {
+                case MASK: on = (buttons & arg[i]) != 0; break;
+                case AXIS: on = cs.axes[arg[i]] > triggerThreshold; break;
+                case RAW:  on = backend != null && backend.rawButtonPressed(arg[i], cs); break;
+                default:   on = false;
+            }
+            if (on) bits |= 1 << i;
+        }
+        return bits;
+    }
+
+    /** Times the table has been rebuilt. */
+    public int rebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * Binding values (see XInputTickHandler.BIND_*):
+     *   >= 0            button index of the active backend
+     *   BIND_DPAD_*     the d-pad direction
+     *   BIND_LT/RT_*    the trigger past the threshold
+     *   other negative  the action's hardware default
+     */
+    private void compile(XInputConfig config, ControllerBackend backend, Object device) {
+        compiledConfig   = config;
+        compiledRevision = config.bindingsRevision();
+        compiledBackend  = backend;
+        compiledDevice   = device;
+        rebuilds++;
+        for (ControllerAction a : ACTIONS) {
+            int i = a.ordinal();
+            int binding = config.getBinding(a);
+            switch (binding) {
+                case XInputTickHandler.BIND_DPAD_UP:     button(i, ControllerState.BUTTON_DPAD_UP);    continue;
+                case XInputTickHandler.BIND_DPAD_DOWN:   button(i, ControllerState.BUTTON_DPAD_DOWN);  continue;
+                case XInputTickHandler.BIND_DPAD_LEFT:   button(i, ControllerState.BUTTON_DPAD_LEFT);  continue;
+                case XInputTickHandler.BIND_DPAD_RIGHT:  button(i, ControllerState.BUTTON_DPAD_RIGHT); continue;
+                case XInputTickHandler.BIND_LT_SENTINEL: axis(i, ControllerState.AXIS_LT);             continue;
+                case XInputTickHandler.BIND_RT_SENTINEL: axis(i, ControllerState.AXIS_RT);             continue;
+                default: break;
+            }
+            if (binding >= 0) {
+                int logical = logicalButton(backend, binding);
+                if (logical >= 0) {
+                    button(i, logical);
+                } else if (backend != null) {
+                    op[i] = RAW;
+                    arg[i] = binding;
+                } else {
+                    op[i] = NONE;
+                }
+                continue;
+            }
+            switch (a) {
+                case ATTACK:         axis(i, ControllerState.AXIS_RT);               break;
+                case USE_ITEM:       axis(i, ControllerState.AXIS_LT);               break;
+                case HOTBAR_PREV:    button(i, ControllerState.BUTTON_DPAD_LEFT);    break;
+                case HOTBAR_NEXT:    button(i, ControllerState.BUTTON_DPAD_RIGHT);   break;
+                case SNEAK:          button(i, ControllerState.BUTTON_DPAD_DOWN);    break;
+                case SPRINT:         button(i, ControllerState.BUTTON_DPAD_UP);      break;
+                case PAUSE:          button(i, ControllerState.BUTTON_START);        break;
+                case RECIPE_BROWSER: button(i, ControllerState.BUTTON_BACK);         break;
+                case CHAT:           button(i, ControllerState.BUTTON_BACK);         break;
+                default:             op[i] = NONE;
+            }
+        }
+    }
+
+    /**
+     * The logical button that rawButtonPressed(index) reads back from the
+     * state, or -1. Backends resolve their own indices for A..RThumb (in
+     * that order, so the first match wins as it does there); anything else
+     * stays a raw read.
+     */
+    private static int logicalButton(ControllerBackend backend, int index) {
+        if (backend == null) return -1;
+        for (int b = ControllerState.BUTTON_A; b <= ControllerState.BUTTON_RTHUMB; b++)
+            if (backend.buttonIndex(b) == index) return b;
+        return -1;
+    }
+
+    private void button(int i, int logical) {
+        op[i] = MASK;
+        arg[i] = 1 << logical;
+    }
+
+    private void axis(int i, int axis) {
+        op[i] = AXIS;
+        arg[i] = axis;
+    }
+}
\ No newline at end of file
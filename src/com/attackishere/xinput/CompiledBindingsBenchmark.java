@@ -0,0 +1,130 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Check and timing for CompiledBindings, run outside the game:
+ *
+ *   java -cp xinputmod.jar:forge.jar com.attackishere.xinput.CompiledBindingsBenchmark [ticks]
+ *
+ * Uses a throwaway config (the XInput layout's bindings, plus one index
+ * that has no logical button so the raw path is covered) and
+ * SyntheticBackend's fixed layout. Every button mask and a sweep of
+ * trigger values is evaluated both by the compiled table and by the
+ * per-action lookup the tick used before; any difference is listed and the
+ * exit status is 1. Then both are timed, with the bytes this thread
+ * allocates per tick: the compiled table should allocate none.
+ */
+public class CompiledBindingsBenchmark {
+
+    private static final float TRIGGER_THRESHOLD = 0.45f;
+    private static final ControllerAction[] ACTIONS = ControllerAction.values();
+
+    public static void main(String[] args) throws Exception {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+
+        File file = File.createTempFile("xinputmod-bench", ".cfg");
+        file.deleteOnExit();
+        XInputConfig config = new XInputConfig(file);
+        config.applyJXInputDefaults();
+        config.setBinding(ControllerAction.THIRD_PERSON, ControllerState.BUTTON_DPAD_LEFT);   // raw index
+        ControllerBackend backend = new SyntheticBackend();
+        CompiledBindings compiled = new CompiledBindings(TRIGGER_THRESHOLD);
+        ControllerState cs = new ControllerState();
+
+        int wrong = 0;
+        for (int buttons = 0; buttons < 1 << ControllerState.BUTTON_COUNT; buttons++) {
+            state(cs, buttons);
+            int bits = compiled.evaluate(config, backend, cs);
+            boolean[] ref = reference(config, backend, cs);
+            for (ControllerAction a : ACTIONS) {
+                if (((bits & CompiledBindings.bit(a)) != 0) == ref[a.ordinal()]) continue;
+                if (wrong++ < 20)
+                    System.out.println("MISMATCH " + a + " buttons=0x" + Integer.toHexString(buttons)
+                        + " lt=" + cs.lt() + " rt=" + cs.rt() + ": expected " + ref[a.ordinal()]);
+            }
+        }
+        System.out.println((1 << ControllerState.BUTTON_COUNT) + " states, " + wrong + " mismatches, "
+            + compiled.rebuilds() + " rebuild(s)");
+
+        int sink = 0;
+        for (int i = 0; i < ticks / 4; i++) {   // warm up
+            state(cs, i);
+            sink += compiled.evaluate(config, backend, cs);
+            sink += reference(config, backend, cs).length;
+        }
+
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            state(cs, i);
+            sink += compiled.evaluate(config, backend, cs);
+        }
+        report("compiled ", System.nanoTime() - t0, allocatedBytes() - bytes0, bytes0 < 0, ticks);
+
+        bytes0 = allocatedBytes();
+        t0 = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            state(cs, i);
+            if (reference(config, backend, cs)[i % ACTIONS.length]) sink++;
+        }
+        report("per-action", System.nanoTime() - t0, allocatedBytes() - bytes0, bytes0 < 0, ticks);
+        System.out.println("rebuilds " + compiled.rebuilds() + " (checksum " + sink + ")");
+
+        if (wrong > 0) System.exit(1);
+    }
+
+    /** Buttons from {@code i}, triggers swept across the threshold. */
+    private static void state(ControllerState cs, int i) {
+        cs.buttons = i & ((1 << ControllerState.BUTTON_COUNT) - 1);
+        cs.axes[ControllerState.AXIS_LT] = (i % 10) / 9f;
+        cs.axes[ControllerState.AXIS_RT] = ((i / 10) % 10) / 9f;
+    }
+
+    private static void report(String label, long nanos, long bytes, boolean unknown, int ticks) {
+        System.out.println(label + ": " + nanos / ticks + " ns/tick, "
+            + (unknown ? "allocation unknown" : String.format("%.3f", bytes / (double) ticks) + " bytes/tick")
+            + " over " + ticks + " ticks");
+    }
+
+    /** Bytes allocated by this thread so far, or -1 if the VM can't tell. */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** The tick's previous evaluation: a fresh array and a config lookup per action. */
+    private static boolean[] reference(XInputConfig config, ControllerBackend backend, ControllerState cs) {
+        boolean[] cur = new boolean[ACTIONS.length];
+        for (ControllerAction a : ACTIONS.clone())
+            cur[a.ordinal()] = referencePressed(config, backend, cs, a);
+        return cur;
+    }
+
+    private static boolean referencePressed(XInputConfig config, ControllerBackend backend,
+                                            ControllerState cs, ControllerAction action) {
+        int binding = config.getBinding(action);
+        if (binding == XInputTickHandler.BIND_DPAD_UP)     return cs.dpadUp();
+        if (binding == XInputTickHandler.BIND_DPAD_DOWN)   return cs.dpadDown();
+        if (binding == XInputTickHandler.BIND_DPAD_LEFT)   return cs.dpadLeft();
+        if (binding == XInputTickHandler.BIND_DPAD_RIGHT)  return cs.dpadRight();
+        if (binding == XInputTickHandler.BIND_LT_SENTINEL) return cs.lt() > TRIGGER_THRESHOLD;
+        if (binding == XInputTickHandler.BIND_RT_SENTINEL) return cs.rt() > TRIGGER_THRESHOLD;
+        if (binding >= 0) return backend.rawButtonPressed(binding, cs);
+        switch (action) {
+            case ATTACK:         return cs.rt() > TRIGGER_THRESHOLD;
+            case USE_ITEM:       return cs.lt() > TRIGGER_THRESHOLD;
+            case HOTBAR_PREV:    return cs.dpadLeft();
+            case HOTBAR_NEXT:    return cs.dpadRight();
+            case SNEAK:          return cs.dpadDown();
+            case SPRINT:         return cs.dpadUp();
+            case PAUSE:          return cs.start();
+            case RECIPE_BROWSER: return cs.back();
+            case CHAT:           return cs.back();
+            default:             return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.attackishere.xinput;
+
+import net.java.games.input.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns controller buttons a logical role from the names their drivers
+ * report ("Start", "Left Thumb", "L1", "Hat Up", "dpad_down", ...).
+ *
+ * A name is lower-cased and split into alphanumeric tokens in one pass,
+ * and each token is looked up once in a table built at class load. Tokens
+ * either name a role outright ("start", "options", "l3", "rightbumper") or
+ * are words that only mean something together: a side ("left", "r") with a
+ * kind ("stick", "shoulder"), or a direction with d-pad context ("hat",
+ * "dpad", "d-pad"). The result is one role (ControllerState.BUTTON_*) and a
+ * confidence:
+ *
+ *   EXACT  - the whole name is the role ("Start", "L3", "Up"), or a stick
+ *            click spelled out ("Left Thumb 3", which Linux reports
+ *            alongside a "Left Thumb" that is really the bumper)
+ *   STRONG - a role token, or a complete side+kind or d-pad+direction pair
+ *   WEAK   - a bare direction inside a longer name, or a match on the
+ *            identifier string when the name gave nothing
+ *
+ * {@link #assign} picks, for every role, the button with the highest
+ * confidence (the lowest index on a tie), so the outcome doesn't depend on
+ * the order names happen to be checked in.
+ */
+public class ComponentNameClassifier {
+
+    public static final int NONE   = -1;
+    public static final int WEAK   = 1;
+    public static final int STRONG = 2;
+    public static final int EXACT  = 3;
+
+    // Word meanings, combined by classify()
+    private static final int SIDE_L   = 1;
+    private static final int SIDE_R   = 1 << 1;
+    private static final int STICK    = 1 << 2;
+    private static final int SHOULDER = 1 << 3;
+    private static final int DPAD     = 1 << 4;
+    private static final int DIR_UP    = 1 << 5;
+    private static final int DIR_DOWN  = 1 << 6;
+    private static final int DIR_LEFT  = 1 << 7;
+    private static final int DIR_RIGHT = 1 << 8;
+    private static final int DIRS = DIR_UP | DIR_DOWN | DIR_LEFT | DIR_RIGHT;
+    private static final int CLICK    = 1 << 9;    // "3", as in Linux's "Left Thumb 3"
+
+    // Role tokens: role, or role | EXACT_ONLY for words too generic to trust inside a longer name
+    private static final int EXACT_ONLY = 1 << 16;
+    private static final Map<String, Integer> ROLES = new HashMap<String, Integer>();
+    private static final Map<String, Integer> WORDS = new HashMap<String, Integer>();
+
+    static {
+        // Start / Menu: Xbox "start" "menu", PS "options", Switch "plus", generic "guide"
+        roles(ControllerState.BUTTON_START, "start", "menu", "options", "guide", "plus");
+        roles(ControllerState.BUTTON_START | EXACT_ONLY, "home", "mode", "system", "pause");
+        // Back / Select: Xbox "back" "view", PS "select" "share" "create", Switch "minus"
+        roles(ControllerState.BUTTON_BACK, "back", "select", "view", "share", "create", "minus",
+            "capture", "screenshot");
+        roles(ControllerState.BUTTON_LTHUMB, "l3", "lstick", "lthumb", "leftstick", "leftthumb");
+        roles(ControllerState.BUTTON_RTHUMB, "r3", "rstick", "rthumb", "rightstick", "rightthumb");
+        roles(ControllerState.BUTTON_LTHUMB | EXACT_ONLY, "ls");
+        roles(ControllerState.BUTTON_RTHUMB | EXACT_ONLY, "rs");
+        roles(ControllerState.BUTTON_LB, "l1", "lb", "leftshoulder", "leftbumper");
+        roles(ControllerState.BUTTON_RB, "r1", "rb", "rightshoulder", "rightbumper");
+        roles(ControllerState.BUTTON_DPAD_UP,    "dpadup");
+        roles(ControllerState.BUTTON_DPAD_DOWN,  "dpaddown");
+        roles(ControllerState.BUTTON_DPAD_LEFT,  "dpadleft");
+        roles(ControllerState.BUTTON_DPAD_RIGHT, "dpadright");
+
+        words(SIDE_L | DIR_LEFT, "left");
+        words(SIDE_R | DIR_RIGHT, "right");
+        words(SIDE_L, "l");
+        words(SIDE_R, "r");
+        words(STICK, "stick", "thumb");
+        words(SHOULDER, "shoulder", "bumper");
+        words(DPAD, "dpad", "hat", "pov", "hatswitch");
+        words(DIR_UP, "up");
+        words(DIR_DOWN, "down");
+        words(CLICK, "3");
+    }
+
+    private static void roles(int role, String... tokens) {
+        for (String t : tokens) ROLES.put(t, role);
+    }
+
+    private static void words(int meaning, String... tokens) {
+        for (String t : tokens) WORDS.put(t, meaning);
+    }
+
+    /** Role packed with its confidence; see {@link #role} and {@link #confidence}. */
+    public static int classify(String name) {
+        if (name == null) return NONE;
+        int n = name.length();
+        int tokens = 0, meaning = 0, bestRole = NONE, bestConf = 0;
+        String prev = null, only = null;
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? Character.toLowerCase(name.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) { sb.append(c); continue; }
+            if (sb.length() == 0) continue;
+            String t = sb.toString();
+            sb.setLength(0);
+            tokens++;
+            only = t;
+            if ("pad".equals(t) && "d".equals(prev)) meaning |= DPAD;   // "d-pad", "d pad"
+            Integer w = WORDS.get(t);
+            if (w != null) meaning |= w;
+            Integer r = ROLES.get(t);
+            if (r != null && (r & EXACT_ONLY) == 0 && bestConf < STRONG) {
+                bestRole = r;
+                bestConf = STRONG;
+            }
+            prev = t;
+        }
+        if (tokens == 0) return NONE;
+        if (tokens == 1) {
+            Integer r = ROLES.get(only);
+            if (r != null) return pack(r & ~EXACT_ONLY, EXACT);
+            int d = direction(meaning);
+            if (d != NONE) return pack(d, EXACT);
+        }
+        if (bestConf >= STRONG) return pack(bestRole, bestConf);
+
+        boolean left = (meaning & SIDE_L) != 0, right = (meaning & SIDE_R) != 0;
+        if ((meaning & STICK) != 0 && left != right)
+            return pack(left ? ControllerState.BUTTON_LTHUMB : ControllerState.BUTTON_RTHUMB,
+                (meaning & CLICK) != 0 ? EXACT : STRONG);
+        if ((meaning & SHOULDER) != 0 && left != right)
+            return pack(left ? ControllerState.BUTTON_LB : ControllerState.BUTTON_RB, STRONG);
+        int d = direction(meaning);
+        if (d != NONE) return pack(d, (meaning & DPAD) != 0 ? STRONG : WEAK);
+        return NONE;
+    }
+
+    /** The one d-pad direction named, or NONE for none or several. */
+    private static int direction(int meaning) {
+        switch (meaning & DIRS) {
+            case DIR_UP:    return ControllerState.BUTTON_DPAD_UP;
+            case DIR_DOWN:  return ControllerState.BUTTON_DPAD_DOWN;
+            case DIR_LEFT:  return ControllerState.BUTTON_DPAD_LEFT;
+            case DIR_RIGHT: return ControllerState.BUTTON_DPAD_RIGHT;
+            default:        return NONE;
+        }
+    }
+
+    private static int pack(int role, int confidence) {
+        return role | confidence << 8;
+    }
+
+    /** ControllerState.BUTTON_* from a {@link #classify} result, or NONE. */
+    public static int role(int result) {
+        return result < 0 ? NONE : result & 0xff;
+    }
+
+    /** WEAK..EXACT from a {@link #classify} result, or 0. */
+    public static int confidence(int result) {
+        return result < 0 ? 0 : result >> 8;
+    }
+
+    /**
+     * Classifies a button by its name, or by its identifier string when the
+     * name is missing; an identifier that only matches after a real name
+     * didn't counts as WEAK.
+     */
+    public static int classify(Component c) {
+        if (c == null) return NONE;
+        String name = c.getName();
+        Object id = c.getIdentifier();
+        boolean named = name != null && name.trim().length() > 0;
+        int r = classify(named ? name : id != null ? id.toString() : null);
+        if (r != NONE || !named || id == null) return r;
+        r = classify(id.toString());
+        return r == NONE ? NONE : pack(role(r), WEAK);
+    }
+
+    /**
+     * Best button index for every role (indexed by ControllerState.BUTTON_*,
+     * -1 = none) among those classified with at least {@code minConfidence}.
+     */
+    public static int[] assign(Component[] buttons, int minConfidence) {
+        int[] index = new int[ControllerState.BUTTON_COUNT];
+        int[] conf  = new int[ControllerState.BUTTON_COUNT];
+        java.util.Arrays.fill(index, -1);
+        for (int i = 0; i < buttons.length; i++) {
+            int r = classify(buttons[i]);
+            int role = role(r), c = confidence(r);
+            if (role == NONE || c < minConfidence || c <= conf[role]) continue;
+            index[role] = i;
+            conf[role] = c;
+        }
+        return index;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.attackishere.xinput;
+
+/**
+ * Corpus check and timing for ComponentNameClassifier, run outside the game:
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.ComponentNameClassifierBenchmark [rounds]
+ *
+ * The corpus is button names as JInput reports them for a few common pads,
+ * each with the role it should get (-1 = none). Mismatches are listed and
+ * the exit status is 1 if there are any, so a change to the token table can
+ * be checked before it ships. The timing classifies the whole corpus plus a
+ * 64-button device with generic names.
+ */
+public class ComponentNameClassifierBenchmark {
+
+    private static final int NO = ComponentNameClassifier.NONE;
+
+    private static final Object[][] CORPUS = {
+        // Xbox 360 / One, Linux xpad (evdev codes; "Left Thumb" is BTN_TL, the bumper)
+        { "A", NO }, { "B", NO }, { "X", NO }, { "Y", NO },
+        { "Select", ControllerState.BUTTON_BACK }, { "Start", ControllerState.BUTTON_START },
+        { "Mode", ControllerState.BUTTON_START },
+        { "Left Thumb 3", ControllerState.BUTTON_LTHUMB }, { "Right Thumb 3", ControllerState.BUTTON_RTHUMB },
+        // Xbox 360, Windows DirectInput / macOS HID: numbers only
+        { "Button 0", NO }, { "Button 9", NO }, { "Button 10", NO },
+        // Generic Linux joystick codes
+        { "Trigger", NO }, { "Thumb", NO }, { "Thumb 2", NO }, { "Top", NO }, { "Top 2", NO },
+        { "Pinkie", NO }, { "Base", NO }, { "Base 2", NO },
+        // Named HID pads
+        { "L1", ControllerState.BUTTON_LB }, { "R1", ControllerState.BUTTON_RB },
+        { "L3", ControllerState.BUTTON_LTHUMB }, { "R3", ControllerState.BUTTON_RTHUMB },
+        { "Left Shoulder", ControllerState.BUTTON_LB }, { "Right Bumper", ControllerState.BUTTON_RB },
+        { "Left Stick", ControllerState.BUTTON_LTHUMB }, { "Right Thumb", ControllerState.BUTTON_RTHUMB },
+        { "Options", ControllerState.BUTTON_START }, { "Share", ControllerState.BUTTON_BACK },
+        { "Menu", ControllerState.BUTTON_START }, { "View", ControllerState.BUTTON_BACK },
+        { "Plus", ControllerState.BUTTON_START }, { "Minus", ControllerState.BUTTON_BACK },
+        { "Home", ControllerState.BUTTON_START }, { "Capture", ControllerState.BUTTON_BACK },
+        { "Home Button", NO },
+        { "Hat Up", ControllerState.BUTTON_DPAD_UP }, { "DPad Down", ControllerState.BUTTON_DPAD_DOWN },
+        { "D-Pad Left", ControllerState.BUTTON_DPAD_LEFT }, { "dpad_right", ControllerState.BUTTON_DPAD_RIGHT },
+        { "Up", ControllerState.BUTTON_DPAD_UP }, { "DPADDOWN", ControllerState.BUTTON_DPAD_DOWN },
+        { "Bulb", NO }, { "", NO },
+    };
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+
+        int wrong = 0;
+        for (Object[] row : CORPUS) {
+            String name = (String) row[0];
+            int want = (Integer) row[1];
+            int r = ComponentNameClassifier.classify(name);
+            if (ComponentNameClassifier.role(r) != want) {
+                wrong++;
+                System.out.println("MISMATCH \"" + name + "\": role " + ComponentNameClassifier.role(r)
+                    + " (confidence " + ComponentNameClassifier.confidence(r) + "), expected " + want);
+            }
+        }
+        System.out.println(CORPUS.length + " names, " + wrong + " mismatches");
+
+        String[] names = new String[CORPUS.length + 64];
+        for (int i = 0; i < CORPUS.length; i++) names[i] = (String) CORPUS[i][0];
+        for (int i = 0; i < 64; i++) names[CORPUS.length + i] = "Button " + i;
+        int sink = 0;
+        for (int r = 0; r < rounds / 10; r++)   // warm up
+            for (String n : names) sink += ComponentNameClassifier.classify(n);
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++)
+            for (String n : names) sink += ComponentNameClassifier.classify(n);
+        long per = (System.nanoTime() - t0) / ((long) rounds * names.length);
+        System.out.println("classify: " + per + " ns/name over " + names.length + " names x " + rounds
+            + " rounds (checksum " + sink + ")");
+
+        if (wrong > 0) System.exit(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.attackishere.xinput;
+
+/**
+ * One way of reading a controller (JInput, JXInput, synthetic, ...).
+ *
+ * Backends are registered with ControllerBackendRegistry, which polls them
+ * in priority order; the first one that produces a sample is the active
+ * backend. Everything above the registry only ever sees ControllerState.
+ *
+ * Threading: init/close run on the thread that owns the registry; poll and
+ * the binding lookups run on whichever thread polls (client tick, or the
+ * background poller). Backends do their own slow work (enumeration,
+ * reconnection) off that thread.
+ */
+public interface ControllerBackend {
+
+    // Capability bits
+    int CAP_ANALOG_TRIGGERS = 0x01;
+    int CAP_RUMBLE          = 0x02;
+    int CAP_EVENT_QUEUE     = 0x04;   // honours the edge tracker passed to poll
+    int CAP_HOTPLUG         = 0x08;
+
+    String name();
+
+    /** Higher polls first. */
+    int priority();
+
+    /** One-time setup. Return false if the backend can never work here. */
+    boolean init();
+
+    /**
+     * Fill {@code out} with a fresh sample. Returns false (with {@code out}
+     * zeroed) if no device is available right now. {@code edges} is null
+     * unless event-queue mode is on.
+     */
+    boolean poll(ControllerState out, ButtonEdgeTracker edges);
+
+    /**
+     * Cheap refresh of only the axes (and timestamp) of {@code out}, for the
+     * render handler between ticks: buttons are left alone, no edges are
+     * produced and nothing is consumed that the next poll would miss.
+     * Returns false if there is nothing fresher than the last poll; the
+     * caller then keeps what it has. Runs on the polling thread, like poll.
+     */
+    boolean pollAxes(ControllerState out);
+
+    /**
+     * True while the backend is still doing its initial discovery; lower
+     * priority backends are not polled until it settles.
+     */
+    boolean discovering();
+
+    void close();
+
+    int capabilities();
+
+    /** Identity of the device currently polled; changes when the device does. */
+    Object device();
+
+    /**
+     * Cached battery / capability snapshot for the current device, or null
+     * if this backend can't tell. Must not query the device: this is read
+     * from the render thread.
+     */
+    DeviceInfoCache.Info info();
+
+    /**
+     * Rumble motors of the current device, or null if it has none this
+     * backend can drive. Should return the same object while the device
+     * stays the same; HapticsEngine calls it from its own thread.
+     */
+    HapticsEngine.Motor motor();
+
+    /** Stored binding index for a ControllerState.BUTTON_* on this device. */
+    int buttonIndex(int logicalButton);
+
+    /** Whether the stored binding index {@code index} is pressed in {@code cs}. */
+    boolean rawButtonPressed(int index, ControllerState cs);
+
+    /**
+     * Write this device's detected default bindings into {@code config}.
+     * Returns false if that can't be decided yet; the caller retries later.
+     */
+    boolean applyDefaults(XInputConfig config);
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.attackishere.xinput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Holds the registered ControllerBackends in priority order and picks the
+ * active one on every poll: the highest-priority backend that returns a
+ * sample wins. A backend still doing its first discovery holds back the
+ * lower-priority ones, so e.g. JXInput is not grabbed just because JInput's
+ * first scan hasn't finished yet.
+ *
+ * Each poll is timed per backend (count / mean / max), so the cost of a
+ * backend can be compared in the log or from a probe without a profiler.
+ */
+public class ControllerBackendRegistry implements ControllerSource {
+
+    /** Poll-cost counters for one backend. Written only by the polling thread. */
+    public static final class PollStats {
+        private volatile long polls, totalNanos, maxNanos;
+
+        void record(long nanos) {
+            polls++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+        }
+
+        public long polls()          { return polls; }
+        public long maxNanos()       { return maxNanos; }
+        public long meanNanos()      { long n = polls; return n == 0 ? 0 : totalNanos / n; }
+    }
+
+    private final List<ControllerBackend> pending = new ArrayList<ControllerBackend>();
+    private ControllerBackend[] backends = new ControllerBackend[0];
+    private PollStats[]         stats    = new PollStats[0];
+
+    private volatile ControllerBackend active = null;
+    private volatile ButtonEdgeTracker edges  = null;
+    private volatile InputRecorder     recorder = null;
+
+    public void register(ControllerBackend backend) {
+        pending.add(backend);
+    }
+
+    /**
+     * Initialises everything registered so far and fixes the polling order.
+     * Backends whose init() fails are dropped.
+     */
+    public void init() {
+        List<ControllerBackend> ok = new ArrayList<ControllerBackend>();
+        for (ControllerBackend b : pending) {
+            try {
+                if (b.init()) ok.add(b);
+                else System.out.println("[XInputMod] Backend " + b.name() + " not available.");
+            } catch (Throwable t) {
+                System.out.println("[XInputMod] Backend " + b.name() + " init failed: " + t);
+            }
+        }
+        pending.clear();
+        Collections.sort(ok, new Comparator<ControllerBackend>() {
+            @Override public int compare(ControllerBackend a, ControllerBackend b) {
+                return b.priority() < a.priority() ? -1 : (b.priority() == a.priority() ? 0 : 1);
+            }
+        });
+        PollStats[] s = new PollStats[ok.size()];
+        for (int i = 0; i < s.length; i++) s[i] = new PollStats();
+        stats    = s;
+        backends = ok.toArray(new ControllerBackend[ok.size()]);
+        StringBuilder sb = new StringBuilder("[XInputMod] Backends:");
+        for (ControllerBackend b : backends) sb.append(' ').append(b.name()).append('(').append(b.priority()).append(')');
+        System.out.println(sb);
+    }
+
+    public void close() {
+        for (ControllerBackend b : backends) {
+            try { b.close(); } catch (Throwable ignored) {}
+        }
+        active = null;
+    }
+
+    /** Edge tracker handed to backends on poll; null turns event-queue mode off. */
+    public void setEdgeTracker(ButtonEdgeTracker tracker) {
+        edges = tracker;
+    }
+
+    /** Every successful sample is also appended to {@code rec}; null stops recording. */
+    public void setRecorder(InputRecorder rec) {
+        recorder = rec;
+    }
+
+    public InputRecorder recorder() { return recorder; }
+
+    @Override
+    public boolean poll(ControllerState out) {
+        ButtonEdgeTracker tracker = edges;
+        ControllerBackend[] list = backends;
+        for (int i = 0; i < list.length; i++) {
+            ControllerBackend b = list[i];
+            long t0 = System.nanoTime();
+            boolean ok = b.poll(out, tracker);
+            stats[i].record(System.nanoTime() - t0);
+            if (ok) {
+                if (active != b) {
+                    active = b;
+                    System.out.println("[XInputMod] Active backend: " + b.name()
+                        + " (mean poll " + stats[i].meanNanos() / 1000 + " us)");
+                }
+                InputRecorder rec = recorder;
+                if (rec != null) rec.record(out);
+                return true;
+            }
+            if (b.discovering()) break;
+        }
+        active = null;
+        out.zero();
+        return false;
+    }
+
+    /**
+     * Axis-only refresh from the active backend (see
+     * ControllerBackend.pollAxes). Doesn't switch backends, record or touch
+     * buttons; false while there is no active backend or nothing fresher.
+     */
+    public boolean pollAxes(ControllerState out) {
+        ControllerBackend b = active;
+        if (b == null) return false;
+        long t0 = System.nanoTime(), prev = out.timestamp;
+        out.timestamp = 0;
+        boolean ok;
+        try {
+            ok = b.pollAxes(out);
+        } catch (Throwable t) {
+            ok = false;
+        }
+        if (!ok) out.timestamp = prev;
+        else if (out.timestamp == 0) out.timestamp = t0;
+        return ok;
+    }
+
+    /** Backend that produced the last successful sample, or null. */
+    public ControllerBackend active() { return active; }
+
+    public ControllerBackend[] backends() { return backends; }
+
+    /** Poll-cost counters, parallel to {@link #backends()}. */
+    public PollStats[] stats() { return stats; }
+}
\ No newline at end of file
@@ -0,0 +1,461 @@
+package com.attackishere.xinput;
+
+import net.java.games.input.Controller;
+import net.java.games.input.ControllerEnvironment;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tracks every attached JInput gamepad/stick and notices hotplugs.
+ *
+ * JInputController.init() used to pick the first pad once and cache the
+ * answer forever, so a pad plugged in after launch was never found, and any
+ * re-enumeration would have run on the client thread. Here all enumeration
+ * happens on a background thread. JInput's environments only enumerate
+ * once, so seeing a change means building a fresh plugin instance, which
+ * opens every device again. On Linux that happens only on a real trigger:
+ * the first scan, a change in /dev/input, a lost pad or an explicit
+ * {@link #requestRescan()}. Elsewhere there is no cheap hint, so it happens
+ * every SCAN_INTERVAL_MS. While no pad is live it happens on every pass,
+ * spaced by the reconnect backoff. Pads that are still there keep their
+ * Controller and resolved mapping; only new ones come from the new
+ * instance, and are resolved on the scan thread before they are published,
+ * so the polling side only ever sees ready-to-poll pads.
+ *
+ * The scan thread is started from preInit. Its first pass is exposed as a
+ * Future ({@link #discovery()}), so the JInput natives, plugin reflection
+ * and component resolution all happen before (or alongside) world load
+ * instead of as a hitch on the first client tick. The detected bindings are
+ * applied to the config (and saved) by the client tick, which is the only
+ * thread that reads it (see JInputBackend.applyDefaults).
+ *
+ * The pad list is an immutable array swapped atomically. Add/remove events
+ * are queued and delivered to listeners on the client thread by
+ * {@link #dispatchEvents()}.
+ *
+ * Selection ("ActiveController" in the config): "auto" polls the first pad,
+ * "merge" ORs buttons and takes the strongest axis across all pads, anything
+ * else is matched against pad names.
+ */
+public class ControllerManager implements Runnable {
+
+    public static final String SELECT_AUTO  = "auto";
+    public static final String SELECT_MERGE = "merge";
+
+    // How often to look for a trigger while every pad is healthy; with a pad
+    // lost the ReconnectScheduler's backoff applies instead.
+    private static final long SCAN_INTERVAL_MS = 2000;
+
+    public interface Listener {
+        void controllerAdded(Pad pad);
+        void controllerRemoved(Pad pad);
+    }
+
+    /** One attached controller with its resolved mapping. */
+    public static final class Pad {
+        public final String key;     // stable identity across rescans
+        public final String name;
+        final String matchName;      // lower-cased once for selection
+        final JInputController input;
+        final ControllerState scratch = new ControllerState();
+        volatile boolean lost = false;
+
+        Pad(String key, String name, JInputController input) {
+            this.key = key; this.name = name; this.input = input;
+            this.matchName = name.toLowerCase();
+        }
+
+        public JInputController input() { return input; }
+    }
+
+    private static final class PadEvent {
+        final Pad pad; final boolean added;
+        PadEvent(Pad pad, boolean added) { this.pad = pad; this.added = added; }
+    }
+
+    private volatile Pad[] pads = new Pad[0];
+    private volatile Pad   primary = null;
+    private volatile String selection = SELECT_AUTO;   // always lower case
+    private volatile boolean environmentBroken = false;
+    private volatile boolean scanned = false;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+    private final ConcurrentLinkedQueue<PadEvent> events = new ConcurrentLinkedQueue<PadEvent>();
+
+    private volatile boolean running = false;
+    private Thread thread = null;
+    private volatile FutureTask<JInputController> discovery = null;
+    private String lastDeviceSignature = null;   // scan thread only
+    private volatile boolean rescanRequested = true;    // the first scan always enumerates
+    private final ReconnectScheduler reconnect = new ReconnectScheduler("JInput");
+    private volatile ControllerMappingCache mappingCache = null;
+    private volatile File controllerDBFile = null;
+    private volatile GameControllerDB controllerDB = null;   // loaded by discovery
+
+    // =========================================================================
+    // Lifecycle
+    // =========================================================================
+
+    /**
+     * Starts the scan thread. Its first pass enumerates and resolves every
+     * pad; see {@link #discovery()}.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        final long t0 = System.nanoTime();
+        discovery = new FutureTask<JInputController>(new Callable<JInputController>() {
+            @Override public JInputController call() {
+                File dbFile = controllerDBFile;
+                if (dbFile != null) controllerDB = GameControllerDB.load(dbFile);
+                scanSafely();
+                Pad p = pick(pads);
+                System.out.println("[XInputMod] Controller discovery: " + pads.length
+                    + " pad(s) in " + (System.nanoTime() - t0) / 1000000L + " ms");
+                return p != null ? p.input : null;
+            }
+        });
+        thread = new Thread(this, "XInputMod Hotplug");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /** Resolved mappings are reused from / saved to {@code cache}; null always re-detects. */
+    public void setMappingCache(ControllerMappingCache cache) {
+        mappingCache = cache;
+    }
+
+    /**
+     * gamecontrollerdb.txt to consult before the cache and heuristics. Parsed
+     * on the scan thread as the first step of discovery; a missing file is
+     * fine.
+     */
+    public void setControllerDBFile(File file) {
+        controllerDBFile = file;
+    }
+
+    public GameControllerDB controllerDB() { return controllerDB; }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        thread = null;
+    }
+
+    /**
+     * Ask the scan thread to enumerate again now (e.g. the user is picking a
+     * pad) instead of at its next pass.
+     */
+    public void requestRescan() {
+        rescanRequested = true;
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    @Override
+    public void run() {
+        discovery.run();
+        while (running && !environmentBroken) {
+            if (hasLivePads()) reconnect.markConnected();
+            else               reconnect.markLost();
+            LockSupport.parkNanos(reconnect.isReconnecting()
+                ? reconnect.nextDelayNanos() : SCAN_INTERVAL_MS * 1000000L);
+            if (running) scanSafely();
+        }
+    }
+
+    private boolean hasLivePads() {
+        for (Pad p : pads) if (!p.lost) return true;
+        return false;
+    }
+
+    private void scanSafely() {
+        try {
+            scan();
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] Controller scan failed: " + t);
+        }
+        scanned = true;
+    }
+
+    // =========================================================================
+    // Selection / listeners (any thread)
+    // =========================================================================
+
+    public void select(String sel) {
+        selection = (sel == null || sel.trim().isEmpty()) ? SELECT_AUTO : sel.trim().toLowerCase();
+    }
+
+    public String selection() { return selection; }
+
+    public void addListener(Listener l)    { listeners.add(l); }
+    public void removeListener(Listener l) { listeners.remove(l); }
+
+    /** Snapshot of the currently attached pads. */
+    public Pad[] pads() { return pads; }
+
+    /** Pad whose mapping bindings refer to (the polled pad, or the first when merging). */
+    public JInputController primary() {
+        Pad p = primary;
+        return p != null ? p.input : null;
+    }
+
+    public boolean isEnvironmentBroken() { return environmentBroken; }
+
+    /** Backoff state and counters for finding a pad again after losing all of them. */
+    public ReconnectScheduler reconnect() { return reconnect; }
+
+    /**
+     * First discovery pass: completes with the selected pad (null if none)
+     * once its bindings have been applied. Null before {@link #start}.
+     */
+    public Future<JInputController> discovery() { return discovery; }
+
+    /** True once the first enumeration has finished, whatever it found. */
+    public boolean hasScanned() { return scanned; }
+
+    /** Deliver queued add/remove events. Call from the client thread. */
+    public void dispatchEvents() {
+        PadEvent e;
+        while ((e = events.poll()) != null) {
+            for (Listener l : listeners) {
+                try {
+                    if (e.added) l.controllerAdded(e.pad);
+                    else         l.controllerRemoved(e.pad);
+                } catch (Throwable t) {
+                    System.out.println("[XInputMod] Controller listener failed: " + t);
+                }
+            }
+        }
+    }
+
+    // =========================================================================
+    // Polling (single polling thread: client tick or background poller)
+    // =========================================================================
+
+    /**
+     * Poll the selected pad(s) into {@code out}. With a tracker, a single
+     * selected pad is read through its event queue; merged pads are diffed
+     * against the tracker at poll granularity. Never enumerates or blocks.
+     */
+    public boolean poll(ControllerState out, ButtonEdgeTracker tracker) {
+        Pad[] list = pads;
+        if (list.length == 0) { primary = null; out.zero(); return false; }
+
+        if (SELECT_MERGE.equals(selection) && list.length > 1)
+            return pollMerged(list, out, tracker);
+
+        Pad p = pick(list);
+        primary = p;
+        if (p == null) { out.zero(); return false; }
+        p.input.setEventMode(tracker != null);
+        boolean ok = tracker != null ? p.input.pollEvents(out, tracker) : p.input.poll(out);
+        if (!ok) markLost(p);
+        return ok;
+    }
+
+    private Pad pick(Pad[] list) {
+        String sel = selection;
+        if (!SELECT_AUTO.equals(sel) && !SELECT_MERGE.equals(sel)) {
+            for (Pad p : list)
+                if (!p.lost && p.matchName.contains(sel)) return p;
+        }
+        for (Pad p : list)
+            if (!p.lost) return p;
+        return null;
+    }
+
+    private boolean pollMerged(Pad[] list, ControllerState out, ButtonEdgeTracker tracker) {
+        out.zero();
+        boolean any = false;
+        Pad first = null;
+        for (Pad p : list) {
+            if (p.lost) continue;
+            ControllerState s = p.scratch;
+            p.input.setEventMode(false);
+            if (!p.input.poll(s)) { markLost(p); continue; }
+            if (first == null) first = p;
+            any = true;
+            for (int i = ControllerState.AXIS_LX; i <= ControllerState.AXIS_RY; i++)
+                out.axes[i] = stronger(out.axes[i], s.axes[i]);
+            for (int i = ControllerState.AXIS_LT; i <= ControllerState.AXIS_RT; i++)
+                out.axes[i] = Math.max(out.axes[i], s.axes[i]);
+            out.buttons |= s.buttons;
+        }
+        primary = first;
+        if (any) {
+            out.timestamp = System.nanoTime();
+            if (tracker != null) tracker.reconcile(out, out.timestamp);
+        }
+        return any;
+    }
+
+    /**
+     * Axis-only refresh of the selection (see JInputController.pollAxes):
+     * buttons, event queues and lost-pad handling stay with {@link #poll}.
+     */
+    public boolean pollAxes(ControllerState out) {
+        Pad[] list = pads;
+        if (list.length == 0) return false;
+        if (!SELECT_MERGE.equals(selection) || list.length == 1) {
+            Pad p = pick(list);
+            return p != null && p.input.pollAxes(out);
+        }
+        boolean any = false;
+        for (Pad p : list) {
+            if (p.lost || !p.input.pollAxes(p.scratch)) continue;
+            float[] a = p.scratch.axes;
+            if (!any) {
+                any = true;
+                System.arraycopy(a, 0, out.axes, 0, ControllerState.AXIS_COUNT);
+                continue;
+            }
+            for (int i = ControllerState.AXIS_LX; i <= ControllerState.AXIS_RY; i++)
+                out.axes[i] = stronger(out.axes[i], a[i]);
+            for (int i = ControllerState.AXIS_LT; i <= ControllerState.AXIS_RT; i++)
+                out.axes[i] = Math.max(out.axes[i], a[i]);
+        }
+        return any;
+    }
+
+    private static float stronger(float a, float b) {
+        return Math.abs(b) > Math.abs(a) ? b : a;
+    }
+
+    private void markLost(Pad p) {
+        if (p.lost) return;
+        p.lost = true;
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    // =========================================================================
+    // Scanning (scan thread only)
+    // =========================================================================
+
+    private void scan() {
+        Pad[] current = pads;
+        boolean anyLost = false;
+        for (Pad p : current) if (p.lost) { anyLost = true; break; }
+
+        // A fresh plugin opens every device again, so with a hotplug hint
+        // only build one on a trigger. Without a hint (sig == null), or with
+        // no pad live, every pass enumerates; run() spaces the passes.
+        String sig = deviceSignature();
+        boolean nodesChanged = sig != null && !sig.equals(lastDeviceSignature);
+        boolean requested = rescanRequested;
+        boolean blind = sig == null || !hasLivePads();
+        if (!anyLost && !requested && !nodesChanged && !blind) return;
+        rescanRequested = false;
+
+        Controller[] all = enumerateFresh();
+        if (all == null) return;
+        lastDeviceSignature = sig;
+
+        List<Pad> next = new ArrayList<Pad>();
+        List<String> seen = new ArrayList<String>();
+        for (Controller c : all) {
+            try {
+                if (c == null) continue;
+                Controller.Type type = c.getType();
+                if (type != Controller.Type.GAMEPAD && type != Controller.Type.STICK) continue;
+                String base = c.getName() + "|" + type + "|" + c.getComponents().length;
+                int n = 0;
+                for (String k : seen) if (k.startsWith(base + "#")) n++;
+                String key = base + "#" + n;
+                seen.add(key);
+
+                Pad existing = find(current, key);
+                if (existing != null && !existing.lost) {
+                    // Same pad: keep its Controller and mapping, so bindings,
+                    // haptics and the config see no change (no events)
+                    next.add(existing);
+                } else {
+                    Pad added = new Pad(key, c.getName(), JInputController.attach(c, mappingCache, controllerDB));
+                    next.add(added);
+                    events.add(new PadEvent(added, true));
+                    System.out.println("[XInputMod] Controller added: " + added.name);
+                }
+            } catch (Throwable t) {
+                System.out.println("[XInputMod] Skipping controller: " + t);
+            }
+        }
+
+        Pad[] arr = next.toArray(new Pad[next.size()]);
+        for (Pad old : current) {
+            if (find(arr, old.key) == null) {
+                events.add(new PadEvent(old, false));
+                System.out.println("[XInputMod] Controller removed: " + old.name);
+            }
+        }
+        pads = arr;
+    }
+
+    private static Pad find(Pad[] list, String key) {
+        for (Pad p : list) if (p.key.equals(key)) return p;
+        return null;
+    }
+
+    /**
+     * Cheap hotplug hint: on Linux, the set of /dev/input/event* nodes.
+     * Null where no such hint exists (scan() then enumerates every pass).
+     */
+    private static String deviceSignature() {
+        File dir = new File("/dev/input");
+        String[] names = dir.isDirectory() ? dir.list() : null;
+        if (names == null) return null;
+        Arrays.sort(names);
+        return Arrays.toString(names);
+    }
+
+    /**
+     * Enumerate with a brand new plugin instance so the answer reflects what
+     * is plugged in right now. The instance stays reachable only through the
+     * pads scan() takes from it, and goes once they are removed. Returns null
+     * (and flags the environment as broken) only if no way of enumerating
+     * works at all.
+     */
+    private Controller[] enumerateFresh() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        String[] plugins;
+        if (os.contains("win")) {
+            plugins = new String[]{
+                "net.java.games.input.DirectInputEnvironmentPlugin",
+                "net.java.games.input.DirectAndRawInputEnvironmentPlugin",
+            };
+        } else if (os.contains("mac")) {
+            plugins = new String[]{ "net.java.games.input.OSXEnvironmentPlugin" };
+        } else {
+            plugins = new String[]{ "net.java.games.input.LinuxEnvironmentPlugin" };
+        }
+        for (String cls : plugins) {
+            try {
+                ControllerEnvironment env = (ControllerEnvironment) Class.forName(cls).newInstance();
+                if (!env.isSupported()) continue;
+                Controller[] result = env.getControllers();
+                if (result != null) return result;
+            } catch (Throwable t) {
+                System.out.println("[XInputMod] Plugin " + cls + " failed: " + t);
+            }
+        }
+        try {
+            // Cached after the first call, so hotplug won't be seen this way
+            return ControllerEnvironment.getDefaultEnvironment().getControllers();
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JInput environment failed: " + t);
+            environmentBroken = true;
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.attackishere.xinput;
+
+import net.java.games.input.Component;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Remembers the mapping JInputController resolved for each controller model,
+ * so known pads skip the layout/name heuristics (and the component dump) on
+ * later launches.
+ *
+ * Entries live in a small properties file next to the mod config, keyed by
+ * controller name plus a signature hash over the component list (identifier,
+ * name, analog flag, in order). A driver or firmware change that alters the
+ * components changes the signature: the stale entry misses, the heuristics
+ * run again and their result replaces it. Deleting the file forces a full
+ * re-detection of every pad.
+ *
+ * The value starts with VERSION, which must be bumped whenever the
+ * heuristics (ComponentNameClassifier, the layout tables) would resolve
+ * the same components differently: entries written by an older version
+ * then miss too, and every cached pad is detected again.
+ * v2: the name classifier tells "Left Thumb 3" from "Left Thumb".
+ *
+ * Value format (components by index into getComponents(), buttons by index
+ * into the button list, -1 = none):
+ *   v2;LAYOUT;lx,ly,rx,ry,lt,rt,pov;A,B,X,Y,LB,RB,LT,RT,Back,Start,LS,RS,Up,Down,Left,Right
+ *
+ * Thread-safe: pads are resolved on the scan thread, but init() may also
+ * run elsewhere.
+ */
+public class ControllerMappingCache {
+
+    private static final String VERSION = "v2";
+
+    // Component slots in Mapping.axes
+    public static final int AX_LX = 0, AX_LY = 1, AX_RX = 2, AX_RY = 3, AX_LT = 4, AX_RT = 5, AX_POV = 6;
+    public static final int AXIS_SLOTS = 7;
+
+    // Button slots in Mapping.buttons
+    public static final int B_A = 0, B_B = 1, B_X = 2, B_Y = 3, B_LB = 4, B_RB = 5, B_LT = 6, B_RT = 7;
+    public static final int B_BACK = 8, B_START = 9, B_LSTICK = 10, B_RSTICK = 11;
+    public static final int B_DPAD_UP = 12, B_DPAD_DOWN = 13, B_DPAD_LEFT = 14, B_DPAD_RIGHT = 15;
+    public static final int BUTTON_SLOTS = 16;
+
+    /** One resolved mapping. */
+    public static final class Mapping {
+        public final String layout;
+        public final int[] axes;
+        public final int[] buttons;
+
+        public Mapping(String layout, int[] axes, int[] buttons) {
+            this.layout = layout; this.axes = axes; this.buttons = buttons;
+        }
+    }
+
+    private final File file;
+    private final Properties entries = new Properties();
+    private boolean loaded = false;
+
+    public ControllerMappingCache(File file) {
+        this.file = file;
+    }
+
+    public File file() { return file; }
+
+    /**
+     * Hash over everything the heuristics look at: component count and, per
+     * component, its identifier, name and analog flag. FNV-1a, as hex.
+     */
+    public static String signature(Component[] comps) {
+        int h = 0x811C9DC5;
+        h = fnv(h, String.valueOf(comps.length));
+        for (Component c : comps) {
+            if (c == null) { h = fnv(h, "-"); continue; }
+            h = fnv(h, String.valueOf(c.getIdentifier()));
+            h = fnv(h, c.getName() == null ? "" : c.getName());
+            h = fnv(h, c.isAnalog() ? "a" : "d");
+        }
+        return Integer.toHexString(h);
+    }
+
+    private static int fnv(int h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= 0x1F;   // field separator
+        return h * 0x01000193;
+    }
+
+    private static String key(String name, String signature) {
+        return (name == null ? "" : name) + "#" + signature;
+    }
+
+    /** The cached mapping for this pad, or null if unknown or stale. */
+    public synchronized Mapping lookup(String name, String signature) {
+        load();
+        String value = entries.getProperty(key(name, signature));
+        if (value == null) {
+            if (hasOtherSignature(name, signature))
+                System.out.println("[XInputMod] Components of " + name + " changed, re-detecting mapping.");
+            return null;
+        }
+        if (!value.startsWith(VERSION + ";")) {
+            System.out.println("[XInputMod] Cached mapping for " + name + " predates the current heuristics, re-detecting.");
+            return null;
+        }
+        Mapping m = decode(value);
+        if (m == null) System.out.println("[XInputMod] Ignoring unreadable cached mapping for " + name);
+        return m;
+    }
+
+    /** Stores a freshly resolved mapping, dropping stale entries for the same name. */
+    public synchronized void store(String name, String signature, Mapping m) {
+        load();
+        String prefix = (name == null ? "" : name) + "#";
+        List<String> stale = new ArrayList<String>();
+        for (String k : entries.stringPropertyNames())
+            if (k.startsWith(prefix)) stale.add(k);
+        for (String k : stale) entries.remove(k);
+        entries.setProperty(key(name, signature), encode(m));
+        save();
+    }
+
+    private boolean hasOtherSignature(String name, String signature) {
+        String prefix = (name == null ? "" : name) + "#";
+        for (String k : entries.stringPropertyNames())
+            if (k.startsWith(prefix) && !k.equals(prefix + signature)) return true;
+        return false;
+    }
+
+    // =========================================================================
+    // File
+    // =========================================================================
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!file.isFile()) return;
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            entries.load(in);
+        } catch (IOException e) {
+            System.out.println("[XInputMod] Could not read mapping cache " + file + ": " + e);
+            entries.clear();
+        } finally {
+            if (in != null) try { in.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void save() {
+        OutputStream out = null;
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null) dir.mkdirs();
+            out = new FileOutputStream(file);
+            entries.store(out, "XInputMod resolved controller mappings; delete to re-detect");
+        } catch (IOException e) {
+            System.out.println("[XInputMod] Could not write mapping cache " + file + ": " + e);
+        } finally {
+            if (out != null) try { out.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    // =========================================================================
+    // Encoding
+    // =========================================================================
+
+    static String encode(Mapping m) {
+        StringBuilder sb = new StringBuilder(VERSION).append(';').append(m.layout).append(';');
+        appendInts(sb, m.axes);
+        sb.append(';');
+        appendInts(sb, m.buttons);
+        return sb.toString();
+    }
+
+    private static void appendInts(StringBuilder sb, int[] v) {
+        for (int i = 0; i < v.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(v[i]);
+        }
+    }
+
+    static Mapping decode(String value) {
+        String[] parts = value.split(";");
+        if (parts.length != 4 || !VERSION.equals(parts[0])) return null;
+        int[] axes = parseInts(parts[2], AXIS_SLOTS);
+        int[] buttons = parseInts(parts[3], BUTTON_SLOTS);
+        if (axes == null || buttons == null) return null;
+        return new Mapping(parts[1], axes, buttons);
+    }
+
+    private static int[] parseInts(String s, int expected) {
+        String[] f = s.split(",");
+        if (f.length != expected) return null;
+        int[] v = new int[expected];
+        try {
+            for (int i = 0; i < expected; i++) v[i] = Integer.parseInt(f[i].trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return v;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.attackishere.xinput;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional background thread that samples a ControllerSource at up to
+ * 250-1000 Hz instead of once per 20 Hz client tick.
+ *
+ * Each sample is written into a ControllerSnapshotBuffer, so the client tick
+ * and the render handler can pick up the newest sample at any time without
+ * locking and without ever seeing a half-written state.
+ *
+ * The rate is adaptive (AdaptivePollScheduler): full rate while the input
+ * changes, decaying to the idle rate once it has been still for a while.
+ *
+ * Enabled with "BackgroundPolling" in the config; "PollRateHz" sets the
+ * full rate, "IdlePollRateHz" and "IdleAfterMs" the idle behaviour.
+ */
+public class ControllerPoller implements Runnable {
+
+    public static final int MIN_RATE_HZ = 250;
+    public static final int MAX_RATE_HZ = 1000;
+
+    private final ControllerSource source;
+    private final ControllerSnapshotBuffer buffer = new ControllerSnapshotBuffer();
+    private final AdaptivePollScheduler scheduler;
+    private final int rateHz;
+
+    private volatile boolean running = false;
+    private Thread thread = null;
+
+    // Stats (written by the poller thread, read by anyone)
+    private volatile long overruns     = 0;   // polls that took longer than one period
+    private volatile long lastPollCost = 0;   // nanos spent in the last source.poll()
+
+    /** Fixed rate: never idles. */
+    public ControllerPoller(ControllerSource source, int rateHz) {
+        this(source, rateHz, rateHz, 0);
+    }
+
+    public ControllerPoller(ControllerSource source, int rateHz, int idleRateHz, long idleAfterMs) {
+        this.source    = source;
+        this.rateHz    = clampRate(rateHz);
+        this.scheduler = new AdaptivePollScheduler("Background", this.rateHz, idleRateHz, idleAfterMs);
+    }
+
+    public static int clampRate(int hz) {
+        return hz < MIN_RATE_HZ ? MIN_RATE_HZ : (hz > MAX_RATE_HZ ? MAX_RATE_HZ : hz);
+    }
+
+    // =========================================================================
+    // Lifecycle
+    // =========================================================================
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "XInputMod Poller");
+        thread.setDaemon(true);
+        // Slightly above normal so a busy render thread doesn't starve sampling
+        thread.setPriority(Math.min(Thread.MAX_PRIORITY, Thread.NORM_PRIORITY + 1));
+        thread.start();
+        System.out.println("[XInputMod] Background poller started at " + rateHz + " Hz.");
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try { thread.join(500); } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        System.out.println("[XInputMod] Background poller stopped ("
+            + buffer.publishedCount() + " samples, " + overruns + " overruns).");
+    }
+
+    public boolean isRunning() { return running; }
+
+    // =========================================================================
+    // Poll loop
+    // =========================================================================
+
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            long t0 = System.nanoTime();
+            ControllerState back = buffer.backBuffer();
+            back.timestamp = 0;
+            boolean ok;
+            scheduler.beginPoll();
+            try {
+                ok = source.poll(back);
+            } catch (Throwable t) {
+                System.out.println("[XInputMod] Poller source error: " + t);
+                back.zero();
+                ok = false;
+            }
+            if (back.timestamp == 0) back.timestamp = t0;
+            buffer.publish(ok);
+            long t1 = System.nanoTime();
+            lastPollCost = t1 - t0;
+
+            // If we fell behind, skip ahead instead of bursting
+            next += scheduler.endPoll(back, ok, t1);
+            long wait = next - t1;
+            if (wait <= 0) {
+                overruns++;
+                next = t1;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    // =========================================================================
+    // Reader side (client thread)
+    // =========================================================================
+
+    /**
+     * Copies the newest sample into {@code out}. Returns false if the source
+     * had no controller when it was sampled (out is then zeroed).
+     */
+    public boolean read(ControllerState out) {
+        return buffer.read(out);
+    }
+
+    /** Configured full rate; {@link #scheduler()} has the current one. */
+    public int  rateHz()         { return rateHz; }
+    public AdaptivePollScheduler scheduler() { return scheduler; }
+    public long sampleCount()    { return buffer.publishedCount(); }
+    public long overrunCount()   { return overruns; }
+    public long lastPollNanos()  { return lastPollCost; }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless qualification run for a pad, without starting Minecraft:
+ *
+ *   java -cp xinputmod.jar:jinput.jar com.attackishere.xinput.ControllerProbe
+ *        [--seconds N] [--rate HZ] [--db gamecontrollerdb.txt] [--synthetic]
+ *
+ * Registers every backend XInputMod can use (hidraw and evdev on "auto",
+ * though in the game both only run when the config opts in), lets
+ * ControllerManager enumerate and resolve every JInput pad exactly as the
+ * game would (no mapping cache, so the heuristics always run) and prints
+ * each resolved mapping. Then every backend that came up is polled
+ * on its own at the given rate for the given time, and the tool reports:
+ *
+ *   - poll cost percentiles (p50/p90/p99/p99.9/max) and how many polls
+ *     found a controller;
+ *   - the observed sample rate: new samples per second, counted by the
+ *     backend's sample timestamp where it stamps one, otherwise by the
+ *     state changing. Hold a stick in motion to measure a pad's report rate.
+ *
+ * --synthetic registers only SyntheticBackend, so the tool runs on a
+ * machine with no pad (and no native libraries) at all.
+ */
+public class ControllerProbe {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = 5;
+        int rate = 1000;
+        boolean synthetic = false;
+        File db = null;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (a.equals("--seconds") && i + 1 < args.length)   seconds = Integer.parseInt(args[++i]);
+            else if (a.equals("--rate") && i + 1 < args.length) rate = Integer.parseInt(args[++i]);
+            else if (a.equals("--db") && i + 1 < args.length)   db = new File(args[++i]);
+            else if (a.equals("--synthetic"))                   synthetic = true;
+            else {
+                System.out.println("usage: ControllerProbe [--seconds N] [--rate HZ] [--db gamecontrollerdb.txt] [--synthetic]");
+                return;
+            }
+        }
+
+        ControllerManager manager = null;
+        ControllerBackendRegistry backends = new ControllerBackendRegistry();
+        if (synthetic) {
+            backends.register(new SyntheticBackend());
+        } else {
+            manager = new ControllerManager();
+            if (db != null) manager.setControllerDBFile(db);
+            backends.register(new HidrawBackend(HidrawBackend.AUTO, HidrawBackend.AUTO));
+            backends.register(new EvdevBackend(EvdevBackend.AUTO));
+            backends.register(new JInputBackend(manager));
+            backends.register(new JXInputBackend(new NativeLibraryCache(
+                new File(System.getProperty("java.io.tmpdir"), "xinputmod-natives"))));
+            if (Boolean.getBoolean(SyntheticBackend.PROPERTY)) backends.register(new SyntheticBackend());
+        }
+        backends.init();
+
+        if (manager != null) {
+            Future<JInputController> discovery = manager.discovery();
+            try {
+                if (discovery != null) discovery.get(15, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                System.out.println("Controller discovery did not finish: " + e);
+            }
+            ControllerManager.Pad[] pads = manager.pads();
+            System.out.println();
+            System.out.println("JInput pads: " + pads.length);
+            for (ControllerManager.Pad p : pads) System.out.println("  " + p.input().describeMapping());
+        }
+
+        System.out.println();
+        System.out.println("Polling each backend at " + rate + " Hz for " + seconds + " s");
+        for (ControllerBackend b : backends.backends()) report(b, probe(b, seconds, rate));
+
+        backends.close();
+        if (manager != null) manager.stop();
+        System.exit(0);   // backends may leave non-daemon native threads behind
+    }
+
+    private static final class Result {
+        long[] costs;       // nanos per poll, sorted
+        int polls, ok, samples;
+        long elapsedNanos;
+    }
+
+    private static Result probe(ControllerBackend b, int seconds, int rate) {
+        long period = 1000000000L / Math.max(1, rate);
+        int n = (int) Math.min(Integer.MAX_VALUE - 8, (long) seconds * rate);
+        long[] costs = new long[n];
+        ControllerState cs = new ControllerState(), prev = new ControllerState();
+        long lastStamp = 0;
+        int ok = 0, samples = 0;
+
+        long start = System.nanoTime(), next = start;
+        for (int i = 0; i < n; i++) {
+            cs.timestamp = 0;
+            long t0 = System.nanoTime();
+            boolean got;
+            try {
+                got = b.poll(cs, null);
+            } catch (Throwable t) {
+                got = false;
+            }
+            costs[i] = System.nanoTime() - t0;
+            if (got) {
+                ok++;
+                boolean fresh = cs.timestamp != 0 ? cs.timestamp != lastStamp : !same(cs, prev);
+                if (fresh) samples++;
+                lastStamp = cs.timestamp;
+                prev.copyFrom(cs);
+            }
+            next += period;
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+
+        Result r = new Result();
+        r.elapsedNanos = System.nanoTime() - start;
+        Arrays.sort(costs);
+        r.costs = costs;
+        r.polls = n;
+        r.ok = ok;
+        r.samples = samples;
+        return r;
+    }
+
+    private static boolean same(ControllerState a, ControllerState b) {
+        return a.buttons == b.buttons && Arrays.equals(a.axes, b.axes);
+    }
+
+    private static void report(ControllerBackend b, Result r) {
+        double secs = r.elapsedNanos / 1e9;
+        System.out.println(String.format("%-10s %d polls, %d with a pad; cost us p50 %.1f p90 %.1f p99 %.1f p99.9 %.1f max %.1f;"
+                + " %.1f polls/s, %.1f samples/s",
+            b.name(), r.polls, r.ok,
+            pct(r.costs, 50), pct(r.costs, 90), pct(r.costs, 99), pct(r.costs, 99.9), pct(r.costs, 100),
+            r.polls / secs, r.samples / secs));
+    }
+
+    /** {@code p}th percentile of sorted {@code v}, in microseconds. */
+    private static double pct(long[] v, double p) {
+        if (v.length == 0) return 0;
+        int i = (int) Math.ceil(p / 100.0 * v.length) - 1;
+        return v[Math.max(0, Math.min(v.length - 1, i))] / 1000.0;
+    }
+}
\ No newline at end of file
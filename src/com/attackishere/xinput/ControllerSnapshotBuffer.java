@@ -0,0 +1,75 @@
+package com.attackishere.xinput;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer used to hand ControllerState samples from the
+ * background poller thread to the client thread.
+ *
+ * Three slots exist. The writer always owns one ("back"), the reader always
+ * owns one ("front"), and the third sits in the shared "middle" slot. A
+ * publish swaps back into the middle; a read swaps the middle into front if
+ * something new was published. Neither side ever touches a slot the other
+ * side owns, so the state the reader copies from can never be torn and
+ * nothing is allocated after construction.
+ *
+ * Exactly one writer thread and one reader thread. The reader side is only
+ * ever used from the client thread (tick handler and render handler both run
+ * there), which satisfies that.
+ */
+public class ControllerSnapshotBuffer {
+
+    private static final int INDEX_MASK = 0x3;
+    private static final int DIRTY      = 0x4;
+
+    private final ControllerState[] slots = {
+        new ControllerState(), new ControllerState(), new ControllerState()
+    };
+    // Whether the backend reported a live controller for the sample in each slot
+    private final boolean[] connected = new boolean[3];
+
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back  = 0;   // writer-owned
+    private int front = 2;   // reader-owned
+
+    // Monotonic count of published samples (for stats / stress checks)
+    private volatile long published = 0;
+
+    // =========================================================================
+    // Writer side (poller thread only)
+    // =========================================================================
+
+    /** Slot the writer may fill before calling {@link #publish}. */
+    public ControllerState backBuffer() {
+        return slots[back];
+    }
+
+    /** Makes the current back buffer the newest sample. */
+    public void publish(boolean isConnected) {
+        connected[back] = isConnected;
+        back = middle.getAndSet(back | DIRTY) & INDEX_MASK;
+        published++;
+    }
+
+    // =========================================================================
+    // Reader side (client thread only)
+    // =========================================================================
+
+    /**
+     * Copies the newest published sample into {@code out}.
+     * Returns whether the backend had a controller when it was sampled.
+     * If nothing new was published since the last call, the previous sample
+     * is returned again.
+     */
+    public boolean read(ControllerState out) {
+        if ((middle.get() & DIRTY) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        out.copyFrom(slots[front]);
+        return connected[front];
+    }
+
+    public long publishedCount() {
+        return published;
+    }
+}
\ No newline at end of file
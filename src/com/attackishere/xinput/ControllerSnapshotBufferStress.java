@@ -0,0 +1,67 @@
+package com.attackishere.xinput;
+
+/**
+ * Stress check for ControllerSnapshotBuffer, run outside the game:
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.ControllerSnapshotBufferStress [seconds]
+ *
+ * A writer thread publishes SyntheticBackend samples as fast as it can,
+ * filling each back buffer field by field and stamping it with the sample
+ * number, while this thread reads continuously. Every sample read must be
+ * one the source could have produced (SyntheticBackend.isConsistent), be
+ * exactly the sample its stamp names (so no slot mixes two samples), and
+ * never be older than the one read before it. Any torn or stale read is
+ * listed and the exit status is 1.
+ */
+public class ControllerSnapshotBufferStress {
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        final ControllerSnapshotBuffer buffer = new ControllerSnapshotBuffer();
+        final long end = System.nanoTime() + seconds * 1000000000L;
+
+        Thread writer = new Thread(new Runnable() {
+            @Override public void run() {
+                long n = 1;
+                while (System.nanoTime() < end) {
+                    ControllerState back = buffer.backBuffer();
+                    SyntheticBackend.fill(back, n);
+                    back.timestamp = n++;
+                    buffer.publish(true);
+                }
+            }
+        }, "SnapshotBuffer writer");
+        writer.start();
+
+        ControllerState out = new ControllerState();
+        ControllerState expect = new ControllerState();
+        long reads = 0, fresh = 0, torn = 0, stale = 0, last = 0;
+        while (System.nanoTime() < end) {
+            boolean connected = buffer.read(out);
+            reads++;
+            if (out.timestamp == 0) continue;   // nothing published yet
+            SyntheticBackend.fill(expect, out.timestamp);
+            if (!connected || !SyntheticBackend.isConsistent(out) || !same(out, expect)) {
+                if (torn++ < 10) System.out.println("TORN read of sample " + out.timestamp);
+            }
+            if (out.timestamp < last) {
+                if (stale++ < 10) System.out.println("STALE sample " + out.timestamp + " after " + last);
+            } else if (out.timestamp > last) {
+                fresh++;
+                last = out.timestamp;
+            }
+        }
+        writer.join();
+
+        System.out.println(buffer.publishedCount() + " published, " + reads + " reads (" + fresh
+            + " new samples), " + torn + " torn, " + stale + " stale");
+        if (torn > 0 || stale > 0) System.exit(1);
+    }
+
+    private static boolean same(ControllerState a, ControllerState b) {
+        if (a.buttons != b.buttons) return false;
+        for (int i = 0; i < ControllerState.AXIS_COUNT; i++)
+            if (a.axes[i] != b.axes[i]) return false;
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.attackishere.xinput;
+
+/**
+ * Anything that can fill a ControllerState on demand. The background poller
+ * samples one of these at a fixed rate; in practice that is the
+ * ControllerBackendRegistry, which picks among the registered backends.
+ */
+public interface ControllerSource {
+
+    /**
+     * Fill {@code out} with the current controller state.
+     * Returns false (and leaves {@code out} zeroed) if no controller is available.
+     */
+    boolean poll(ControllerState out);
+}
\ No newline at end of file
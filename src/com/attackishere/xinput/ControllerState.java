@@ -1,39 +1,130 @@
-package com.attackishere.xinput;
-
-/**
- * Normalized controller state filled by whichever polling backend is active.
- *
- * All axes are in the range [-1.0, 1.0].
- * Triggers (lt, rt) are in the range [0.0, 1.0].
- * Buttons are true when pressed.
- *
- * This struct is what XInputTickHandler reads. SDL2Controller and the legacy
- * JXInput path both write into this, so the rest of the mod is backend-agnostic.
- */
-public class ControllerState {
-    // Left stick
-    public float lx, ly;
-    // Right stick
-    public float rx, ry;
-    // Triggers
-    public float lt, rt;
-    // Face buttons
-    public boolean a, b, x, y;
-    // Shoulders
-    public boolean lb, rb;
-    // Thumbsticks
-    public boolean lThumb, rThumb;
-    // Menu
-    public boolean start, back;
-    // D-pad
-    public boolean dpadUp, dpadDown, dpadLeft, dpadRight;
-
-    public void zero() {
-        lx = ly = rx = ry = lt = rt = 0f;
-        a = b = x = y = false;
-        lb = rb = false;
-        lThumb = rThumb = false;
-        start = back = false;
-        dpadUp = dpadDown = dpadLeft = dpadRight = false;
-    }
+package com.attackishere.xinput;
+
+/**
+ * Normalized controller state filled by whichever polling backend is active.
+ *
+ * All axes are in the range [-1.0, 1.0].
+ * Triggers (lt, rt) are in the range [0.0, 1.0].
+ * Buttons are bits of {@code buttons} (bit n = BUTTON_* n), set when pressed.
+ *
+ * This struct is what XInputTickHandler reads. Every ControllerBackend
+ * (JInput, JXInput, synthetic) writes into this, so the rest of the mod is
+ * backend-agnostic.
+ */
+public class ControllerState {
+
+    // Logical button indices, used wherever buttons are handled generically
+    // (edge queues, getButton/setButton). Order never changes.
+    public static final int BUTTON_A          = 0;
+    public static final int BUTTON_B          = 1;
+    public static final int BUTTON_X          = 2;
+    public static final int BUTTON_Y          = 3;
+    public static final int BUTTON_LB         = 4;
+    public static final int BUTTON_RB         = 5;
+    public static final int BUTTON_BACK       = 6;
+    public static final int BUTTON_START      = 7;
+    public static final int BUTTON_LTHUMB     = 8;
+    public static final int BUTTON_RTHUMB     = 9;
+    public static final int BUTTON_DPAD_UP    = 10;
+    public static final int BUTTON_DPAD_DOWN  = 11;
+    public static final int BUTTON_DPAD_LEFT  = 12;
+    public static final int BUTTON_DPAD_RIGHT = 13;
+    public static final int BUTTON_COUNT      = 14;
+
+    // Axis slots in axes[]
+    public static final int AXIS_LX    = 0;
+    public static final int AXIS_LY    = 1;
+    public static final int AXIS_RX    = 2;
+    public static final int AXIS_RY    = 3;
+    public static final int AXIS_LT    = 4;
+    public static final int AXIS_RT    = 5;
+    public static final int AXIS_COUNT = 6;
+
+    // Button mask bits (bit n = BUTTON_* n)
+    public static final int MASK_A          = 1 << BUTTON_A;
+    public static final int MASK_B          = 1 << BUTTON_B;
+    public static final int MASK_X          = 1 << BUTTON_X;
+    public static final int MASK_Y          = 1 << BUTTON_Y;
+    public static final int MASK_LB         = 1 << BUTTON_LB;
+    public static final int MASK_RB         = 1 << BUTTON_RB;
+    public static final int MASK_BACK       = 1 << BUTTON_BACK;
+    public static final int MASK_START      = 1 << BUTTON_START;
+    public static final int MASK_LTHUMB     = 1 << BUTTON_LTHUMB;
+    public static final int MASK_RTHUMB     = 1 << BUTTON_RTHUMB;
+    public static final int MASK_DPAD_UP    = 1 << BUTTON_DPAD_UP;
+    public static final int MASK_DPAD_DOWN  = 1 << BUTTON_DPAD_DOWN;
+    public static final int MASK_DPAD_LEFT  = 1 << BUTTON_DPAD_LEFT;
+    public static final int MASK_DPAD_RIGHT = 1 << BUTTON_DPAD_RIGHT;
+    public static final int MASK_ALL        = (1 << BUTTON_COUNT) - 1;
+
+    // Packed state: every button in one int, sticks then triggers in one array.
+    // Copying, queueing or diffing a sample is an int plus six floats.
+    public int buttons;
+    public final float[] axes = new float[AXIS_COUNT];
+
+    // System.nanoTime() of the poll that produced this state (0 if never polled)
+    public long timestamp;
+
+    // =========================================================================
+    // Named accessors
+    // =========================================================================
+
+    public float lx() { return axes[AXIS_LX]; }
+    public float ly() { return axes[AXIS_LY]; }
+    public float rx() { return axes[AXIS_RX]; }
+    public float ry() { return axes[AXIS_RY]; }
+    public float lt() { return axes[AXIS_LT]; }
+    public float rt() { return axes[AXIS_RT]; }
+
+    public boolean a()         { return (buttons & MASK_A) != 0; }
+    public boolean b()         { return (buttons & MASK_B) != 0; }
+    public boolean x()         { return (buttons & MASK_X) != 0; }
+    public boolean y()         { return (buttons & MASK_Y) != 0; }
+    public boolean lb()        { return (buttons & MASK_LB) != 0; }
+    public boolean rb()        { return (buttons & MASK_RB) != 0; }
+    public boolean back()      { return (buttons & MASK_BACK) != 0; }
+    public boolean start()     { return (buttons & MASK_START) != 0; }
+    public boolean lThumb()    { return (buttons & MASK_LTHUMB) != 0; }
+    public boolean rThumb()    { return (buttons & MASK_RTHUMB) != 0; }
+    public boolean dpadUp()    { return (buttons & MASK_DPAD_UP) != 0; }
+    public boolean dpadDown()  { return (buttons & MASK_DPAD_DOWN) != 0; }
+    public boolean dpadLeft()  { return (buttons & MASK_DPAD_LEFT) != 0; }
+    public boolean dpadRight() { return (buttons & MASK_DPAD_RIGHT) != 0; }
+
+    public void setSticks(float lx, float ly, float rx, float ry) {
+        axes[AXIS_LX] = lx; axes[AXIS_LY] = ly;
+        axes[AXIS_RX] = rx; axes[AXIS_RY] = ry;
+    }
+
+    public void setTriggers(float lt, float rt) {
+        axes[AXIS_LT] = lt; axes[AXIS_RT] = rt;
+    }
+
+    public void zero() {
+        buttons = 0;
+        for (int i = 0; i < AXIS_COUNT; i++) axes[i] = 0f;
+    }
+
+    public boolean getButton(int button) {
+        return button >= 0 && button < BUTTON_COUNT && (buttons & (1 << button)) != 0;
+    }
+
+    public void setButton(int button, boolean pressed) {
+        if (button < 0 || button >= BUTTON_COUNT) return;
+        if (pressed) buttons |=  (1 << button);
+        else         buttons &= ~(1 << button);
+    }
+
+    /** Buttons down in {@code now} but not in {@code prev}. */
+    public static int pressed(int now, int prev)  { return now & ~prev; }
+
+    /** Buttons down in {@code prev} but not in {@code now}. */
+    public static int released(int now, int prev) { return prev & ~now; }
+
+    /** Copies every field of {@code o} into this state. Allocation-free. */
+    public void copyFrom(ControllerState o) {
+        buttons = o.buttons;
+        System.arraycopy(o.axes, 0, axes, 0, AXIS_COUNT);
+        timestamp = o.timestamp;
+    }
 }
\ No newline at end of file
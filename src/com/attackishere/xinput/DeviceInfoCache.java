@@ -0,0 +1,116 @@
+package com.attackishere.xinput;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Battery and capability information for the active pad, refreshed on a
+ * background thread and read from anywhere without blocking.
+ *
+ * The underlying queries (XInputGetBatteryInformation, XInputGetCapabilities
+ * and the like) are slow native calls that mostly return the same answer,
+ * so they never run on the client or polling thread. A backend points the
+ * cache at a {@link Source} for its current device; the refresher queries
+ * it right away and then once every TTL, and {@link #get} just returns the
+ * newest immutable snapshot (null until the first query has answered).
+ */
+public class DeviceInfoCache {
+
+    public static final long DEFAULT_TTL_MS = 30000;
+
+    public static final int BATTERY_UNKNOWN = -1;
+    public static final int BATTERY_EMPTY   = 0;
+    public static final int BATTERY_LOW     = 1;
+    public static final int BATTERY_MEDIUM  = 2;
+    public static final int BATTERY_FULL    = 3;
+
+    public static final int ALL_AXES = (1 << ControllerState.AXIS_COUNT) - 1;
+
+    /** One answer from the device. Immutable. */
+    public static final class Info {
+        public final int     batteryLevel;   // BATTERY_*
+        public final boolean wireless;
+        public final boolean rumble;
+        public final int     buttons;        // ControllerState.MASK_* the device has
+        public final int     axes;           // 1 << AXIS_* for each axis the device has
+        public final long    queriedAt;      // System.nanoTime()
+
+        public Info(int batteryLevel, boolean wireless, boolean rumble, int buttons, int axes) {
+            this.batteryLevel = batteryLevel;
+            this.wireless     = wireless;
+            this.rumble       = rumble;
+            this.buttons      = buttons;
+            this.axes         = axes;
+            this.queriedAt    = System.nanoTime();
+        }
+
+        public boolean hasAxis(int axis) { return (axes & (1 << axis)) != 0; }
+    }
+
+    public interface Source {
+        /** Queries the device. Runs on the refresher thread; null if it can't answer. */
+        Info query();
+    }
+
+    private final String name;
+    private final long ttlNanos;
+
+    private volatile Source source = null;
+    private volatile Info   info   = null;
+    private volatile Thread thread = null;
+    private volatile long   queries = 0;
+
+    public DeviceInfoCache(String name, long ttlMs) {
+        this.name = name;
+        this.ttlNanos = Math.max(1, ttlMs) * 1000000L;
+    }
+
+    /**
+     * Points the cache at the current device (null = none). A change drops
+     * the old snapshot and queries the new device straight away.
+     */
+    public void track(Source s) {
+        if (s == source) return;
+        source = s;
+        info = null;
+        if (s == null) return;
+        Thread t = thread;
+        if (t == null) start();
+        else LockSupport.unpark(t);
+    }
+
+    /** Newest snapshot for the tracked device, or null. Never blocks. */
+    public Info get() {
+        return info;
+    }
+
+    public long queryCount() { return queries; }
+
+    private synchronized void start() {
+        if (thread != null) return;
+        Thread t = new Thread(new Runnable() {
+            @Override public void run() { refresh(); }
+        }, "XInputMod Info " + name);
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        thread = t;
+        t.start();
+    }
+
+    private void refresh() {
+        while (true) {
+            Source s = source;
+            if (s != null) {
+                Info i = null;
+                try {
+                    i = s.query();
+                } catch (Throwable t) {
+                    System.out.println("[XInputMod] " + name + " device info query failed: " + t);
+                }
+                queries++;
+                if (source == s) info = i;   // the device may have changed meanwhile
+                if (source != s) continue;
+            }
+            LockSupport.parkNanos(this, ttlNanos);
+        }
+    }
+}
\ No newline at end of file
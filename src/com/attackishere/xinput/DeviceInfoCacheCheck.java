@@ -0,0 +1,105 @@
+package com.attackishere.xinput;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Check for DeviceInfoCache against fake devices that count their queries,
+ * run outside the game:
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.DeviceInfoCacheCheck
+ *
+ * Each fake answers after a delay, like the native battery / capability
+ * calls. With a short TTL the check hammers get() from this thread and
+ * verifies that get() never waits for a query, that the device is queried
+ * once on track() and then once per TTL however often get() is called, and
+ * that switching devices drops the old answer and stops querying the old
+ * device. Failures are listed and the exit status is 1.
+ */
+public class DeviceInfoCacheCheck {
+
+    private static final long TTL_MS = 300;
+    private static final long QUERY_MS = 100;
+    private static int failures = 0;
+
+    public static void main(String[] args) throws InterruptedException {
+        DeviceInfoCache cache = new DeviceInfoCache("check", TTL_MS);
+        FakeDevice first = new FakeDevice(DeviceInfoCache.BATTERY_FULL);
+        FakeDevice second = new FakeDevice(DeviceInfoCache.BATTERY_LOW);
+
+        cache.track(first);
+        long t0 = System.nanoTime();
+        DeviceInfoCache.Info before = cache.get();
+        long getNanos = System.nanoTime() - t0;
+        expect("get() before the first answer is null (was " + before + ")", before == null);
+        expect("get() before the first answer took " + getNanos / 1000 + " us", getNanos < QUERY_MS * 1000000L / 2);
+
+        DeviceInfoCache.Info info = await(cache, 1000);
+        expect("first device answered", info != null && info.batteryLevel == DeviceInfoCache.BATTERY_FULL);
+        expect("first device queried once on track (" + first.calls.get() + ")", first.calls.get() == 1);
+
+        // Hammer get() for several TTLs: queries follow the TTL, not the reads
+        long reads = 0, slowest = 0;
+        long end = System.nanoTime() + 5 * TTL_MS * 1000000L;
+        while (System.nanoTime() < end) {
+            long r0 = System.nanoTime();
+            if (cache.get() == null) expect("get() lost the answer mid-run", false);
+            slowest = Math.max(slowest, System.nanoTime() - r0);
+            reads++;
+        }
+        int calls = first.calls.get();
+        System.out.println(reads + " reads over " + 5 * TTL_MS + " ms, " + calls + " queries, slowest get() "
+            + slowest / 1000 + " us");
+        expect("queries follow the TTL (" + calls + " for 5 TTLs)", calls >= 3 && calls <= 7);
+        expect("slowest get() took " + slowest / 1000 + " us", slowest < QUERY_MS * 1000000L / 2);
+
+        // A new device drops the old answer and is queried straight away
+        cache.track(second);
+        expect("switching drops the old answer", cache.get() == null
+            || cache.get().batteryLevel == DeviceInfoCache.BATTERY_LOW);
+        info = await(cache, 1000);
+        expect("second device answered", info != null && info.batteryLevel == DeviceInfoCache.BATTERY_LOW);
+        int firstCalls = first.calls.get();
+        Thread.sleep(3 * TTL_MS);
+        expect("old device still queried after the switch", first.calls.get() == firstCalls);
+
+        // No device: no more queries
+        cache.track(null);
+        Thread.sleep(QUERY_MS * 2);
+        int secondCalls = second.calls.get();
+        Thread.sleep(3 * TTL_MS);
+        expect("untracked device still queried", second.calls.get() == secondCalls);
+        expect("get() with no device is null", cache.get() == null);
+
+        System.out.println(failures == 0 ? "OK (" + cache.queryCount() + " queries in all)" : failures + " failure(s)");
+        if (failures > 0) System.exit(1);
+    }
+
+    /** The cache's answer, waiting up to {@code ms} for it. */
+    private static DeviceInfoCache.Info await(DeviceInfoCache cache, long ms) throws InterruptedException {
+        long end = System.currentTimeMillis() + ms;
+        DeviceInfoCache.Info info;
+        while ((info = cache.get()) == null && System.currentTimeMillis() < end) Thread.sleep(1);
+        return info;
+    }
+
+    /** Answers with a fixed battery level after QUERY_MS, counting calls. */
+    private static final class FakeDevice implements DeviceInfoCache.Source {
+        final AtomicInteger calls = new AtomicInteger();
+        private final int battery;
+
+        FakeDevice(int battery) { this.battery = battery; }
+
+        @Override
+        public DeviceInfoCache.Info query() {
+            calls.incrementAndGet();
+            try { Thread.sleep(QUERY_MS); } catch (InterruptedException ignored) {}
+            return new DeviceInfoCache.Info(battery, true, true, ControllerState.MASK_ALL, DeviceInfoCache.ALL_AXES);
+        }
+    }
+
+    private static void expect(String what, boolean ok) {
+        if (ok) return;
+        failures++;
+        System.out.println("FAIL " + what);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,499 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Linux backend that reads the kernel's input events directly from
+ * /dev/input/event*, bypassing JInput's polling Linux plugin.
+ *
+ * A daemon reader thread blocks on a FileChannel, reading struct input_event
+ * records (timeval, u16 type, u16 code, s32 value; 24 bytes for a 64-bit
+ * JVM, 16 for a 32-bit one, whose reads the kernel hands the compat layout)
+ * into one reused direct ByteBuffer. EV_KEY / EV_ABS events update a
+ * working state; each SYN_REPORT publishes it through a
+ * ControllerSnapshotBuffer, and every button change is queued as an edge,
+ * so poll never blocks and never misses a tap shorter than a tick.
+ *
+ * Axis ranges: the kernel's absinfo is only reachable via ioctl(EVIOCGABS),
+ * which plain Java can't issue. Every range starts at 0..255, the narrowest
+ * common scale, and widens to the next common full scale the first time a
+ * value falls outside; an unsigned stick rests near half scale, so its
+ * first report already settles it. The first negative value marks a stick
+ * as signed, which the kernel's gamepad drivers report as at least 16-bit.
+ * Pads that report their right stick on Z/RZ (Xbox over Bluetooth without
+ * xpadneo, with triggers on GAS/BRAKE) are recognised from sysfs
+ * capabilities, or from the first GAS/BRAKE event.
+ *
+ * Opt-in (the config default is "off"): it outranks JInput, and an
+ * index-based binding saved for JInput means a different button here. The
+ * device is "auto" (first readable /dev/input/by-id/*-event-joystick) or
+ * any path. Anything readable works, including a regular file or FIFO of
+ * captured events; a regular file keeps its final state once it ends.
+ * Buttons use the logical ControllerState.BUTTON_* numbering as binding
+ * indices, like JXInput.
+ */
+public class EvdevBackend implements ControllerBackend {
+
+    public static final int PRIORITY = 150;
+    public static final String AUTO = "auto";
+    public static final String OFF  = "off";
+
+    // struct input_event as this process sees it: the timeval is two longs
+    static final int EVENT_BYTES = is64BitVM() ? 24 : 16;
+    private static final int OFF_TYPE = EVENT_BYTES - 8, OFF_CODE = EVENT_BYTES - 6, OFF_VALUE = EVENT_BYTES - 4;
+    private static final int READ_EVENTS = 64;
+
+    static final int EV_SYN = 0x00, EV_KEY = 0x01, EV_ABS = 0x03;
+    static final int SYN_REPORT = 0, SYN_DROPPED = 3;
+
+    static final int ABS_X = 0x00, ABS_Y = 0x01, ABS_Z = 0x02;
+    static final int ABS_RX = 0x03, ABS_RY = 0x04, ABS_RZ = 0x05;
+    static final int ABS_GAS = 0x09, ABS_BRAKE = 0x0a;
+    static final int ABS_HAT0X = 0x10, ABS_HAT0Y = 0x11;
+    private static final int ABS_CNT = 0x40;
+
+    static final int BTN_SOUTH = 0x130, BTN_EAST = 0x131, BTN_NORTH = 0x133, BTN_WEST = 0x134;
+    static final int BTN_TL = 0x136, BTN_TR = 0x137, BTN_TL2 = 0x138, BTN_TR2 = 0x139;
+    static final int BTN_SELECT = 0x13a, BTN_START = 0x13b;
+    static final int BTN_THUMBL = 0x13d, BTN_THUMBR = 0x13e;
+    static final int BTN_DPAD_UP = 0x220, BTN_DPAD_DOWN = 0x221, BTN_DPAD_LEFT = 0x222, BTN_DPAD_RIGHT = 0x223;
+
+    // Full scales a range widens through
+    private static final int[] SCALES = { 255, 1023, 4095, 32767, 65535 };
+
+    private final String devicePath;
+    private final ReconnectScheduler reconnect = new ReconnectScheduler("evdev");
+    private final ReconnectScheduler.Probe probe = new ReconnectScheduler.Probe() {
+        @Override public ReconnectScheduler.Outcome attempt() { return probe(); }
+    };
+
+    // Reader thread -> polling thread
+    private final ControllerSnapshotBuffer snapshots = new ControllerSnapshotBuffer();
+    private final ButtonEdgeQueue rawEdges = new ButtonEdgeQueue(256);
+    private final ButtonEdgeQueue.Edge edge = new ButtonEdgeQueue.Edge();
+    private final ControllerState axisSample = new ControllerState();   // polling thread only
+
+    private volatile Reader reader = null;
+    private volatile boolean closed = false;
+    private boolean wasLive = false;   // polling thread only
+    private boolean accessHintLogged = false;   // reconnect thread only
+
+    public EvdevBackend(String devicePath) {
+        this.devicePath = devicePath == null || devicePath.trim().isEmpty() ? AUTO : devicePath.trim();
+    }
+
+    @Override public String name()         { return "evdev"; }
+    @Override public int priority()        { return PRIORITY; }
+    @Override public boolean discovering() { return false; }
+    @Override public Object device()       { return reader; }
+    @Override public DeviceInfoCache.Info info() { return null; }
+    @Override public HapticsEngine.Motor motor()  { return null; }
+
+    public ReconnectScheduler reconnect() { return reconnect; }
+
+    @Override
+    public int capabilities() {
+        return CAP_ANALOG_TRIGGERS | CAP_EVENT_QUEUE | CAP_HOTPLUG;
+    }
+
+    @Override
+    public boolean init() {
+        if (AUTO.equals(devicePath)) {
+            String os = System.getProperty("os.name", "").toLowerCase();
+            if (!os.contains("linux") || !new File("/dev/input").isDirectory()) return false;
+        }
+        return true;   // the device itself is opened off-thread
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Reader r = reader;
+        reader = null;
+        if (r != null) r.stop();
+    }
+
+    @Override
+    public boolean poll(ControllerState out, ButtonEdgeTracker edges) {
+        Reader r = reader;
+        boolean live = r != null && snapshots.read(out);
+        if (!live) {
+            if (r == null && !closed) reconnect.reconnectAsync(probe);
+            if (wasLive && edges != null) edges.reset();
+            wasLive = false;
+            rawEdges.clear();
+            out.zero();
+            return false;
+        }
+        wasLive = true;
+        if (edges != null) {
+            // Only edges up to the published sample; the reader may be mid-frame
+            while (rawEdges.poll(edge, out.timestamp)) edges.button(edge.button, edge.pressed, edge.nanos);
+            edges.reconcile(out, out.timestamp);
+        } else {
+            rawEdges.clear();
+        }
+        return true;
+    }
+
+    /** Axes of the newest published report; its button edges stay queued for poll. */
+    @Override
+    public boolean pollAxes(ControllerState out) {
+        if (reader == null || !snapshots.read(axisSample)) return false;
+        System.arraycopy(axisSample.axes, 0, out.axes, 0, ControllerState.AXIS_COUNT);
+        out.timestamp = axisSample.timestamp;
+        return true;
+    }
+
+    // =========================================================================
+    // Connection (reconnect thread)
+    // =========================================================================
+
+    private ReconnectScheduler.Outcome probe() {
+        if (closed) return ReconnectScheduler.Outcome.UNAVAILABLE;
+        boolean auto = AUTO.equals(devicePath);
+        File dev = auto ? findJoystick() : new File(devicePath);
+        if (dev == null || !dev.exists()) return ReconnectScheduler.Outcome.RETRY;
+        if (!dev.canRead()) {
+            // In auto mode another pad may still turn up, so keep looking
+            if (!auto || !accessHintLogged)
+                System.out.println("[XInputMod] evdev: no read access to " + dev
+                    + " (is the user in the 'input' group?)");
+            accessHintLogged = true;
+            return auto ? ReconnectScheduler.Outcome.RETRY : ReconnectScheduler.Outcome.UNAVAILABLE;
+        }
+        try {
+            Reader r = new Reader(dev);
+            reader = r;
+            r.start();
+            return ReconnectScheduler.Outcome.CONNECTED;
+        } catch (IOException e) {
+            System.out.println("[XInputMod] evdev: cannot open " + dev + ": " + e);
+            return ReconnectScheduler.Outcome.RETRY;
+        }
+    }
+
+    /**
+     * First readable gamepad under /dev/input/by-id, by name for a stable
+     * pick. If every one is unreadable, the first of those, so probe can
+     * tell the user why it isn't used.
+     */
+    private static File findJoystick() {
+        File[] ids = new File("/dev/input/by-id").listFiles();
+        if (ids == null) return null;
+        Arrays.sort(ids);
+        File unreadable = null;
+        for (File f : ids) {
+            if (!f.getName().endsWith("-event-joystick")) continue;
+            if (f.canRead()) return f;
+            if (unreadable == null) unreadable = f;
+        }
+        return unreadable;
+    }
+
+    // =========================================================================
+    // Event decoding
+    // =========================================================================
+
+    /** Reads and decodes one device until it goes away or the backend closes. */
+    private final class Reader implements Runnable {
+        private final File file;
+        private final FileInputStream stream;
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(EVENT_BYTES * READ_EVENTS)
+            .order(ByteOrder.nativeOrder());
+        private final boolean regularFile;
+        private final String label;
+        private volatile Thread thread;
+
+        private final ControllerState work = new ControllerState();
+        private final int[] absMin = new int[ABS_CNT];
+        private final int[] absMax = new int[ABS_CNT];
+        private boolean zIsRightStick;
+        private boolean analogTriggers = false;
+        private boolean dropping = false;
+        private boolean droppedLogged = false;
+
+        Reader(File dev) throws IOException {
+            file = dev.getCanonicalFile();
+            regularFile = file.isFile();
+            stream = new FileInputStream(file);
+            channel = stream.getChannel();
+
+            File sys = new File("/sys/class/input/" + file.getName() + "/device");
+            String name = readLine(new File(sys, "name"));
+            label = name != null ? name : dev.getName();
+            long absCaps = parseCaps(readLine(new File(sys, "capabilities/abs")));
+            zIsRightStick = bit(absCaps, ABS_GAS) && bit(absCaps, ABS_BRAKE)
+                && !bit(absCaps, ABS_RX) && !bit(absCaps, ABS_RY);
+
+            for (int c = 0; c < ABS_CNT; c++) resetRange(c);
+        }
+
+        private void resetRange(int code) {
+            absMin[code] = 0;
+            absMax[code] = 255;
+        }
+
+        void start() {
+            Thread t = new Thread(this, "XInputMod evdev");
+            t.setDaemon(true);
+            thread = t;
+            t.start();
+        }
+
+        void stop() {
+            Thread t = thread;
+            if (t != null) t.interrupt();   // closes the channel, ending the blocked read
+            try { channel.close(); } catch (IOException ignored) {}
+        }
+
+        @Override
+        public void run() {
+            System.out.println("[XInputMod] evdev: reading " + label + " (" + file + ")"
+                + (zIsRightStick ? ", right stick on Z/RZ" : ""));
+            // The kernel only reports changes: start from rest until the pad moves
+            work.zero();
+            publish(System.nanoTime());
+            try {
+                while (reader == this) {
+                    if (channel.read(buf) < 0) break;
+                    buf.flip();
+                    while (buf.remaining() >= EVENT_BYTES) {
+                        int p = buf.position();
+                        decode(buf.getShort(p + OFF_TYPE) & 0xFFFF, buf.getShort(p + OFF_CODE) & 0xFFFF,
+                            buf.getInt(p + OFF_VALUE));
+                        buf.position(p + EVENT_BYTES);
+                    }
+                    buf.compact();
+                }
+            } catch (IOException e) {
+                if (reader == this) System.out.println("[XInputMod] evdev: " + label + " read failed: " + e);
+            } finally {
+                try { channel.close(); } catch (IOException ignored) {}
+            }
+            if (reader != this) return;
+            if (regularFile) {
+                System.out.println("[XInputMod] evdev: end of " + file.getName() + ", holding last state.");
+                return;
+            }
+            System.out.println("[XInputMod] evdev: " + label + " disconnected.");
+            work.zero();
+            snapshots.backBuffer().copyFrom(work);
+            snapshots.publish(false);
+            reader = null;
+            reconnect.markLost();
+        }
+
+        private void decode(int type, int code, int value) {
+            if (type == EV_SYN) {
+                if (code == SYN_REPORT) {
+                    if (!dropping) publish(System.nanoTime());
+                    dropping = false;
+                } else if (code == SYN_DROPPED) {
+                    // The kernel buffer overflowed: ignore up to the next report
+                    dropping = true;
+                    if (!droppedLogged) {
+                        droppedLogged = true;
+                        System.out.println("[XInputMod] evdev: events dropped by the kernel (reader too slow)");
+                    }
+                }
+                return;
+            }
+            if (dropping) return;
+            if (type == EV_KEY) key(code, value != 0);
+            else if (type == EV_ABS) abs(code, value);
+        }
+
+        private void key(int code, boolean down) {
+            int button;
+            switch (code) {
+                case BTN_SOUTH:      button = ControllerState.BUTTON_A; break;
+                case BTN_EAST:       button = ControllerState.BUTTON_B; break;
+                // xpad reports the left face button as BTN_X (== BTN_NORTH)
+                case BTN_NORTH:      button = ControllerState.BUTTON_X; break;
+                case BTN_WEST:       button = ControllerState.BUTTON_Y; break;
+                case BTN_TL:         button = ControllerState.BUTTON_LB; break;
+                case BTN_TR:         button = ControllerState.BUTTON_RB; break;
+                case BTN_SELECT:     button = ControllerState.BUTTON_BACK; break;
+                case BTN_START:      button = ControllerState.BUTTON_START; break;
+                case BTN_THUMBL:     button = ControllerState.BUTTON_LTHUMB; break;
+                case BTN_THUMBR:     button = ControllerState.BUTTON_RTHUMB; break;
+                case BTN_DPAD_UP:    button = ControllerState.BUTTON_DPAD_UP; break;
+                case BTN_DPAD_DOWN:  button = ControllerState.BUTTON_DPAD_DOWN; break;
+                case BTN_DPAD_LEFT:  button = ControllerState.BUTTON_DPAD_LEFT; break;
+                case BTN_DPAD_RIGHT: button = ControllerState.BUTTON_DPAD_RIGHT; break;
+                case BTN_TL2:
+                    if (!analogTriggers) work.axes[ControllerState.AXIS_LT] = down ? 1f : 0f;
+                    return;
+                case BTN_TR2:
+                    if (!analogTriggers) work.axes[ControllerState.AXIS_RT] = down ? 1f : 0f;
+                    return;
+                default: return;
+            }
+            setButtons(down ? work.buttons | (1 << button) : work.buttons & ~(1 << button));
+        }
+
+        private void abs(int code, int value) {
+            if (code < 0 || code >= ABS_CNT) return;
+            if (code == ABS_HAT0X || code == ABS_HAT0Y) {
+                int lo = code == ABS_HAT0X ? ControllerState.MASK_DPAD_LEFT : ControllerState.MASK_DPAD_UP;
+                int hi = code == ABS_HAT0X ? ControllerState.MASK_DPAD_RIGHT : ControllerState.MASK_DPAD_DOWN;
+                int b = work.buttons & ~(lo | hi);
+                if (value < 0) b |= lo;
+                else if (value > 0) b |= hi;
+                setButtons(b);
+                return;
+            }
+            if ((code == ABS_GAS || code == ABS_BRAKE) && !zIsRightStick) {
+                zIsRightStick = true;
+                resetRange(ABS_Z);
+                resetRange(ABS_RZ);
+                work.axes[ControllerState.AXIS_LT] = 0f;
+                work.axes[ControllerState.AXIS_RT] = 0f;
+            }
+            widen(code, value);
+            switch (code) {
+                case ABS_X:  work.axes[ControllerState.AXIS_LX] = stick(code, value); break;
+                case ABS_Y:  work.axes[ControllerState.AXIS_LY] = -stick(code, value); break;
+                case ABS_RX: if (!zIsRightStick) work.axes[ControllerState.AXIS_RX] = stick(code, value); break;
+                case ABS_RY: if (!zIsRightStick) work.axes[ControllerState.AXIS_RY] = -stick(code, value); break;
+                case ABS_Z:
+                    if (zIsRightStick) work.axes[ControllerState.AXIS_RX] = stick(code, value);
+                    else trigger(ControllerState.AXIS_LT, code, value);
+                    break;
+                case ABS_RZ:
+                    if (zIsRightStick) work.axes[ControllerState.AXIS_RY] = -stick(code, value);
+                    else trigger(ControllerState.AXIS_RT, code, value);
+                    break;
+                case ABS_BRAKE: trigger(ControllerState.AXIS_LT, code, value); break;
+                case ABS_GAS:   trigger(ControllerState.AXIS_RT, code, value); break;
+                default: break;
+            }
+        }
+
+        private boolean isTrigger(int code) {
+            return code == ABS_GAS || code == ABS_BRAKE
+                || (!zIsRightStick && (code == ABS_Z || code == ABS_RZ));
+        }
+
+        /**
+         * Grows a code's range to the next common full scale that holds
+         * {@code v}; a stick's first negative value makes it signed 16-bit.
+         */
+        private void widen(int code, int v) {
+            if (v < 0 && absMin[code] == 0 && !isTrigger(code)) {
+                int s = Math.max(Math.max(fullScale(-v - 1), absMax[code]), 32767);
+                absMin[code] = -s - 1;
+                absMax[code] = s;
+            } else if (v > absMax[code]) {
+                int s = fullScale(v);
+                absMax[code] = s;
+                if (absMin[code] < 0) absMin[code] = -s - 1;
+            } else if (v < absMin[code]) {
+                int s = fullScale(-v - 1);
+                absMin[code] = -s - 1;
+                absMax[code] = Math.max(absMax[code], s);
+            }
+        }
+
+        private float stick(int code, int v) {
+            float centre = (absMin[code] + absMax[code]) * 0.5f;
+            float half   = (absMax[code] - absMin[code]) * 0.5f;
+            return clamp((v - centre) / half, -1f, 1f);
+        }
+
+        private void trigger(int axis, int code, int v) {
+            analogTriggers = true;
+            work.axes[axis] = clamp((float) (v - absMin[code]) / (absMax[code] - absMin[code]), 0f, 1f);
+        }
+
+        private void setButtons(int b) {
+            int changed = b ^ work.buttons;
+            work.buttons = b;
+            if (changed == 0) return;
+            long now = System.nanoTime();
+            for (int i = 0; i < ControllerState.BUTTON_COUNT; i++)
+                if ((changed & (1 << i)) != 0) rawEdges.offer(i, (b & (1 << i)) != 0, now);
+        }
+
+        private void publish(long now) {
+            work.timestamp = now;
+            snapshots.backBuffer().copyFrom(work);
+            snapshots.publish(true);
+        }
+    }
+
+    /** Data model of this JVM; os.arch when the VM doesn't say (amd64, x86_64, aarch64...). */
+    private static boolean is64BitVM() {
+        String model = System.getProperty("sun.arch.data.model", "");
+        if (model.equals("64")) return true;
+        if (model.equals("32")) return false;
+        return System.getProperty("os.arch", "").contains("64");
+    }
+
+    private static int fullScale(int magnitude) {
+        for (int s : SCALES) if (magnitude <= s) return s;
+        return Integer.MAX_VALUE - 1;
+    }
+
+    private static float clamp(float v, float lo, float hi) {
+        return v < lo ? lo : (v > hi ? hi : v);
+    }
+
+    private static boolean bit(long caps, int code) {
+        return (caps & (1L << code)) != 0;
+    }
+
+    /** Lowest 64 bits of a sysfs capability bitmap (hex words, most significant first). */
+    private static long parseCaps(String line) {
+        if (line == null || line.trim().isEmpty()) return 0;
+        String[] words = line.trim().split("\\s+");
+        try {
+            return new BigInteger(words[words.length - 1], 16).longValue();
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String readLine(File f) {
+        if (!f.isFile()) return null;
+        java.io.BufferedReader in = null;
+        try {
+            in = new java.io.BufferedReader(new java.io.FileReader(f));
+            String s = in.readLine();
+            return s == null ? null : s.trim();
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (in != null) try { in.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    // =========================================================================
+    // Bindings
+    // =========================================================================
+
+    @Override
+    public int buttonIndex(int logicalButton) {
+        return logicalButton <= ControllerState.BUTTON_RTHUMB ? logicalButton : -1;
+    }
+
+    @Override
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        return index >= 0 && index <= ControllerState.BUTTON_RTHUMB && cs.getButton(index);
+    }
+
+    @Override
+    public boolean applyDefaults(XInputConfig config) {
+        config.applyJXInputDefaults();   // same fixed logical layout as XInput
+        return true;
+    }
+}
\ No newline at end of file
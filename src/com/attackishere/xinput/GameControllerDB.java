@@ -0,0 +1,307 @@
+package com.attackishere.xinput;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Index over an SDL gamecontrollerdb.txt, so a pad that has an entry gets
+ * its exact mapping instead of JInputController's name/count heuristics.
+ *
+ * Each line is "GUID,name,field:source,...,platform:X,". The file is parsed
+ * once; every entry for the running platform becomes one row of a flat int
+ * table (one encoded source per slot below), and two open-addressing hash
+ * tables point at rows: one keyed by USB vendor/product (from the GUID,
+ * when it carries them), one by the normalised name. A lookup is a hash and
+ * a probe or two.
+ *
+ * JInput doesn't expose vendor/product ids, so JInput pads are matched by
+ * name; a user can add a line with the exact name JInput reports (see the
+ * controller's "JInput controller:" log line). The first entry for a key
+ * wins, as later upstream lines are usually less specific.
+ */
+public final class GameControllerDB {
+
+    public static final String FILE_NAME = "gamecontrollerdb.txt";
+
+    // Slots, in the order of FIELDS
+    public static final int A = 0, B = 1, X = 2, Y = 3, LB = 4, RB = 5, BACK = 6, START = 7;
+    public static final int LSTICK = 8, RSTICK = 9;
+    public static final int DPAD_UP = 10, DPAD_DOWN = 11, DPAD_LEFT = 12, DPAD_RIGHT = 13;
+    public static final int LT = 14, RT = 15, LX = 16, LY = 17, RX = 18, RY = 19;
+    public static final int SLOTS = 20;
+
+    private static final String[] FIELDS = {
+        "a", "b", "x", "y", "leftshoulder", "rightshoulder", "back", "start",
+        "leftstick", "rightstick", "dpup", "dpdown", "dpleft", "dpright",
+        "lefttrigger", "righttrigger", "leftx", "lefty", "rightx", "righty",
+    };
+
+    // Encoded source: kind in the top bits, index (hat: hat << 4 | mask) below
+    public static final int NONE   = 0;
+    public static final int BUTTON = 1 << 24;
+    public static final int AXIS   = 2 << 24;   // full-range axis only
+    public static final int HAT    = 3 << 24;
+    public static final int AXIS_POS = 4 << 24;   // "+aN": positive half of an axis
+    public static final int AXIS_NEG = 5 << 24;   // "-aN"
+    public static final int KIND_MASK  = 0xFF << 24;
+    public static final int INDEX_MASK = 0xFFFFFF;
+
+    private static final long KEY_USB  = 1L << 62;
+    private static final long KEY_NAME = 1L << 61;
+
+    private final String platform;
+    private int rows = 0;
+    private int[] table = new int[64 * SLOTS];
+    private String[] names = new String[64];
+    private long[] usbKeys = new long[64];   // per row, until the index is built
+    private String[] keyNames = new String[0];   // normalised names, per row
+
+    private long[] keys = new long[0];
+    private int[]  vals = new int[0];
+
+    private int linesRead = 0;
+
+    /** @param platform SDL platform name to keep ("Windows", "Mac OS X", "Linux"), null = all */
+    public GameControllerDB(String platform) {
+        this.platform = platform;
+    }
+
+    /** SDL's platform name for this JVM. */
+    public static String currentPlatform() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("win")) return "Windows";
+        if (os.contains("mac")) return "Mac OS X";
+        return "Linux";
+    }
+
+    /**
+     * Loads {@code file} for the running platform, logging the parse time;
+     * null if it is missing or unreadable.
+     */
+    public static GameControllerDB load(File file) {
+        if (!file.isFile()) return null;
+        long t0 = System.nanoTime();
+        GameControllerDB db = new GameControllerDB(currentPlatform());
+        Reader in = null;
+        try {
+            in = new InputStreamReader(new FileInputStream(file), "UTF-8");
+            db.parse(in);
+        } catch (IOException e) {
+            System.out.println("[XInputMod] Could not read " + file + ": " + e);
+            return null;
+        } finally {
+            if (in != null) try { in.close(); } catch (IOException ignored) {}
+        }
+        System.out.println("[XInputMod] " + file.getName() + ": " + db.size() + " " + db.platform
+            + " mappings from " + db.linesRead() + " lines in " + (System.nanoTime() - t0) / 1000L + " us");
+        return db;
+    }
+
+    // =========================================================================
+    // Parsing
+    // =========================================================================
+
+    public void parse(Reader source) throws IOException {
+        BufferedReader in = new BufferedReader(source, 1 << 16);
+        int[] row = new int[SLOTS];
+        String line;
+        while ((line = in.readLine()) != null) {
+            linesRead++;
+            parseLine(line, row);
+        }
+        buildIndex();
+    }
+
+    private void parseLine(String line, int[] row) {
+        int len = line.length();
+        if (len < 34 || line.charAt(0) == '#') return;
+        int c1 = line.indexOf(',');
+        if (c1 != 32) return;
+        int c2 = line.indexOf(',', c1 + 1);
+        if (c2 < 0) return;
+
+        Arrays.fill(row, NONE);
+        String entryPlatform = null;
+        int start = c2 + 1;
+        while (start < len) {
+            int end = line.indexOf(',', start);
+            if (end < 0) end = len;
+            int colon = line.indexOf(':', start);
+            if (colon > start && colon < end) {
+                if (line.startsWith("platform", start) && colon - start == 8) {
+                    entryPlatform = line.substring(colon + 1, end);
+                } else {
+                    int slot = slotOf(line, start, colon);
+                    if (slot >= 0) row[slot] = parseSource(line, colon + 1, end);
+                }
+            }
+            start = end + 1;
+        }
+        if (platform != null && entryPlatform != null && !platform.equals(entryPlatform)) return;
+        add(line.substring(0, c1), line.substring(c1 + 1, c2), row);
+    }
+
+    private static int slotOf(String line, int from, int to) {
+        int n = to - from;
+        for (int i = 0; i < FIELDS.length; i++)
+            if (FIELDS[i].length() == n && line.startsWith(FIELDS[i], from)) return i;
+        return -1;
+    }
+
+    /** "b3" / "a2" / "+a2" / "-a2" / "h0.4"; inverted axes ("a1~") aren't used. */
+    private static int parseSource(String line, int from, int to) {
+        if (to - from < 2) return NONE;
+        char kind = line.charAt(from);
+        if (line.charAt(to - 1) == '~') return NONE;
+        try {
+            if (kind == 'b') return BUTTON | Integer.parseInt(line.substring(from + 1, to));
+            if (kind == 'a') return AXIS | Integer.parseInt(line.substring(from + 1, to));
+            if ((kind == '+' || kind == '-') && line.charAt(from + 1) == 'a')
+                return (kind == '+' ? AXIS_POS : AXIS_NEG) | Integer.parseInt(line.substring(from + 2, to));
+            if (kind == 'h') {
+                int dot = line.indexOf('.', from);
+                if (dot < 0 || dot >= to) return NONE;
+                int hat  = Integer.parseInt(line.substring(from + 1, dot));
+                int mask = Integer.parseInt(line.substring(dot + 1, to));
+                return HAT | (hat << 4) | (mask & 0xF);
+            }
+        } catch (NumberFormatException ignored) {}
+        return NONE;
+    }
+
+    private void add(String guid, String name, int[] row) {
+        if (rows == names.length) {
+            names   = Arrays.copyOf(names, rows * 2);
+            usbKeys = Arrays.copyOf(usbKeys, rows * 2);
+            table   = Arrays.copyOf(table, rows * 2 * SLOTS);
+        }
+        System.arraycopy(row, 0, table, rows * SLOTS, SLOTS);
+        names[rows]   = name;
+        usbKeys[rows] = usbKey(guid);
+        rows++;
+    }
+
+    /**
+     * Vendor/product key from an SDL2 GUID (bus, crc, vendor, 0, product, 0,
+     * version, driver; 16-bit little-endian fields), or 0 if it carries none.
+     */
+    static long usbKey(String guid) {
+        int vendor  = le16(guid, 8);
+        int zero1   = le16(guid, 12);
+        int product = le16(guid, 16);
+        int zero2   = le16(guid, 20);
+        if (vendor <= 0 || product < 0 || zero1 != 0 || zero2 != 0) return 0;
+        return usbKey(vendor, product);
+    }
+
+    private static long usbKey(int vendor, int product) {
+        return KEY_USB | ((long) vendor << 16) | product;
+    }
+
+    private static int le16(String hex, int at) {
+        int lo = hexByte(hex, at), hi = hexByte(hex, at + 2);
+        return lo < 0 || hi < 0 ? -1 : (hi << 8) | lo;
+    }
+
+    private static int hexByte(String s, int at) {
+        int h = Character.digit(s.charAt(at), 16), l = Character.digit(s.charAt(at + 1), 16);
+        return h < 0 || l < 0 ? -1 : (h << 4) | l;
+    }
+
+    /** Lower case, single spaces, trimmed: names differ in case and padding across drivers. */
+    static String normalise(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) { space = sb.length() > 0; continue; }
+            if (space) { sb.append(' '); space = false; }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private static long nameKey(String normalised) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalised.length(); i++) {
+            h ^= normalised.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return KEY_NAME | (h & ((1L << 61) - 1));
+    }
+
+    // =========================================================================
+    // Index
+    // =========================================================================
+
+    private void buildIndex() {
+        int cap = Integer.highestOneBit(Math.max(4, rows * 4) - 1) << 1;   // two keys per row, load <= 0.5
+        keys = new long[cap];
+        vals = new int[cap];
+        keyNames = new String[rows];
+        for (int r = 0; r < rows; r++) {
+            keyNames[r] = normalise(names[r]);
+            if (usbKeys[r] != 0) insert(usbKeys[r], r);
+            insert(nameKey(keyNames[r]), r);
+        }
+        usbKeys = null;
+    }
+
+    private void insert(long key, int row) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == 0) { keys[i] = key; vals[i] = row; return; }
+            if (keys[i] == key) return;   // first entry wins
+        }
+    }
+
+    private int find(long key) {
+        if (keys.length == 0) return -1;
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return vals[i];
+            if (k == 0) return -1;
+        }
+    }
+
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    // =========================================================================
+    // Lookup
+    // =========================================================================
+
+    /** Row for a USB vendor/product pair, or -1. */
+    public int findUsb(int vendor, int product) {
+        return find(usbKey(vendor, product));
+    }
+
+    /** Row for a controller name (case and spacing ignored), or -1. */
+    public int findName(String name) {
+        if (name == null) return -1;
+        String n = normalise(name);
+        int row = find(nameKey(n));
+        return row >= 0 && keyNames[row].equals(n) ? row : -1;
+    }
+
+    /** Encoded source (kind | index) for {@code slot} of {@code row}. */
+    public int source(int row, int slot) {
+        return table[row * SLOTS + slot];
+    }
+
+    public String name(int row) { return names[row]; }
+
+    public int size() { return rows; }
+
+    public int linesRead() { return linesRead; }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Parse/index/lookup timing for GameControllerDB, run outside the game:
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.GameControllerDBBenchmark gamecontrollerdb.txt [rounds]
+ *
+ * Point it at the full upstream file. Each round parses and indexes every
+ * platform's entries from an in-memory copy (so disk speed doesn't count),
+ * then looks every entry up by name and by vendor/product.
+ */
+public class GameControllerDBBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: GameControllerDBBenchmark <gamecontrollerdb.txt> [rounds]");
+            return;
+        }
+        File file = new File(args[0]);
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        String text = readAll(file);
+
+        long best = Long.MAX_VALUE, total = 0;
+        GameControllerDB db = null;
+        for (int r = 0; r < rounds; r++) {
+            long t0 = System.nanoTime();
+            db = new GameControllerDB(null);
+            db.parse(new StringReader(text));
+            long t = System.nanoTime() - t0;
+            total += t;
+            if (t < best) best = t;
+        }
+        System.out.println(file.getName() + ": " + db.linesRead() + " lines, " + db.size() + " entries");
+        System.out.println("parse+index: best " + best / 1000 + " us, mean " + total / rounds / 1000 + " us over "
+            + rounds + " rounds");
+
+        String[] names = new String[db.size()];
+        for (int i = 0; i < names.length; i++) names[i] = db.name(i);
+        int hits = 0;
+        long t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++)
+            for (String n : names) if (db.findName(n) >= 0) hits++;
+        long lookups = (long) rounds * names.length;
+        System.out.println("findName: " + (System.nanoTime() - t0) / Math.max(1, lookups) + " ns/lookup ("
+            + hits / rounds + "/" + names.length + " resolve)");
+
+        t0 = System.nanoTime();
+        int usbHits = 0;
+        for (int r = 0; r < rounds; r++)
+            for (int p = 0; p < 0x10000; p += 0x11) if (db.findUsb(0x045e, p) >= 0) usbHits++;
+        long usbLookups = (long) rounds * (0x10000 / 0x11 + 1);
+        System.out.println("findUsb: " + (System.nanoTime() - t0) / usbLookups + " ns/lookup ("
+            + usbHits / rounds + " hits over the 045e product range)");
+    }
+
+    private static String readAll(File file) throws IOException {
+        Reader in = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE, file.length()));
+            char[] buf = new char[1 << 16];
+            int n;
+            while ((n = in.read(buf)) > 0) sb.append(buf, 0, n);
+            return sb.toString();
+        } finally {
+            in.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.attackishere.xinput;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rumble without native calls on the client thread.
+ *
+ * {@link #play} only queues a request and wakes the engine's own daemon
+ * thread, which owns everything else: a few active effect slots, each a
+ * linear fade from its start strength to zero over the effect's duration.
+ * Overlapping effects coalesce into one output per motor (the strongest of
+ * the active envelopes); retriggering an effect restarts it instead of
+ * stacking, and when every slot is busy the lowest-priority effect makes
+ * way. The output is quantised and the native write only happens when it
+ * changes, so a steady or silent pad costs nothing and a fade costs one
+ * write per step.
+ *
+ * Queue depth and native write latency are tracked and logged once a
+ * minute while the pad is rumbling.
+ */
+public class HapticsEngine {
+
+    /** A device's rumble motors. Called on the haptics thread only. */
+    public interface Motor {
+        /** Both in 0..1: low-frequency (left, heavy) and high-frequency (right, light) motor. */
+        void set(float low, float high);
+    }
+
+    public enum Effect {
+        //          priority  low    high   ms
+        BLOCK_BREAK(1,        0.00f, 0.35f,  70),
+        DAMAGE     (2,        0.80f, 0.45f, 250),
+        LOW_HEALTH (3,        0.55f, 0.00f, 180);
+
+        final int   priority;
+        final float low, high;
+        final long  durationNanos;
+
+        Effect(int priority, float low, float high, long ms) {
+            this.priority = priority;
+            this.low = low;
+            this.high = high;
+            this.durationNanos = ms * 1000000L;
+        }
+    }
+
+    private static final int  SLOTS      = 4;
+    private static final int  LEVELS     = 255;          // output quantisation
+    private static final long STEP_NANOS = 16000000L;    // envelope update while something plays
+    private static final long LOG_NANOS  = 60000000000L;
+
+    private static final class Request {
+        final Effect effect; final float strength;
+        Request(Effect effect, float strength) { this.effect = effect; this.strength = strength; }
+    }
+
+    // Client thread -> haptics thread
+    private final ConcurrentLinkedQueue<Request> requests = new ConcurrentLinkedQueue<Request>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private volatile Motor motor = null;
+    private volatile boolean running = false;
+    private volatile Thread thread = null;
+
+    // Haptics thread only
+    private final Effect[] slotEffect   = new Effect[SLOTS];
+    private final float[]  slotStrength = new float[SLOTS];
+    private final long[]   slotStart    = new long[SLOTS];
+    private Motor written = null;
+    private int   writtenLow = 0, writtenHigh = 0;
+    private long  loggedAt = System.nanoTime(), writesAtLog = 0;
+
+    // Metrics (haptics thread writes, anyone reads)
+    private volatile int  maxDepth = 0;
+    private volatile long writes = 0, writeNanosTotal = 0, writeNanosMax = 0;
+    private volatile long dropped = 0;
+
+    /**
+     * Device to rumble (null = none). When it changes, the old one is
+     * stopped on the haptics thread.
+     */
+    public void setMotor(Motor m) {
+        if (m == motor) return;
+        motor = m;
+        wake();
+    }
+
+    /** Queues {@code effect} at {@code strength} (0..1). Never blocks. */
+    public void play(Effect effect, float strength) {
+        if (motor == null || strength <= 0f) return;
+        requests.offer(new Request(effect, Math.min(1f, strength)));
+        int d = depth.incrementAndGet();
+        if (d > maxDepth) maxDepth = d;
+        if (!running) start();
+        else wake();
+    }
+
+    /** Stops the thread; the motors are switched off first. */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        Thread t = thread;
+        LockSupport.unpark(t);
+        try { t.join(500); } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        System.out.println("[XInputMod] Haptics stopped (" + stats() + ")");
+    }
+
+    private synchronized void start() {
+        if (running) return;
+        running = true;
+        Thread t = new Thread(new Runnable() {
+            @Override public void run() { loop(); }
+        }, "XInputMod Haptics");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    private void wake() {
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    // =========================================================================
+    // Haptics thread
+    // =========================================================================
+
+    private void loop() {
+        try {
+            while (running) {
+                Request r;
+                while ((r = requests.poll()) != null) {
+                    depth.decrementAndGet();
+                    admit(r.effect, r.strength, System.nanoTime());
+                }
+                boolean active = output(System.nanoTime());
+                if (active) LockSupport.parkNanos(this, STEP_NANOS);
+                else        LockSupport.park(this);
+            }
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] Haptics failed: " + t);
+        } finally {
+            for (int i = 0; i < SLOTS; i++) slotEffect[i] = null;
+            write(written, 0, 0);
+        }
+    }
+
+    /** Restarts a playing instance, or takes a free slot, or evicts a lower priority. */
+    private void admit(Effect e, float strength, long now) {
+        int free = -1, weakest = -1;
+        for (int i = 0; i < SLOTS; i++) {
+            Effect s = slotEffect[i];
+            if (s == e) {
+                slotStrength[i] = Math.max(strength, remaining(i, now));
+                slotStart[i] = now;
+                return;
+            }
+            if (s == null) { if (free < 0) free = i; continue; }
+            if (weakest < 0 || s.priority < slotEffect[weakest].priority) weakest = i;
+        }
+        int i = free >= 0 ? free : (slotEffect[weakest].priority <= e.priority ? weakest : -1);
+        if (i < 0) { dropped++; return; }
+        slotEffect[i] = e;
+        slotStrength[i] = strength;
+        slotStart[i] = now;
+    }
+
+    /** Strength left in slot {@code i}'s fade at {@code now}. */
+    private float remaining(int i, long now) {
+        long age = now - slotStart[i];
+        long dur = slotEffect[i].durationNanos;
+        return age >= dur ? 0f : slotStrength[i] * (1f - age / (float) dur);
+    }
+
+    /** Mixes the active envelopes and writes if the result changed. Returns whether any is still playing. */
+    private boolean output(long now) {
+        float low = 0f, high = 0f;
+        boolean active = false;
+        for (int i = 0; i < SLOTS; i++) {
+            Effect e = slotEffect[i];
+            if (e == null) continue;
+            float s = remaining(i, now);
+            if (s <= 0f) { slotEffect[i] = null; continue; }
+            active = true;
+            low  = Math.max(low,  e.low  * s);
+            high = Math.max(high, e.high * s);
+        }
+        Motor m = motor;
+        if (m != written) {
+            write(written, 0, 0);   // leave no motor running on a pad we no longer drive
+            written = m;
+            writtenLow = writtenHigh = -1;
+        }
+        write(m, Math.round(low * LEVELS), Math.round(high * LEVELS));
+        logStats(now, active);
+        return active;
+    }
+
+    private void write(Motor m, int low, int high) {
+        if (m == null || (low == writtenLow && high == writtenHigh && m == written)) return;
+        long t0 = System.nanoTime();
+        try {
+            m.set(low / (float) LEVELS, high / (float) LEVELS);
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] Rumble write failed: " + t);
+        }
+        long cost = System.nanoTime() - t0;
+        writes++;
+        writeNanosTotal += cost;
+        if (cost > writeNanosMax) writeNanosMax = cost;
+        if (m == written) { writtenLow = low; writtenHigh = high; }
+    }
+
+    private void logStats(long now, boolean active) {
+        if (!active || now - loggedAt < LOG_NANOS || writes == writesAtLog) return;
+        loggedAt = now;
+        writesAtLog = writes;
+        System.out.println("[XInputMod] Haptics: " + stats());
+    }
+
+    // =========================================================================
+    // Metrics
+    // =========================================================================
+
+    public int  queueDepth()       { return depth.get(); }
+    public int  maxQueueDepth()    { return maxDepth; }
+    public long nativeWrites()     { return writes; }
+    public long droppedEffects()   { return dropped; }
+    public long meanWriteNanos()   { long n = writes; return n == 0 ? 0 : writeNanosTotal / n; }
+    public long maxWriteNanos()    { return writeNanosMax; }
+
+    public String stats() {
+        return writes + " native writes, mean " + meanWriteNanos() / 1000 + " us, max "
+            + writeNanosMax / 1000 + " us; queue depth " + queueDepth() + " (max " + maxDepth + "), "
+            + dropped + " dropped";
+    }
+}
\ No newline at end of file
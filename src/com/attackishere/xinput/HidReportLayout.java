@@ -0,0 +1,267 @@
+package com.attackishere.xinput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-offset decoder for one HID input report format.
+ *
+ * A layout is described once as a table (which bytes hold which stick,
+ * trigger, button bit and hat nibble) and compiled into parallel primitive
+ * arrays. Decoding a report is then a short loop of array reads, shifts and
+ * masks straight into a ControllerState, with no per-report allocation.
+ *
+ * The known pads are the static profiles below; each lists the report
+ * formats it sends (by report id and length, so USB and Bluetooth variants
+ * of the same pad can coexist).
+ */
+public final class HidReportLayout {
+
+    /** One controller family: USB vendor/product ids and its report formats. */
+    public static final class Profile {
+        public final String id;
+        public final int vendor;
+        public final int[] products;
+        public final HidReportLayout[] layouts;
+        /** Size of one report in a raw capture file (cat /dev/hidrawN). */
+        public final int captureBytes;
+
+        Profile(String id, int vendor, int[] products, int captureBytes, HidReportLayout... layouts) {
+            this.id = id; this.vendor = vendor; this.products = products;
+            this.captureBytes = captureBytes; this.layouts = layouts;
+        }
+
+        public boolean matches(int vendorId, int productId) {
+            if (vendorId != vendor) return false;
+            for (int p : products) if (p == productId) return true;
+            return false;
+        }
+
+        /** Layout for a report of {@code length} bytes starting with {@code reportId}, or null. */
+        public HidReportLayout layoutFor(int reportId, int length) {
+            for (HidReportLayout l : layouts)
+                if (l.reportId == reportId && length >= l.minLength && length <= l.maxLength) return l;
+            return null;
+        }
+    }
+
+    // Hat value (0 = north, clockwise) -> ControllerState D-pad mask
+    private static final int[] HAT_MASKS = {
+        ControllerState.MASK_DPAD_UP,
+        ControllerState.MASK_DPAD_UP | ControllerState.MASK_DPAD_RIGHT,
+        ControllerState.MASK_DPAD_RIGHT,
+        ControllerState.MASK_DPAD_DOWN | ControllerState.MASK_DPAD_RIGHT,
+        ControllerState.MASK_DPAD_DOWN,
+        ControllerState.MASK_DPAD_DOWN | ControllerState.MASK_DPAD_LEFT,
+        ControllerState.MASK_DPAD_LEFT,
+        ControllerState.MASK_DPAD_UP | ControllerState.MASK_DPAD_LEFT,
+    };
+
+    public final String name;
+    public final int reportId, minLength, maxLength;
+
+    // Compiled extractors
+    private final int[]   axOffset, axWidth, axIndex;
+    private final float[] axScale, axBias, axMin;
+    private final int[]   btOffset, btMask, btBit;
+    private final int     hatOffset, hatShift, hatNorth;
+
+    private HidReportLayout(Builder b) {
+        name = b.name; reportId = b.reportId; minLength = b.minLength; maxLength = b.maxLength;
+        int n = b.axes.size();
+        axOffset = new int[n]; axWidth = new int[n]; axIndex = new int[n];
+        axScale = new float[n]; axBias = new float[n]; axMin = new float[n];
+        for (int i = 0; i < n; i++) {
+            float[] a = b.axes.get(i);
+            axIndex[i]  = (int) a[0];
+            axOffset[i] = (int) a[1] + b.shift;
+            axWidth[i]  = (int) a[2];
+            axScale[i]  = a[3];
+            axBias[i]   = a[4];
+            axMin[i]    = a[5];
+        }
+        int m = b.buttons.size();
+        btOffset = new int[m]; btMask = new int[m]; btBit = new int[m];
+        for (int i = 0; i < m; i++) {
+            int[] t = b.buttons.get(i);
+            btOffset[i] = t[0] + b.shift;
+            btMask[i]   = t[1];
+            btBit[i]    = 1 << t[2];
+        }
+        hatOffset = b.hatOffset < 0 ? -1 : b.hatOffset + b.shift;
+        hatShift  = b.hatShift;
+        hatNorth  = b.hatNorth;
+    }
+
+    /**
+     * Decodes {@code report[0..length)} into {@code out} (buttons and axes;
+     * the timestamp is left to the caller).
+     */
+    public void decode(byte[] report, ControllerState out) {
+        float[] axes = out.axes;
+        for (int i = 0; i < axOffset.length; i++) {
+            int o = axOffset[i];
+            int raw = report[o] & 0xFF;
+            if (axWidth[i] == 2) raw |= (report[o + 1] & 0xFF) << 8;
+            float v = raw * axScale[i] + axBias[i];
+            axes[axIndex[i]] = v < axMin[i] ? axMin[i] : (v > 1f ? 1f : v);
+        }
+        int mask = 0;
+        for (int i = 0; i < btOffset.length; i++)
+            if ((report[btOffset[i]] & btMask[i]) != 0) mask |= btBit[i];
+        if (hatOffset >= 0) {
+            int h = ((report[hatOffset] >> hatShift) & 0xF) - hatNorth;
+            if (h >= 0 && h < HAT_MASKS.length) mask |= HAT_MASKS[h];
+        }
+        out.buttons = mask;
+    }
+
+    // =========================================================================
+    // Table description
+    // =========================================================================
+
+    static Builder report(String name, int reportId, int minLength, int maxLength) {
+        return new Builder(name, reportId, minLength, maxLength);
+    }
+
+    static final class Builder {
+        final String name;
+        final int reportId, minLength, maxLength;
+        final List<float[]> axes  = new ArrayList<float[]>();
+        final List<int[]> buttons = new ArrayList<int[]>();
+        int hatOffset = -1, hatShift = 0, hatNorth = 0;
+        int shift = 0;
+
+        Builder(String name, int reportId, int minLength, int maxLength) {
+            this.name = name; this.reportId = reportId; this.minLength = minLength; this.maxLength = maxLength;
+        }
+
+        /** Centred stick axis over [min, max]; {@code invert} flips it (HID Y grows downwards). */
+        Builder stick(int axis, int offset, int width, int min, int max, boolean invert) {
+            float half = (max - min) * 0.5f, centre = (max + min) * 0.5f;
+            float sign = invert ? -1f : 1f;
+            axes.add(new float[] { axis, offset, width, sign / half, -sign * centre / half, -1f });
+            return this;
+        }
+
+        /** Trigger over [0, max] mapped to 0..1. */
+        Builder trigger(int axis, int offset, int width, int max) {
+            axes.add(new float[] { axis, offset, width, 1f / max, 0f, 0f });
+            return this;
+        }
+
+        Builder button(int offset, int mask, int button) {
+            buttons.add(new int[] { offset, mask, button });
+            return this;
+        }
+
+        /** 4-bit hat at {@code offset >> shift}; {@code north} is the value for up, clockwise from there. */
+        Builder hat(int offset, int shift, int north) {
+            hatOffset = offset; hatShift = shift; hatNorth = north;
+            return this;
+        }
+
+        /** Every offset moves by {@code n} (same fields behind a longer header). */
+        Builder shifted(int n) {
+            shift = n;
+            return this;
+        }
+
+        HidReportLayout build() {
+            return new HidReportLayout(this);
+        }
+    }
+
+    // =========================================================================
+    // Known pads
+    // =========================================================================
+
+    /** DualShock 4 input fields, relative to the USB report (id 0x01). */
+    private static Builder ds4Fields(Builder b) {
+        return b.stick(ControllerState.AXIS_LX, 1, 1, 0, 255, false)
+            .stick(ControllerState.AXIS_LY, 2, 1, 0, 255, true)
+            .stick(ControllerState.AXIS_RX, 3, 1, 0, 255, false)
+            .stick(ControllerState.AXIS_RY, 4, 1, 0, 255, true)
+            .hat(5, 0, 0)
+            .button(5, 0x10, ControllerState.BUTTON_X)        // square
+            .button(5, 0x20, ControllerState.BUTTON_A)        // cross
+            .button(5, 0x40, ControllerState.BUTTON_B)        // circle
+            .button(5, 0x80, ControllerState.BUTTON_Y)        // triangle
+            .button(6, 0x01, ControllerState.BUTTON_LB)
+            .button(6, 0x02, ControllerState.BUTTON_RB)
+            .button(6, 0x10, ControllerState.BUTTON_BACK)     // share
+            .button(6, 0x20, ControllerState.BUTTON_START)    // options
+            .button(6, 0x40, ControllerState.BUTTON_LTHUMB)
+            .button(6, 0x80, ControllerState.BUTTON_RTHUMB)
+            .trigger(ControllerState.AXIS_LT, 8, 1, 255)
+            .trigger(ControllerState.AXIS_RT, 9, 1, 255);
+    }
+
+    /** DualSense input fields, relative to the USB report (id 0x01). */
+    private static Builder dualSenseFields(Builder b) {
+        return b.stick(ControllerState.AXIS_LX, 1, 1, 0, 255, false)
+            .stick(ControllerState.AXIS_LY, 2, 1, 0, 255, true)
+            .stick(ControllerState.AXIS_RX, 3, 1, 0, 255, false)
+            .stick(ControllerState.AXIS_RY, 4, 1, 0, 255, true)
+            .trigger(ControllerState.AXIS_LT, 5, 1, 255)
+            .trigger(ControllerState.AXIS_RT, 6, 1, 255)
+            .hat(8, 0, 0)
+            .button(8, 0x10, ControllerState.BUTTON_X)
+            .button(8, 0x20, ControllerState.BUTTON_A)
+            .button(8, 0x40, ControllerState.BUTTON_B)
+            .button(8, 0x80, ControllerState.BUTTON_Y)
+            .button(9, 0x01, ControllerState.BUTTON_LB)
+            .button(9, 0x02, ControllerState.BUTTON_RB)
+            .button(9, 0x10, ControllerState.BUTTON_BACK)     // create
+            .button(9, 0x20, ControllerState.BUTTON_START)    // options
+            .button(9, 0x40, ControllerState.BUTTON_LTHUMB)
+            .button(9, 0x80, ControllerState.BUTTON_RTHUMB);
+    }
+
+    /** Xbox One S / Series controller over Bluetooth (report id 0x01). */
+    private static Builder xboxBluetoothFields(Builder b) {
+        return b.stick(ControllerState.AXIS_LX, 1, 2, 0, 65535, false)
+            .stick(ControllerState.AXIS_LY, 3, 2, 0, 65535, true)
+            .stick(ControllerState.AXIS_RX, 5, 2, 0, 65535, false)
+            .stick(ControllerState.AXIS_RY, 7, 2, 0, 65535, true)
+            .trigger(ControllerState.AXIS_LT, 9, 2, 1023)
+            .trigger(ControllerState.AXIS_RT, 11, 2, 1023)
+            .hat(13, 0, 1)
+            .button(14, 0x01, ControllerState.BUTTON_A)
+            .button(14, 0x02, ControllerState.BUTTON_B)
+            .button(14, 0x08, ControllerState.BUTTON_X)
+            .button(14, 0x10, ControllerState.BUTTON_Y)
+            .button(14, 0x40, ControllerState.BUTTON_LB)
+            .button(14, 0x80, ControllerState.BUTTON_RB)
+            .button(15, 0x04, ControllerState.BUTTON_BACK)    // view
+            .button(15, 0x08, ControllerState.BUTTON_START)   // menu
+            .button(15, 0x20, ControllerState.BUTTON_LTHUMB)
+            .button(15, 0x40, ControllerState.BUTTON_RTHUMB);
+    }
+
+    public static final Profile DS4 = new Profile("ds4", 0x054c, new int[] { 0x05c4, 0x09cc }, 64,
+        ds4Fields(report("DS4 USB / BT basic", 0x01, 10, 64)).build(),
+        ds4Fields(report("DS4 BT full", 0x11, 78, 78)).shifted(2).build());
+
+    public static final Profile DUALSENSE = new Profile("dualsense", 0x054c, new int[] { 0x0ce6, 0x0df2 }, 64,
+        dualSenseFields(report("DualSense USB", 0x01, 64, 64)).build(),
+        dualSenseFields(report("DualSense BT full", 0x31, 78, 78)).shifted(1).build(),
+        ds4Fields(report("DualSense BT basic", 0x01, 10, 10)).build());
+
+    public static final Profile XBOX_BT = new Profile("xbox-bt", 0x045e, new int[] { 0x02fd, 0x0b05, 0x0b13 }, 17,
+        xboxBluetoothFields(report("Xbox BT", 0x01, 16, 17)).build());
+
+    public static final Profile[] PROFILES = { DS4, DUALSENSE, XBOX_BT };
+
+    /** Profile by id ("ds4", "dualsense", "xbox-bt"), or null. */
+    public static Profile profile(String id) {
+        for (Profile p : PROFILES) if (p.id.equalsIgnoreCase(id)) return p;
+        return null;
+    }
+
+    /** Profile for a USB vendor/product pair, or null. */
+    public static Profile profile(int vendor, int product) {
+        for (Profile p : PROFILES) if (p.matches(vendor, product)) return p;
+        return null;
+    }
+}
\ No newline at end of file
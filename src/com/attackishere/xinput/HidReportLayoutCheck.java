@@ -0,0 +1,112 @@
+package com.attackishere.xinput;
+
+/**
+ * Check for HidReportLayout, run outside the game:
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.HidReportLayoutCheck
+ *
+ * Decodes input reports of each known pad (DS4 over USB and Bluetooth,
+ * DualSense over USB and Bluetooth, Xbox over Bluetooth), laid out as the
+ * pads send them, through the layout the profile picks for the report's id
+ * and length, and compares the button mask and axes with what the pressed
+ * buttons and stick positions should give. An idle report of each must
+ * decode to no buttons. Differences are listed and the exit status is 1.
+ */
+public class HidReportLayoutCheck {
+
+    private static final float TOLERANCE = 0.01f;
+    private static int failures = 0;
+
+    public static void main(String[] args) {
+        // DS4 USB: sticks 1-4, hat + face buttons 5, shoulder / menu 6, triggers 8-9
+        check(HidReportLayout.DS4, "DS4 USB idle",
+            report(64, "01 80 80 80 80 08 00 00 00 00"),
+            0, 0f, 0f, 0f, 0f, 0f, 0f);
+        check(HidReportLayout.DS4, "DS4 USB triangle+L1, hat N, LX right, LY up, R2 full",
+            report(64, "01 ff 00 80 80 80 01 00 00 ff"),
+            ControllerState.MASK_Y | ControllerState.MASK_LB | ControllerState.MASK_DPAD_UP,
+            1f, 1f, 0f, 0f, 0f, 1f);
+        // DS4 Bluetooth full report: the same fields two bytes later
+        check(HidReportLayout.DS4, "DS4 BT cross+options, hat E, RX left, L2 full",
+            report(78, "11 c0 00 80 80 00 80 22 20 00 ff 00"),
+            ControllerState.MASK_A | ControllerState.MASK_START | ControllerState.MASK_DPAD_RIGHT,
+            0f, 0f, -1f, 0f, 1f, 0f);
+
+        // DualSense USB: sticks 1-4, triggers 5-6, hat + face buttons 8, shoulder / menu 9
+        check(HidReportLayout.DUALSENSE, "DualSense USB idle",
+            report(64, "01 80 80 80 80 00 00 00 08 00"),
+            0, 0f, 0f, 0f, 0f, 0f, 0f);
+        check(HidReportLayout.DUALSENSE, "DualSense USB square+create, hat SW, RY down, L2 half",
+            report(64, "01 80 80 80 ff 80 00 00 15 10"),
+            ControllerState.MASK_X | ControllerState.MASK_BACK
+                | ControllerState.MASK_DPAD_DOWN | ControllerState.MASK_DPAD_LEFT,
+            0f, 0f, 0f, -1f, 0.5f, 0f);
+        // DualSense Bluetooth full report: one byte later
+        check(HidReportLayout.DUALSENSE, "DualSense BT circle+R1+R3, hat W, LX left, R2 full",
+            report(78, "31 00 00 80 80 80 00 ff 00 46 82"),
+            ControllerState.MASK_B | ControllerState.MASK_RB | ControllerState.MASK_RTHUMB
+                | ControllerState.MASK_DPAD_LEFT,
+            -1f, 0f, 0f, 0f, 0f, 1f);
+        // DualSense Bluetooth before the full reports are enabled: DS4 basic layout
+        check(HidReportLayout.DUALSENSE, "DualSense BT basic triangle",
+            report(10, "01 80 80 80 80 88 00 00 00 00"),
+            ControllerState.MASK_Y, 0f, 0f, 0f, 0f, 0f, 0f);
+
+        // Xbox BT: 16-bit sticks 1-8, 10-bit triggers 9-12, hat 13 (1 = N, 0 = idle), buttons 14-15
+        check(HidReportLayout.XBOX_BT, "Xbox BT idle",
+            report(17, "01 00 80 00 80 00 80 00 80 00 00 00 00 00 00 00 00"),
+            0, 0f, 0f, 0f, 0f, 0f, 0f);
+        check(HidReportLayout.XBOX_BT, "Xbox BT B+RB+menu, hat E, LX left, LY down, RT full",
+            report(17, "01 00 00 ff ff 00 80 00 80 00 00 ff 03 03 82 08 00"),
+            ControllerState.MASK_B | ControllerState.MASK_RB | ControllerState.MASK_START
+                | ControllerState.MASK_DPAD_RIGHT,
+            -1f, -1f, 0f, 0f, 0f, 1f);
+        check(HidReportLayout.XBOX_BT, "Xbox BT (16-byte) A+X+Y+LB+view+LS",
+            report(16, "01 00 80 00 80 00 80 00 80 00 00 00 00 00 59 24"),
+            ControllerState.MASK_A | ControllerState.MASK_X | ControllerState.MASK_Y
+                | ControllerState.MASK_LB | ControllerState.MASK_BACK | ControllerState.MASK_LTHUMB,
+            0f, 0f, 0f, 0f, 0f, 0f);
+
+        // Profiles found by USB id, as the backend does from sysfs
+        expect("054c:09cc is DS4", HidReportLayout.profile(0x054c, 0x09cc) == HidReportLayout.DS4);
+        expect("054c:0ce6 is DualSense", HidReportLayout.profile(0x054c, 0x0ce6) == HidReportLayout.DUALSENSE);
+        expect("045e:0b13 is Xbox BT", HidReportLayout.profile(0x045e, 0x0b13) == HidReportLayout.XBOX_BT);
+        expect("045e:028e (wired 360) has no profile", HidReportLayout.profile(0x045e, 0x028e) == null);
+
+        System.out.println(failures == 0 ? "OK" : failures + " failure(s)");
+        if (failures > 0) System.exit(1);
+    }
+
+    private static void check(HidReportLayout.Profile profile, String what, byte[] report, int buttons,
+                              float lx, float ly, float rx, float ry, float lt, float rt) {
+        HidReportLayout layout = profile.layoutFor(report[0] & 0xFF, report.length);
+        if (layout == null) {
+            expect(what + ": no layout for id " + (report[0] & 0xFF) + ", " + report.length + " bytes", false);
+            return;
+        }
+        ControllerState cs = new ControllerState();
+        layout.decode(report, cs);
+        if (cs.buttons != buttons)
+            expect(what + " [" + layout.name + "]: buttons 0x" + Integer.toHexString(cs.buttons)
+                + ", expected 0x" + Integer.toHexString(buttons), false);
+        float[] want = { lx, ly, rx, ry, lt, rt };
+        for (int a = 0; a < want.length; a++) {
+            if (Math.abs(cs.axes[a] - want[a]) <= TOLERANCE) continue;
+            expect(what + " [" + layout.name + "]: axis " + a + " = " + cs.axes[a] + ", expected " + want[a], false);
+        }
+    }
+
+    /** {@code length} bytes starting with the given hex bytes, zero-filled. */
+    private static byte[] report(int length, String hex) {
+        byte[] r = new byte[length];
+        String[] b = hex.trim().split("\\s+");
+        for (int i = 0; i < b.length; i++) r[i] = (byte) Integer.parseInt(b[i], 16);
+        return r;
+    }
+
+    private static void expect(String what, boolean ok) {
+        if (ok) return;
+        failures++;
+        System.out.println("FAIL " + what);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,321 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Linux backend that decodes raw HID input reports from /dev/hidraw* for
+ * the pads HidReportLayout knows (DualShock 4, DualSense, Xbox over
+ * Bluetooth). Each report goes through a precompiled fixed-offset layout
+ * into ControllerState: no JInput component lookup and no per-button
+ * getPollData() floats.
+ *
+ * Same threading as EvdevBackend: a daemon thread blocks on the device's
+ * FileChannel (hidraw returns one whole report per read), decodes into a
+ * working state, publishes it through a ControllerSnapshotBuffer and queues
+ * button edges for the tracker.
+ *
+ * Opt-in (the config default is "off"): it outranks JInput, and Steam's
+ * udev rules make DS4 / DualSense nodes readable on many desktops, so on by
+ * default it would take over pads whose bindings were saved as JInput
+ * indices. The device is "auto" (first readable hidraw node whose sysfs
+ * HID_ID matches a known profile) or a path. A path may also be a raw capture
+ * (e.g. from cat /dev/hidrawN); with no sysfs entry behind it the profile
+ * comes from the HidrawProfile setting, and the file is read in chunks of
+ * that profile's report size. Buttons use the logical ControllerState.BUTTON_*
+ * numbering as binding indices.
+ */
+public class HidrawBackend implements ControllerBackend {
+
+    public static final int PRIORITY = 170;
+    public static final String AUTO = "auto";
+    public static final String OFF  = "off";
+
+    private static final int MAX_REPORT = 128;
+
+    private final String devicePath;
+    private final String profileId;
+    private final ReconnectScheduler reconnect = new ReconnectScheduler("hidraw");
+    private final ReconnectScheduler.Probe probe = new ReconnectScheduler.Probe() {
+        @Override public ReconnectScheduler.Outcome attempt() { return probe(); }
+    };
+
+    // Reader thread -> polling thread
+    private final ControllerSnapshotBuffer snapshots = new ControllerSnapshotBuffer();
+    private final ButtonEdgeQueue rawEdges = new ButtonEdgeQueue(256);
+    private final ButtonEdgeQueue.Edge edge = new ButtonEdgeQueue.Edge();
+    private final ControllerState axisSample = new ControllerState();   // polling thread only
+
+    private volatile Reader reader = null;
+    private volatile boolean closed = false;
+    private boolean wasLive = false;   // polling thread only
+
+    public HidrawBackend(String devicePath, String profileId) {
+        this.devicePath = devicePath == null || devicePath.trim().isEmpty() ? AUTO : devicePath.trim();
+        this.profileId  = profileId == null || profileId.trim().isEmpty() ? AUTO : profileId.trim();
+    }
+
+    @Override public String name()         { return "hidraw"; }
+    @Override public int priority()        { return PRIORITY; }
+    @Override public boolean discovering() { return false; }
+    @Override public Object device()       { return reader; }
+    @Override public DeviceInfoCache.Info info() { return null; }
+    @Override public HapticsEngine.Motor motor()  { return null; }
+
+    public ReconnectScheduler reconnect() { return reconnect; }
+
+    @Override
+    public int capabilities() {
+        return CAP_ANALOG_TRIGGERS | CAP_EVENT_QUEUE | CAP_HOTPLUG;
+    }
+
+    @Override
+    public boolean init() {
+        if (AUTO.equals(devicePath)) {
+            String os = System.getProperty("os.name", "").toLowerCase();
+            if (!os.contains("linux") || !new File("/sys/class/hidraw").isDirectory()) return false;
+        }
+        if (!AUTO.equals(profileId) && HidReportLayout.profile(profileId) == null) {
+            System.out.println("[XInputMod] hidraw: unknown profile \"" + profileId + "\"");
+            return false;
+        }
+        return true;   // the device itself is opened off-thread
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Reader r = reader;
+        reader = null;
+        if (r != null) r.stop();
+    }
+
+    @Override
+    public boolean poll(ControllerState out, ButtonEdgeTracker edges) {
+        Reader r = reader;
+        boolean live = r != null && snapshots.read(out);
+        if (!live) {
+            if (r == null && !closed) reconnect.reconnectAsync(probe);
+            if (wasLive && edges != null) edges.reset();
+            wasLive = false;
+            rawEdges.clear();
+            out.zero();
+            return false;
+        }
+        wasLive = true;
+        if (edges != null) {
+            while (rawEdges.poll(edge, out.timestamp)) edges.button(edge.button, edge.pressed, edge.nanos);
+            edges.reconcile(out, out.timestamp);
+        } else {
+            rawEdges.clear();
+        }
+        return true;
+    }
+
+    /** Axes of the newest published report; its button edges stay queued for poll. */
+    @Override
+    public boolean pollAxes(ControllerState out) {
+        if (reader == null || !snapshots.read(axisSample)) return false;
+        System.arraycopy(axisSample.axes, 0, out.axes, 0, ControllerState.AXIS_COUNT);
+        out.timestamp = axisSample.timestamp;
+        return true;
+    }
+
+    // =========================================================================
+    // Connection (reconnect thread)
+    // =========================================================================
+
+    private ReconnectScheduler.Outcome probe() {
+        if (closed) return ReconnectScheduler.Outcome.UNAVAILABLE;
+        File dev;
+        HidReportLayout.Profile profile;
+        if (AUTO.equals(devicePath)) {
+            dev = null; profile = null;
+            File[] nodes = new File("/sys/class/hidraw").listFiles();
+            if (nodes != null) {
+                Arrays.sort(nodes);
+                for (File n : nodes) {
+                    HidReportLayout.Profile p = sysfsProfile(n.getName());
+                    File d = new File("/dev", n.getName());
+                    if (p != null && d.canRead()) { dev = d; profile = p; break; }
+                }
+            }
+            if (dev == null) return ReconnectScheduler.Outcome.RETRY;
+        } else {
+            dev = new File(devicePath);
+            if (!dev.exists()) return ReconnectScheduler.Outcome.RETRY;
+            profile = sysfsProfile(dev.getName());
+            if (!AUTO.equals(profileId)) profile = HidReportLayout.profile(profileId);
+            if (profile == null) {
+                System.out.println("[XInputMod] hidraw: " + dev + " is not a known pad; set HidrawProfile.");
+                return ReconnectScheduler.Outcome.UNAVAILABLE;
+            }
+            if (!dev.canRead()) {
+                System.out.println("[XInputMod] hidraw: no read access to " + dev
+                    + " (hidraw nodes usually need a udev rule)");
+                return ReconnectScheduler.Outcome.UNAVAILABLE;
+            }
+        }
+        try {
+            Reader r = new Reader(dev, profile);
+            reader = r;
+            r.start();
+            return ReconnectScheduler.Outcome.CONNECTED;
+        } catch (IOException e) {
+            System.out.println("[XInputMod] hidraw: cannot open " + dev + ": " + e);
+            return ReconnectScheduler.Outcome.RETRY;
+        }
+    }
+
+    /** Known profile for /sys/class/hidraw/{node}, from HID_ID=bus:vendor:product in its uevent. */
+    private static HidReportLayout.Profile sysfsProfile(String node) {
+        File uevent = new File("/sys/class/hidraw/" + node + "/device/uevent");
+        if (!uevent.isFile()) return null;
+        java.io.BufferedReader in = null;
+        try {
+            in = new java.io.BufferedReader(new java.io.FileReader(uevent));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.startsWith("HID_ID=")) continue;
+                String[] f = line.substring(7).split(":");
+                if (f.length != 3) return null;
+                return HidReportLayout.profile(Integer.parseInt(f[1], 16), Integer.parseInt(f[2], 16));
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (NumberFormatException e) {
+            return null;
+        } finally {
+            if (in != null) try { in.close(); } catch (IOException ignored) {}
+        }
+        return null;
+    }
+
+    // =========================================================================
+    // Report decoding
+    // =========================================================================
+
+    /** Reads and decodes one device until it goes away or the backend closes. */
+    private final class Reader implements Runnable {
+        private final File file;
+        private final HidReportLayout.Profile profile;
+        private final FileInputStream stream;
+        private final FileChannel channel;
+        private final byte[] report = new byte[MAX_REPORT];
+        private final ByteBuffer buf = ByteBuffer.wrap(report);
+        private final boolean regularFile;
+        private volatile Thread thread;
+
+        private final ControllerState work = new ControllerState();
+        private int lastButtons = 0;
+        private HidReportLayout lastLayout = null;
+
+        Reader(File dev, HidReportLayout.Profile profile) throws IOException {
+            this.file = dev;
+            this.profile = profile;
+            regularFile = dev.isFile();
+            stream = new FileInputStream(dev);
+            channel = stream.getChannel();
+        }
+
+        void start() {
+            Thread t = new Thread(this, "XInputMod hidraw");
+            t.setDaemon(true);
+            thread = t;
+            t.start();
+        }
+
+        void stop() {
+            Thread t = thread;
+            if (t != null) t.interrupt();
+            try { channel.close(); } catch (IOException ignored) {}
+        }
+
+        @Override
+        public void run() {
+            System.out.println("[XInputMod] hidraw: reading " + file + " as " + profile.id);
+            work.zero();
+            publish();
+            try {
+                while (reader == this) {
+                    int n = regularFile ? readCaptured() : readReport();
+                    if (n < 0) break;
+                    if (n == 0) continue;
+                    HidReportLayout l = profile.layoutFor(report[0] & 0xFF, n);
+                    if (l == null) continue;   // output/feature echoes, other report ids
+                    if (l != lastLayout) {
+                        lastLayout = l;
+                        System.out.println("[XInputMod] hidraw: report format " + l.name);
+                    }
+                    l.decode(report, work);
+                    publish();
+                }
+            } catch (IOException e) {
+                if (reader == this) System.out.println("[XInputMod] hidraw: " + file + " read failed: " + e);
+            } finally {
+                try { channel.close(); } catch (IOException ignored) {}
+            }
+            if (reader != this) return;
+            if (regularFile) {
+                System.out.println("[XInputMod] hidraw: end of " + file.getName() + ", holding last state.");
+                return;
+            }
+            System.out.println("[XInputMod] hidraw: " + file + " disconnected.");
+            work.zero();
+            snapshots.backBuffer().copyFrom(work);
+            snapshots.publish(false);
+            reader = null;
+            reconnect.markLost();
+        }
+
+        /** One report from the device node; hidraw never splits or merges them. */
+        private int readReport() throws IOException {
+            buf.clear();
+            return channel.read(buf);
+        }
+
+        /** One fixed-size report from a capture file; -1 at the end. */
+        private int readCaptured() throws IOException {
+            buf.clear();
+            buf.limit(profile.captureBytes);
+            while (buf.hasRemaining())
+                if (channel.read(buf) < 0) return -1;
+            return buf.position();
+        }
+
+        private void publish() {
+            long now = System.nanoTime();
+            int changed = work.buttons ^ lastButtons;
+            for (int i = 0; changed != 0 && i < ControllerState.BUTTON_COUNT; i++)
+                if ((changed & (1 << i)) != 0) rawEdges.offer(i, (work.buttons & (1 << i)) != 0, now);
+            lastButtons = work.buttons;
+            work.timestamp = now;
+            snapshots.backBuffer().copyFrom(work);
+            snapshots.publish(true);
+        }
+    }
+
+    // =========================================================================
+    // Bindings
+    // =========================================================================
+
+    @Override
+    public int buttonIndex(int logicalButton) {
+        return logicalButton <= ControllerState.BUTTON_RTHUMB ? logicalButton : -1;
+    }
+
+    @Override
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        return index >= 0 && index <= ControllerState.BUTTON_RTHUMB && cs.getButton(index);
+    }
+
+    @Override
+    public boolean applyDefaults(XInputConfig config) {
+        config.applyJXInputDefaults();   // same fixed logical layout as XInput
+        return true;
+    }
+}
\ No newline at end of file
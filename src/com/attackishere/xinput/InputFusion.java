@@ -0,0 +1,196 @@
+package com.attackishere.xinput;
+
+import net.minecraft.client.settings.GameSettings;
+import net.minecraft.client.settings.KeyBinding;
+import org.lwjgl.input.Keyboard;
+import org.lwjgl.input.Mouse;
+
+import java.lang.reflect.Field;
+
+/**
+ * Merges the controller's movement and click inputs with the keyboard and
+ * mouse, writing a KeyBinding only when the merged result differs from what
+ * the binding already holds.
+ *
+ * The keyboard and mouse reach these bindings through vanilla's own key
+ * events; the controller through this class. Each input remembers whether
+ * the controller currently owns it:
+ *
+ *  - the controller pressing an input takes it over (writing it only if it
+ *    isn't already down, e.g. because W is held);
+ *  - the controller letting go hands it back: the binding is set to what
+ *    the physical key or mouse button says, so a key held on the keyboard
+ *    stays down instead of being released underneath the player;
+ *  - an input the controller doesn't own is never touched.
+ *
+ * A press is latched until the next {@link #beginTick}: in event-queue mode
+ * the tick can run several frames, and a tap whose press and release both
+ * land inside one tick would otherwise be released again before vanilla
+ * reads the binding. The release is written by the next tick's apply.
+ *
+ * A counted binding the controller holds also gets its press counter
+ * bumped on every tick it stays held (once, however many frames the tick
+ * runs), so isPressed() keeps answering true for as long as it is held.
+ * Apart from that a steady state, pressed or not, costs no writes at all.
+ */
+public class InputFusion {
+
+    public enum Input {
+        FORWARD(true), BACK(true), LEFT(true), RIGHT(true), JUMP(true), SNEAK(true),
+        // Held like a mouse button: Minecraft's own timers pace repeats, so no press count
+        ATTACK(false), USE_ITEM(false);
+
+        final boolean counted;
+        Input(boolean counted) { this.counted = counted; }
+    }
+
+    private static final Input[] INPUTS = Input.values();
+
+    private GameSettings bound = null;
+    private final KeyBinding[] bindings = new KeyBinding[INPUTS.length];
+    private final boolean[] pad   = new boolean[INPUTS.length];
+    private final boolean[] owned = new boolean[INPUTS.length];
+    private final boolean[] latched = new boolean[INPUTS.length];   // pressed this tick
+    private final boolean[] bumped  = new boolean[INPUTS.length];   // press counter bumped this tick
+    private long writes = 0;
+
+    // KeyBinding.pressTime, found once (MCP name, else the second int field)
+    private static Field pressTime = null;
+    private static boolean pressTimeSearched = false;
+
+    /** Takes the bindings from {@code gs}; cheap to call every tick. */
+    public void bind(GameSettings gs) {
+        if (gs == null || gs == bound) return;
+        bound = gs;
+        bindings[Input.FORWARD.ordinal()]  = gs.keyBindForward;
+        bindings[Input.BACK.ordinal()]     = gs.keyBindBack;
+        bindings[Input.LEFT.ordinal()]     = gs.keyBindLeft;
+        bindings[Input.RIGHT.ordinal()]    = gs.keyBindRight;
+        bindings[Input.JUMP.ordinal()]     = gs.keyBindJump;
+        bindings[Input.SNEAK.ordinal()]    = gs.keyBindSneak;
+        bindings[Input.ATTACK.ordinal()]   = gs.keyBindAttack;
+        bindings[Input.USE_ITEM.ordinal()] = gs.keyBindUseItem;
+    }
+
+    /**
+     * Start of a client tick: presses written during the last one may now be
+     * released, and held counted bindings are due another bump.
+     */
+    public void beginTick() {
+        for (int i = 0; i < latched.length; i++) latched[i] = bumped[i] = false;
+    }
+
+    /** What the controller wants for {@code in} this tick. Takes effect in {@link #apply}. */
+    public void set(Input in, boolean pressed) {
+        pad[in.ordinal()] = pressed;
+    }
+
+    /**
+     * The controller lets go of everything (GUI open, pad lost, controller
+     * disabled), latched presses included.
+     */
+    public void releaseController() {
+        for (int i = 0; i < pad.length; i++) pad[i] = latched[i] = false;
+    }
+
+    /**
+     * Writes the merged state. {@code inGame}: no screen is open, so a
+     * physically held key still counts when the controller hands it back.
+     */
+    public void apply(boolean inGame) {
+        for (int i = 0; i < INPUTS.length; i++) {
+            KeyBinding kb = bindings[i];
+            if (kb == null) continue;
+            boolean want;
+            if (pad[i]) {
+                owned[i] = true;
+                want = true;
+            } else if (latched[i]) {
+                continue;   // released within the tick it was pressed in
+            } else if (owned[i]) {
+                owned[i] = false;
+                want = inGame && physicallyDown(kb.keyCode);
+            } else {
+                continue;
+            }
+            if (kb.pressed != want) {
+                write(kb, want, INPUTS[i].counted);
+                if (want) latched[i] = bumped[i] = true;
+            } else if (want && INPUTS[i].counted && !bumped[i]) {
+                bumped[i] = true;
+                bumpPressTime(kb);
+            }
+        }
+    }
+
+    /** Whether the controller currently holds {@code in}. */
+    public boolean owns(Input in) {
+        return owned[in.ordinal()];
+    }
+
+    /** KeyBinding writes so far. */
+    public long writes() {
+        return writes;
+    }
+
+    private static boolean physicallyDown(int keyCode) {
+        try {
+            if (keyCode < 0) {
+                int button = keyCode + 100;   // vanilla stores mouse buttons as -100 + n
+                return button >= 0 && button < Mouse.getButtonCount() && Mouse.isButtonDown(button);
+            }
+            return keyCode < Keyboard.KEYBOARD_SIZE && Keyboard.isKeyDown(keyCode);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /**
+     * Sets the binding's state. Counted bindings also get their press
+     * counter bumped on the press (as a real key press does), so
+     * isPressed() sees it, and cleared on release.
+     */
+    private void write(KeyBinding kb, boolean pressed, boolean counted) {
+        writes++;
+        try {
+            KeyBinding.setKeyBindState(kb.keyCode, pressed);
+            if (!counted) return;
+            if (pressed) {
+                bumpPressTime(kb);
+                return;
+            }
+            Field f = pressTimeField();
+            if (f != null) f.setInt(kb, 0);
+        } catch (Throwable ignored) {}
+    }
+
+    private static void bumpPressTime(KeyBinding kb) {
+        try {
+            Field f = pressTimeField();
+            if (f != null) f.setInt(kb, f.getInt(kb) + 1);
+        } catch (Throwable ignored) {}
+    }
+
+    private static Field pressTimeField() {
+        if (pressTimeSearched) return pressTime;
+        pressTimeSearched = true;
+        try {
+            pressTime = KeyBinding.class.getDeclaredField("pressTime");
+            pressTime.setAccessible(true);
+        } catch (NoSuchFieldException ignored) {}
+
+        // Obfuscated: keyCode is the first int field and pressTime the second (vanilla 1.4.7)
+        if (pressTime == null) {
+            java.util.List<Field> ints = new java.util.ArrayList<Field>();
+            for (Field f : KeyBinding.class.getDeclaredFields())
+                if (f.getType() == int.class) { f.setAccessible(true); ints.add(f); }
+            if (ints.size() >= 2) pressTime = ints.get(1);
+        }
+
+        if (pressTime != null)
+            System.out.println("[XInputMod] KeyBinding pressTime field: " + pressTime.getName());
+        else
+            System.out.println("[XInputMod] WARNING: could not find KeyBinding.pressTime  movement may be broken");
+        return pressTime;
+    }
+}
\ No newline at end of file
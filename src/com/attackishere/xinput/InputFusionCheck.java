@@ -0,0 +1,84 @@
+package com.attackishere.xinput;
+
+import net.minecraft.client.settings.GameSettings;
+import net.minecraft.client.settings.KeyBinding;
+
+/**
+ * Check for InputFusion's press latch, run outside the game:
+ *
+ *   java -cp xinputmod.jar:minecraft.jar:lwjgl.jar com.attackishere.xinput.InputFusionCheck
+ *
+ * Drives InputFusion the way XInputTickHandler does in event-queue mode
+ * (beginTick, then one set/apply per replayed edge) against a default
+ * GameSettings, and after each tick reads the bindings the way vanilla
+ * does. A jump tap whose press and release both land inside one tick must
+ * still be down, and counted once, when vanilla reads it, and up after the
+ * next tick. A jump held across ticks must be counted once on each of
+ * them. Failures are listed and the exit status is 1.
+ */
+public class InputFusionCheck {
+
+    private static int failures = 0;
+
+    public static void main(String[] args) {
+        GameSettings gs = new GameSettings();
+        InputFusion fusion = new InputFusion();
+        fusion.bind(gs);
+        KeyBinding jump = gs.keyBindJump;
+        KeyBinding attack = gs.keyBindAttack;
+
+        // Tap inside one tick: press frame, release frame
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.JUMP, true);
+        frame(fusion, InputFusion.Input.JUMP, false);
+        expect("sub-tick tap: jump down when vanilla reads it", jump.pressed);
+        expect("sub-tick tap: jump counted once", jump.isPressed() && !jump.isPressed());
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.JUMP, false);
+        expect("sub-tick tap: jump released on the next tick", !jump.pressed);
+
+        // The same for a held-style binding (no press count)
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.ATTACK, true);
+        frame(fusion, InputFusion.Input.ATTACK, false);
+        expect("sub-tick tap: attack down when vanilla reads it", attack.pressed);
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.ATTACK, false);
+        expect("sub-tick tap: attack released on the next tick", !attack.pressed);
+
+        // A hold across ticks counts once per tick (several frames or not)
+        // and releases on the tick it ends, not one later
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.JUMP, true);
+        expect("hold: jump counted on the press tick", jump.isPressed() && !jump.isPressed());
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.JUMP, true);
+        frame(fusion, InputFusion.Input.JUMP, true);
+        expect("hold: jump still down", jump.pressed);
+        expect("hold: jump counted once on the next tick", jump.isPressed() && !jump.isPressed());
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.JUMP, false);
+        expect("hold: jump released on the tick it ends", !jump.pressed);
+
+        // Opening a screen drops the latch at once
+        fusion.beginTick();
+        frame(fusion, InputFusion.Input.JUMP, true);
+        fusion.releaseController();
+        fusion.apply(false);
+        expect("screen opened: latched jump released", !jump.pressed);
+
+        System.out.println(failures == 0 ? "OK (" + fusion.writes() + " writes)" : failures + " failure(s)");
+        if (failures > 0) System.exit(1);
+    }
+
+    private static void frame(InputFusion fusion, InputFusion.Input in, boolean pressed) {
+        fusion.set(in, pressed);
+        fusion.apply(true);
+    }
+
+    private static void expect(String what, boolean ok) {
+        if (ok) return;
+        failures++;
+        System.out.println("FAIL " + what);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Records every polled ControllerState to a compact binary capture file,
+ * for replay through ReplayBackend.
+ *
+ * The file is written through memory-mapped windows of the FileChannel, so
+ * recording a sample is a handful of stores into mapped memory: no syscall,
+ * no allocation (apart from mapping the next window every CHUNK_RECORDS
+ * samples). The record count in the header is updated after every sample,
+ * so the file is readable even if the game is killed mid-session; the tail
+ * past that count is zero padding from the last window.
+ *
+ * Layout (little-endian):
+ *   header  int magic "XIRC", int version, int recordBytes, long count, padding to 32
+ *   record  long nanos since first sample, int button mask
+ *           (bit n = ControllerState.BUTTON_* n), float lx, ly, rx, ry, lt, rt
+ *
+ * Single writer: the thread that polls (client tick or background poller).
+ */
+public class InputRecorder {
+
+    static final int MAGIC        = 0x58495243;   // "XIRC"
+    static final int VERSION      = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 8 + 4 + 6 * 4;
+    static final int OFF_RECORD_BYTES = 8;
+    static final int OFF_COUNT    = 12;
+
+    private static final int CHUNK_RECORDS = 16384;   // ~576 KB per window
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer chunk = null;
+
+    private long count = 0;
+    private long firstNanos = 0;
+    private boolean failed = false;
+
+    private InputRecorder(File file) throws IOException {
+        this.file = file;
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null) dir.mkdirs();
+        raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        channel = raf.getChannel();
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(OFF_RECORD_BYTES, RECORD_BYTES);
+        header.putLong(OFF_COUNT, 0);
+    }
+
+    /** Creates (or truncates) {@code file} and starts a new capture. */
+    public static InputRecorder open(File file) throws IOException {
+        InputRecorder r = new InputRecorder(file);
+        System.out.println("[XInputMod] Recording controller input to " + file.getAbsolutePath());
+        return r;
+    }
+
+    /** Appends one sample. Never throws; an I/O failure just stops recording. */
+    public void record(ControllerState s) {
+        if (failed) return;
+        try {
+            if (chunk == null || !chunk.hasRemaining()) mapNextChunk();
+
+            long t = s.timestamp != 0 ? s.timestamp : System.nanoTime();
+            if (count == 0) firstNanos = t;
+            chunk.putLong(t - firstNanos);
+            chunk.putInt(s.buttons);
+            for (int a = 0; a < ControllerState.AXIS_COUNT; a++) chunk.putFloat(s.axes[a]);
+            header.putLong(OFF_COUNT, ++count);
+        } catch (Throwable t) {
+            failed = true;
+            System.out.println("[XInputMod] Recording stopped: " + t);
+        }
+    }
+
+    private void mapNextChunk() throws IOException {
+        long pos = HEADER_BYTES + count * RECORD_BYTES;
+        chunk = channel.map(FileChannel.MapMode.READ_WRITE, pos, (long) CHUNK_RECORDS * RECORD_BYTES);
+        chunk.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public long count() { return count; }
+
+    /** Flushes the mapped pages and closes the file. */
+    public void close() {
+        try {
+            header.force();
+            if (chunk != null) chunk.force();
+            channel.close();
+            raf.close();
+            System.out.println("[XInputMod] Recorded " + count + " samples to " + file.getName());
+        } catch (IOException e) {
+            System.out.println("[XInputMod] Closing recording failed: " + e);
+        }
+        failed = true;
+    }
+}
\ No newline at end of file
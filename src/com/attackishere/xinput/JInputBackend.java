@@ -0,0 +1,130 @@
+package com.attackishere.xinput;
+
+import java.util.concurrent.Future;
+
+/**
+ * JInput backend: every pad ControllerManager tracks, polled as the active
+ * selection (single pad or merged). Cross-platform, so it outranks JXInput.
+ */
+public class JInputBackend implements ControllerBackend {
+
+    public static final int PRIORITY = 100;
+
+    private final ControllerManager manager;
+    // Stand-in for index lookups while no pad is attached
+    private final JInputController noPad = new JInputController();
+
+    private boolean brokenLogged = false;
+    private volatile boolean discoveryDone = false;
+
+    public JInputBackend(ControllerManager manager) {
+        this.manager = manager;
+    }
+
+    public ControllerManager manager() { return manager; }
+
+    @Override public String name()     { return "JInput"; }
+    @Override public int priority()    { return PRIORITY; }
+
+    @Override
+    public boolean init() {
+        manager.start();
+        return true;
+    }
+
+    @Override
+    public boolean poll(ControllerState out, ButtonEdgeTracker edges) {
+        if (manager.isEnvironmentBroken()) {
+            if (!brokenLogged) {
+                brokenLogged = true;
+                System.out.println("[XInputMod] JInput environment broken, falling back to JXInput.");
+            }
+            out.zero();
+            return false;
+        }
+        return manager.poll(out, edges);
+    }
+
+    @Override
+    public boolean pollAxes(ControllerState out) {
+        return !manager.isEnvironmentBroken() && manager.pollAxes(out);
+    }
+
+    /**
+     * Until the preInit discovery future completes, JInput may still find a
+     * pad, so lower backends wait.
+     */
+    @Override
+    public boolean discovering() {
+        return !manager.isEnvironmentBroken() && !discoverySettled();
+    }
+
+    /** True once the discovery future is done (logging its failure, if any, once). */
+    private boolean discoverySettled() {
+        if (discoveryDone) return true;
+        Future<JInputController> f = manager.discovery();
+        if (f == null || !f.isDone()) return false;
+        try {
+            f.get();
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] Controller discovery failed: " + t);
+        }
+        discoveryDone = true;
+        return true;
+    }
+
+    @Override public void close() { manager.stop(); }
+
+    @Override
+    public int capabilities() {
+        return CAP_ANALOG_TRIGGERS | CAP_EVENT_QUEUE | CAP_HOTPLUG;
+    }
+
+    @Override public Object device() { return manager.primary(); }
+
+    /** JInput has no battery or capability queries. */
+    @Override public DeviceInfoCache.Info info() { return null; }
+
+    @Override public HapticsEngine.Motor motor() { return pad().motor(); }
+
+    private JInputController pad() {
+        JInputController pad = manager.primary();
+        return pad != null ? pad : noPad;
+    }
+
+    @Override
+    public int buttonIndex(int logicalButton) {
+        JInputController p = pad();
+        switch (logicalButton) {
+            case ControllerState.BUTTON_A:      return p.btnA();
+            case ControllerState.BUTTON_B:      return p.btnB();
+            case ControllerState.BUTTON_X:      return p.btnX();
+            case ControllerState.BUTTON_Y:      return p.btnY();
+            case ControllerState.BUTTON_LB:     return p.btnLB();
+            case ControllerState.BUTTON_RB:     return p.btnRB();
+            case ControllerState.BUTTON_BACK:   return p.btnBack();
+            case ControllerState.BUTTON_START:  return p.btnStart();
+            case ControllerState.BUTTON_LTHUMB: return p.btnLStick();
+            case ControllerState.BUTTON_RTHUMB: return p.btnRStick();
+            default:                            return -1;
+        }
+    }
+
+    @Override
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        return pad().rawButtonPressed(index, cs);
+    }
+
+    /**
+     * Client tick: the pads were resolved on the scan thread, but the config
+     * is only written (and saved) here, so nothing else races its readers.
+     */
+    @Override
+    public boolean applyDefaults(XInputConfig config) {
+        if (!discoverySettled()) return false;   // the scan thread may still pick another pad
+        JInputController pad = manager.primary();
+        if (pad == null) return false;
+        config.applyDetectedDefaults(pad);
+        return true;
+    }
+}
\ No newline at end of file
@@ -1,642 +1,897 @@
-package com.attackishere.xinput;
-
-import net.java.games.input.Component;
-import net.java.games.input.Component.Identifier;
-import net.java.games.input.Component.Identifier.Axis;
-import net.java.games.input.Component.Identifier.Button;
-import net.java.games.input.Component.POV;
-import net.java.games.input.Controller;
-import net.java.games.input.ControllerEnvironment;
-
-/**
- * Cross-platform controller backend using JInput (bundled with Minecraft's LWJGL).
- * (Updated: robust D-pad detection: POV, named hat/pov components, or button fallbacks.)
- */
-public class JInputController {
-
-    public enum InitResult { OK, NO_CONTROLLER, ENVIRONMENT_BROKEN }
-
-    private enum Layout { STANDARD, ZRZ_RSTICK, SHARED_Z, UNKNOWN }
-    private Layout layout = Layout.UNKNOWN;
-
-    private Controller controller = null;
-
-    // Resolved axis components
-    private Component compLX, compLY, compRX, compRY;
-    private Component compLT, compRT;  // null if triggers are digital buttons
-    private Component compPOV;
-
-    // Resolved button components sized to whatever the controller reports
-    private Component[] buttons = new Component[0];
-
-    // Button index mapping
-    private int btnA, btnB, btnX, btnY;
-    private int btnLB, btnRB;
-    private int btnBack, btnStart;
-    private int btnLStick, btnRStick;
-    private int btnLT = -1, btnRT = -1;
-
-    // Optional button fallbacks for dpad (when no POV)
-    private int btnDpadUp = -1, btnDpadDown = -1, btnDpadLeft = -1, btnDpadRight = -1;
-
-    private boolean initialised = false;
-
-    // Set DEBUG_BUTTONS = true to log every button press once (helps identify unknown controllers).
-    // Set back to false after mapping is confirmed.
-    private static final boolean DEBUG_BUTTONS = true;
-    private final boolean[] debugLoggedButton = new boolean[64]; // log each index once
-
-    // =========================================================================
-    // Public accessors   return the detected JInput button index for each
-    // logical button. Used by XInputTickHandler when forwarding button presses
-    // to the controller settings GUI so bindings store the correct index.
-    // =========================================================================
-
-    public int btnA()      { return btnA; }
-    public int btnB()      { return btnB; }
-    public int btnX()      { return btnX; }
-    public int btnY()      { return btnY; }
-    public int btnLB()     { return btnLB; }
-    public int btnRB()     { return btnRB; }
-    public int btnBack()   { return btnBack; }
-    public int btnStart()  { return btnStart; }
-    public int btnLStick() { return btnLStick; }
-    public int btnRStick() { return btnRStick; }
-
-    /**
-     * Returns true if the button at the given JInput index is currently pressed.
-     * Used by isActionPressed() to evaluate user-configured bindings by index,
-     * so the correct physical button is used regardless of layout/platform.
-     *
-     * Falls back to named cs.* fields for known indices so triggers/dpad
-     * handled elsewhere still work even if cs.* was set from a different path.
-     */
-    public boolean rawButtonPressed(int index, ControllerState cs) {
-        if (index < 0) return false;
-        // Map known logical indices back to cs.* fields so the result is
-        // always consistent with what poll() already computed.
-        if (index == btnA)      return cs.a;
-        if (index == btnB)      return cs.b;
-        if (index == btnX)      return cs.x;
-        if (index == btnY)      return cs.y;
-        if (index == btnLB)     return cs.lb;
-        if (index == btnRB)     return cs.rb;
-        if (index == btnBack)   return cs.back;
-        if (index == btnStart)  return cs.start;
-        if (index == btnLStick) return cs.lThumb;
-        if (index == btnRStick) return cs.rThumb;
-        // For any other index (e.g. extra buttons on unusual controllers)
-        // read directly from the buttons array populated during poll().
-        return btn(index);
-    }
-
-    // =========================================================================
-    // Init
-    // =========================================================================
-
-    public InitResult init() {
-        if (initialised) return controller != null ? InitResult.OK : InitResult.NO_CONTROLLER;
-        initialised = true;
-
-        Controller[] all = null;
-        try {
-            String os = System.getProperty("os.name", "").toLowerCase();
-            if (os.contains("win")) {
-                all = getControllersWindows();
-            } else {
-                all = ControllerEnvironment.getDefaultEnvironment().getControllers();
-            }
-        } catch (Throwable t) {
-            System.out.println("[XInputMod] JInput environment failed: " + t);
-            initialised = false;
-            return InitResult.ENVIRONMENT_BROKEN;
-        }
-
-        if (all == null || all.length == 0) {
-            System.out.println("[XInputMod] JInput returned no controllers.");
-            return InitResult.NO_CONTROLLER;
-        }
-
-        for (Controller c : all) {
-            try { if (c != null && c.getType() == Controller.Type.GAMEPAD) { controller = c; break; } }
-            catch (Throwable ignored) {}
-        }
-        if (controller == null) {
-            for (Controller c : all) {
-                try { if (c != null && c.getType() == Controller.Type.STICK) { controller = c; break; } }
-                catch (Throwable ignored) {}
-            }
-        }
-
-        if (controller == null) {
-            System.out.println("[XInputMod] JInput: no gamepad/stick found. Controllers seen:");
-            for (Controller c : all) {
-                try { System.out.println("[XInputMod]   " + c.getName() + " type=" + c.getType()); }
-                catch (Throwable ignored) {}
-            }
-            return InitResult.NO_CONTROLLER;
-        }
-
-        try {
-            System.out.println("[XInputMod] JInput controller: " + controller.getName()
-                + " (" + controller.getType() + ")");
-            resolveComponents();
-            return InitResult.OK;
-        } catch (Throwable t) {
-            System.out.println("[XInputMod] JInput init failed: " + t);
-            controller = null;
-            return InitResult.NO_CONTROLLER;
-        }
-    }
-
-    private Controller[] getControllersWindows() {
-        String[] plugins = {
-            "net.java.games.input.DirectInputEnvironmentPlugin",
-            "net.java.games.input.DirectAndRawInputEnvironmentPlugin",
-        };
-        for (String cls : plugins) {
-            try {
-                Class<?> c = Class.forName(cls);
-                Object plugin = c.newInstance();
-                Controller[] result = (Controller[]) c.getMethod("getControllers").invoke(plugin);
-                if (result != null) {
-                    System.out.println("[XInputMod] JInput plugin: " + cls + " (" + result.length + " controllers)");
-                    return result;
-                }
-            } catch (Throwable t) {
-                System.out.println("[XInputMod] Plugin " + cls + " failed: " + t);
-            }
-        }
-        System.out.println("[XInputMod] Falling back to DefaultControllerEnvironment.");
-        return ControllerEnvironment.getDefaultEnvironment().getControllers();
-    }
-
-    // =========================================================================
-    // Component resolution
-    // =========================================================================
-
-    private void resolveComponents() {
-        Component[] comps = controller.getComponents();
-
-        System.out.println("[XInputMod] JInput components:");
-        for (Component c : comps) {
-            try {
-                System.out.println("[XInputMod]   id=" + c.getIdentifier()
-                    + " name=\"" + c.getName() + "\" analog=" + c.isAnalog());
-            } catch (Throwable ignored) {}
-        }
-
-        // Collect named axes
-        Component axX  = find(comps, Axis.X);
-        Component axY  = find(comps, Axis.Y);
-        Component axZ  = find(comps, Axis.Z);
-        Component axRX = find(comps, Axis.RX);
-        Component axRY = find(comps, Axis.RY);
-        Component axRZ = find(comps, Axis.RZ);
-
-        // Detect layout
-        boolean hasRXRY    = axRX != null && axRY != null;
-        boolean hasZandRZ  = axZ  != null && axRZ != null;
-        boolean hasZonly   = axZ  != null && axRZ == null;
-
-        if (hasRXRY) {
-            compLX = axX;  compLY = axY;
-            compRX = axRX; compRY = axRY;
-            if (hasZandRZ) {
-                compLT = axZ; compRT = axRZ;
-                layout = Layout.STANDARD;
-                System.out.println("[XInputMod] Layout: STANDARD (RX/RY sticks, Z/RZ triggers)");
-            } else if (hasZonly) {
-                compLT = axZ; compRT = axZ;
-                layout = Layout.SHARED_Z;
-                System.out.println("[XInputMod] Layout: SHARED_Z (RX/RY sticks, shared Z trigger)");
-            } else {
-                compLT = null; compRT = null;
-                layout = Layout.STANDARD;
-                System.out.println("[XInputMod] Layout: STANDARD (RX/RY sticks, no analog triggers)");
-            }
-        } else if (hasZandRZ) {
-            compLX = axX;  compLY = axY;
-            compRX = axZ;  compRY = axRZ;
-            compLT = null; compRT = null;
-            layout = Layout.ZRZ_RSTICK;
-            System.out.println("[XInputMod] Layout: ZRZ_RSTICK (Z/RZ = right stick, digital triggers)");
-        } else {
-            compLX = axX;  compLY = axY;
-            compRX = axRX != null ? axRX : axZ;
-            compRY = axRY != null ? axRY : axRZ;
-            compLT = null; compRT = null;
-            layout = Layout.UNKNOWN;
-            System.out.println("[XInputMod] Layout: UNKNOWN (best-effort axis mapping)");
-        }
-
-        // Collect buttons
-        java.util.List<Component> btnList = new java.util.ArrayList<Component>();
-        for (Component c : comps)
-            if (c.getIdentifier() instanceof Button) btnList.add(c);
-        buttons = btnList.toArray(new Component[0]);
-        System.out.println("[XInputMod] Button count: " + buttons.length);
-
-        // Default index map   chosen by button count AND layout.
-        //
-        // Known layouts:
-        //
-        // Xbox 360 / generic 10-btn (Windows XInput via DirectInput fallback):
-        //   0=A 1=B 2=X 3=Y 4=LB 5=RB 6=Back 7=Start 8=LStick 9=RStick
-        //   Triggers: analog axes (STANDARD layout)
-        //
-        // Xbox One / One S / Series (Windows DirectInput, SHARED_Z, 16 btn):
-        //   0=A 1=B 2=X 3=Y 4=LB 5=RB 6=Back/View 7=Start/Menu 8=LStick 9=RStick
-        //   10=Xbox/Guide  11-15=extras (Share, Screenshot, etc.)
-        //   Triggers: shared Z axis (SHARED_Z layout)
-        //
-        // Xbox Wireless (Mac/Linux JInput, ZRZ_RSTICK, 15 btn):
-        //   0=A 1=B 2=X 3=Y 4=LB 5=RB 6=LT 7=RT 8=Back 9=Start 10=Xbox
-        //   11=LStick 12=RStick  13-14=extras
-        //   Triggers: digital buttons 6/7 (ZRZ_RSTICK layout)
-
-        if (layout == Layout.SHARED_Z && buttons.length >= 10) {
-            // Xbox One on Windows DirectInput   Back and Start are at 6/7,
-            // LStick/RStick are at 8/9.  No dedicated trigger buttons.
-            btnA=0; btnB=1; btnX=2; btnY=3;
-            btnLB=4; btnRB=5;
-            btnLT=-1; btnRT=-1;   // triggers come from shared Z axis
-            btnBack=6; btnStart=7;
-            btnLStick=8; btnRStick=9;
-            System.out.println("[XInputMod] Default button map: Xbox One DirectInput / SHARED_Z");
-        } else if (buttons.length >= 13) {
-            // Xbox Wireless on Mac/Linux (ZRZ_RSTICK, 15 btn)
-            // or any other 13+ btn controller that isn't SHARED_Z
-            btnA=0; btnB=1; btnX=2; btnY=3;
-            btnLB=4; btnRB=5;
-            btnLT=6; btnRT=7;
-            btnBack=8; btnStart=9;
-            btnLStick=11; btnRStick=12;
-            System.out.println("[XInputMod] Default button map: Xbox Wireless 13+ btn");
-        } else {
-            // Xbox 360 / generic 10-button
-            btnA=0; btnB=1; btnX=2; btnY=3;
-            btnLB=4; btnRB=5;
-            btnLT=-1; btnRT=-1;
-            btnBack=6; btnStart=7;
-            btnLStick=8; btnRStick=9;
-            System.out.println("[XInputMod] Default button map: Xbox 360 standard 10 btn");
-        }
-
-        //  Name-based button detection 
-        // Covers every known naming convention across Xbox, PlayStation, Nintendo,
-        // and generic HID drivers. Many controllers (including Xbox Wireless on Mac
-        // via JInput) report no names at all   that case is handled by the
-        // count-based fallback above; this pass upgrades it when names ARE present.
-
-        int foundStart  = -1; // Start / Menu / Options / Plus / Mode / Guide
-        int foundBack   = -1; // Back  / Select / View / Share / Capture / Minus / Create
-        int foundLStick = -1; // L3 / LS / Left Thumb / Left Stick
-        int foundRStick = -1; // R3 / RS / Right Thumb / Right Stick
-        int foundLB     = -1; // LB / L1 / Left Bumper / Left Shoulder
-        int foundRB     = -1; // RB / R1 / Right Bumper / Right Shoulder
-
-        for (int i = 0; i < buttons.length; i++) {
-            Component b = buttons[i];
-            if (b == null) continue;
-            String raw  = b.getName();
-            if (raw == null) raw = b.getIdentifier() != null ? b.getIdentifier().toString() : "";
-            String n = raw.toLowerCase().trim();
-            if (n.isEmpty()) continue;
-
-            //  Start / Menu equivalents 
-            // Xbox: "start" | Xbox One/S/X/Series: "menu" | PS: "options" | PS3: "start"
-            // Switch: "plus" | Generic: "mode" "guide" "home" "pause" "system"
-            if (foundStart == -1) {
-                if (n.equals("start") || n.equals("menu") || n.equals("options")
-                    || n.equals("plus") || n.equals("guide") || n.equals("home")
-                    || n.equals("mode") || n.equals("system") || n.equals("pause")
-                    || n.contains("start") || n.contains("menu") || n.contains("options")
-                    || n.contains("guide") || n.contains("plus btn") || n.contains("plus button")) {
-                    foundStart = i;
-                }
-            }
-
-            //  Back / Select / Share equivalents 
-            // Xbox 360: "back" | Xbox One/S/X: "view" | PS1-3: "select" | PS4/5: "share" "create"
-            // Switch: "minus" | Generic: "select" "capture" "screenshot"
-            if (foundBack == -1) {
-                if (n.equals("back") || n.equals("select") || n.equals("view")
-                    || n.equals("share") || n.equals("create") || n.equals("minus")
-                    || n.equals("capture") || n.equals("screenshot")
-                    || n.contains("back") || n.contains("select") || n.contains("view")
-                    || n.contains("share") || n.contains("create") || n.contains("minus btn")
-                    || n.contains("capture") || n.contains("screenshot")) {
-                    foundBack = i;
-                }
-            }
-
-            //  Left stick click 
-            // Xbox: "left thumb" | PS: "l3" | Generic: "lstick" "left stick" "l thumb"
-            if (foundLStick == -1) {
-                if (n.equals("l3") || n.equals("ls")
-                    || n.contains("lstick") || n.contains("left stick") || n.contains("left thumb")
-                    || n.contains("l thumb") || n.contains("l3") || n.contains("lthumb")
-                    || (n.contains("stick") && n.contains("left"))
-                    || (n.contains("thumb") && n.contains("left"))) {
-                    foundLStick = i;
-                }
-            }
-
-            //  Right stick click 
-            // Xbox: "right thumb" | PS: "r3" | Generic: "rstick" "right stick" "r thumb"
-            if (foundRStick == -1) {
-                if (n.equals("r3") || n.equals("rs")
-                    || n.contains("rstick") || n.contains("right stick") || n.contains("right thumb")
-                    || n.contains("r thumb") || n.contains("r3") || n.contains("rthumb")
-                    || (n.contains("stick") && n.contains("right"))
-                    || (n.contains("thumb") && n.contains("right"))) {
-                    foundRStick = i;
-                }
-            }
-
-            //  Left bumper / shoulder 
-            // Xbox: "left shoulder" | PS: "l1" | Generic: "lb" "l1" "leftshoulder"
-            if (foundLB == -1) {
-                if (n.equals("l1") || n.equals("lb")
-                    || n.contains("l1") || n.contains("lb")
-                    || n.contains("left shoulder") || n.contains("leftshoulder")
-                    || n.contains("left bumper") || n.contains("leftbumper")) {
-                    foundLB = i;
-                }
-            }
-
-            //  Right bumper / shoulder 
-            // Xbox: "right shoulder" | PS: "r1" | Generic: "rb" "r1" "rightshoulder"
-            if (foundRB == -1) {
-                if (n.equals("r1") || n.equals("rb")
-                    || n.contains("r1") || n.contains("rb")
-                    || n.contains("right shoulder") || n.contains("rightshoulder")
-                    || n.contains("right bumper") || n.contains("rightbumper")) {
-                    foundRB = i;
-                }
-            }
-        }
-
-        // Apply detected indices   only override if not conflicting with face buttons
-        boolean[] faceIndices = new boolean[Math.max(buttons.length, 4)];
-        faceIndices[btnA] = true; faceIndices[btnB] = true;
-        faceIndices[btnX] = true; faceIndices[btnY] = true;
-
-        if (foundStart >= 0 && !faceIndices[foundStart]) {
-            btnStart = foundStart;
-            
-        }
-        if (foundBack >= 0 && !faceIndices[foundBack]) {
-            btnBack = foundBack;
-          
-        }
-        if (foundLStick >= 0) {
-            btnLStick = foundLStick;
-          
-        }
-        if (foundRStick >= 0) {
-            btnRStick = foundRStick;
-           
-        }
-        if (foundLB >= 0 && !faceIndices[foundLB]) {
-            btnLB = foundLB;
-           
-        }
-        if (foundRB >= 0 && !faceIndices[foundRB]) {
-            btnRB = foundRB;
-            
-        }
-
-        //  Identifier-based detection (fallback for drivers using id strings) 
-        // Some HID drivers set the Identifier string rather than the display name.
-        // We run this only for indices we haven't resolved yet.
-        if (foundStart == -1 || foundBack == -1 || foundLStick == -1 || foundRStick == -1) {
-            for (int i = 0; i < buttons.length; i++) {
-                Component b = buttons[i];
-                if (b == null || b.getIdentifier() == null) continue;
-                String id = b.getIdentifier().toString().toLowerCase();
-                if (foundStart == -1 && !faceIndices[i]
-                        && (id.contains("start") || id.contains("menu") || id.contains("options")
-                            || id.contains("guide") || id.contains("plus"))) {
-                    btnStart = i; foundStart = i;
-                    ;
-                }
-                if (foundBack == -1 && !faceIndices[i]
-                        && (id.contains("back") || id.contains("select") || id.contains("view")
-                            || id.contains("share") || id.contains("create") || id.contains("minus"))) {
-                    btnBack = i; foundBack = i;
-                   
-                }
-                if (foundLStick == -1
-                        && (id.contains("lstick") || id.contains("left stick") || id.contains("left thumb")
-                            || id.contains("l3") || (id.contains("thumb") && id.contains("left")))) {
-                    btnLStick = i; foundLStick = i;
-                   
-                }
-                if (foundRStick == -1
-                        && (id.contains("rstick") || id.contains("right stick") || id.contains("right thumb")
-                            || id.contains("r3") || (id.contains("thumb") && id.contains("right")))) {
-                    btnRStick = i; foundRStick = i;
-                   
-                }
-            }
-        }
-
-        // ------------------------
-        // D-Pad / POV detection
-        // ------------------------
-
-        // try official POV axis first
-        compPOV = find(comps, Axis.POV);
-
-        // if not found, look for any component whose identifier or name mentions hat/pov/dpad
-        if (compPOV == null) {
-            for (Component c : comps) {
-                try {
-                    String idStr = c.getIdentifier() == null ? "" : c.getIdentifier().toString().toLowerCase();
-                    String name = c.getName() == null ? "" : c.getName().toLowerCase();
-                    if (idStr.contains("pov") || idStr.contains("hat") || name.contains("pov") || name.contains("hat") || name.contains("dpad") || name.contains("hatswitch")) {
-                        compPOV = c;
-                        System.out.println("[XInputMod] Detected POV/hat component by name/identifier: id=" + c.getIdentifier() + " name=\"" + c.getName() + "\"");
-                        break;
-                    }
-                } catch (Throwable ignored) {}
-            }
-        }
-
-        // If we still have no POV component, try to detect dpad buttons by name
-        if (compPOV == null) {
-            for (int i = 0; i < buttons.length; i++) {
-                Component b = buttons[i];
-                if (b == null) continue;
-                String name = b.getName() == null ? "" : b.getName().toLowerCase();
-                if (btnDpadUp == -1 && (name.contains("dpad up") || name.contains("dpad_up") || name.contains("up") && name.contains("dpad") || name.contains("hat up") || name.contains("d-pad up") || name.equals("up")))
-                    btnDpadUp = i;
-                if (btnDpadDown == -1 && (name.contains("dpad down") || name.contains("dpad_down") || name.contains("down") && name.contains("dpad") || name.contains("hat down") || name.contains("d-pad down") || name.equals("down")))
-                    btnDpadDown = i;
-                if (btnDpadLeft == -1 && (name.contains("dpad left") || name.contains("dpad_left") || name.contains("left") && name.contains("dpad") || name.contains("hat left") || name.contains("d-pad left") || name.equals("left")))
-                    btnDpadLeft = i;
-                if (btnDpadRight == -1 && (name.contains("dpad right") || name.contains("dpad_right") || name.contains("right") && name.contains("dpad") || name.contains("hat right") || name.contains("d-pad right") || name.equals("right")))
-                    btnDpadRight = i;
-            }
-
-            if (btnDpadUp >= 0 || btnDpadDown >= 0 || btnDpadLeft >= 0 || btnDpadRight >= 0) {
-                System.out.println("[XInputMod] Detected D-pad as buttons: up=" + btnDpadUp + " down=" + btnDpadDown + " left=" + btnDpadLeft + " right=" + btnDpadRight);
-            } else {
-                System.out.println("[XInputMod] No POV/hatswitch found and no named dpad buttons detected will attempt POV-only and button-fallback reading at runtime.");
-            }
-        } else {
-            System.out.println("[XInputMod] Using POV component: id=" + compPOV.getIdentifier() + " name=\"" + compPOV.getName() + "\"");
-        }
-
-        // Final sanity check for Start conflicting with L/R stick
-        if (btnStart == btnLStick || btnStart == btnRStick) {
-            System.out.println("[XInputMod] Warning: start index conflicts with stick index; reverting to fallback index.");
-            if (buttons.length >= 13) btnStart = 9;
-            else btnStart = 7;
-            System.out.println("[XInputMod] Using fallback Start index " + btnStart + " (name=\"" + safeButtonName(btnStart) + "\")");
-        }
-
-        // Debug dump of final effective mapping
-        System.out.println("[XInputMod] Final button mapping:");
-        System.out.println("[XInputMod]  A=" + btnA + " B=" + btnB + " X=" + btnX + " Y=" + btnY);
-        System.out.println("[XInputMod]  LB=" + btnLB + " RB=" + btnRB + " LT=" + btnLT + " RT=" + btnRT);
-        System.out.println("[XInputMod]  Back=" + btnBack + " Start=" + btnStart);
-        System.out.println("[XInputMod]  LStick=" + btnLStick + " RStick=" + btnRStick);
-    }
-
-    private String safeButtonName(int idx) {
-        if (idx < 0 || idx >= buttons.length || buttons[idx] == null) return "<n/a>";
-        String n = buttons[idx].getName();
-        return n == null ? "<unnamed>" : n;
-    }
-
-    private Component find(Component[] comps, Identifier id) {
-        for (Component c : comps)
-            if (c.getIdentifier() == id) return c;
-        return null;
-    }
-
-    // =========================================================================
-    // Poll
-    // =========================================================================
-
-    public boolean poll(ControllerState cs) {
-        if (controller == null) return false;
-        try {
-            if (!controller.poll()) {
-                System.out.println("[XInputMod] JInput controller disconnected.");
-                controller = null; initialised = false; cs.zero();
-                return false;
-            }
-
-            // Sticks
-            cs.lx =  readAxis(compLX);
-            cs.ly = -readAxis(compLY);  // JInput Y is inverted
-            cs.rx =  readAxis(compRX);
-            cs.ry = -readAxis(compRY);
-
-            // Triggers
-            if (layout == Layout.SHARED_Z) {
-                float z = readAxis(compLT);
-                cs.lt = z > 0f ?  z : 0f;
-                cs.rt = z < 0f ? -z : 0f;
-            } else if (compLT != null) {
-                cs.lt = (readAxis(compLT) + 1f) * 0.5f;
-                cs.rt = (readAxis(compRT) + 1f) * 0.5f;
-            } else {
-                cs.lt = (btnLT >= 0 && btnLT < buttons.length
-                    && buttons[btnLT] != null && buttons[btnLT].getPollData() > 0.5f) ? 1f : 0f;
-                cs.rt = (btnRT >= 0 && btnRT < buttons.length
-                    && buttons[btnRT] != null && buttons[btnRT].getPollData() > 0.5f) ? 1f : 0f;
-            }
-
-            // Face / shoulder buttons
-            cs.a      = btn(btnA);
-            cs.b      = btn(btnB);
-            cs.x      = btn(btnX);
-            cs.y      = btn(btnY);
-            cs.lb     = btn(btnLB);
-            cs.rb     = btn(btnRB);
-            cs.back   = btn(btnBack);
-            cs.start  = btn(btnStart);
-            cs.lThumb = btn(btnLStick);
-            cs.rThumb = btn(btnRStick);
-
-            // Read D-pad / POV (robust)
-            readPOV(cs);
-
-            // Debug: log each button index the first time it is pressed
-            if (DEBUG_BUTTONS) {
-                for (int _i = 0; _i < buttons.length && _i < debugLoggedButton.length; _i++) {
-                    if (!debugLoggedButton[_i] && buttons[_i] != null && buttons[_i].getPollData() > 0.5f) {
-                        debugLoggedButton[_i] = true;
-                      
-                    }
-                }
-            }
-
-            return true;
-
-        } catch (Throwable t) {
-            System.out.println("[XInputMod] JInput poll error: " + t);
-            controller = null; initialised = false; cs.zero();
-            return false;
-        }
-    }
-
-    public boolean isAvailable() { return controller != null; }
-
-    // =========================================================================
-    // Helpers
-    // =========================================================================
-
-    private float readAxis(Component c) {
-        if (c == null) return 0f;
-        float v = c.getPollData();
-        return Float.isNaN(v) ? 0f : v;
-    }
-
-    private boolean btn(int idx) {
-        if (idx < 0 || idx >= buttons.length || buttons[idx] == null) return false;
-        return buttons[idx].getPollData() > 0.5f;
-    }
-
-    private void readPOV(ControllerState cs) {
-        cs.dpadUp = cs.dpadDown = cs.dpadLeft = cs.dpadRight = false;
-
-        if (compPOV != null) {
-            try {
-                float pov = compPOV.getPollData();
-                if (pov == POV.OFF) return;
-
-                final float EPS = 0.02f;
-                if (Math.abs(pov - 0.25f) < EPS || (pov > 0.125f && pov < 0.375f)) cs.dpadUp = true;
-                if (Math.abs(pov - 0.50f) < EPS || (pov > 0.375f && pov < 0.625f)) cs.dpadRight = true;
-                if (Math.abs(pov - 0.75f) < EPS || (pov > 0.625f && pov < 0.875f)) cs.dpadDown = true;
-                if (Math.abs(pov - 1.00f) < EPS || pov > 0.875f || pov < 0.125f)   cs.dpadLeft = true;
-                return;
-            } catch (Throwable ignored) {}
-        }
-
-        if (btnDpadUp    >= 0 && btnDpadUp    < buttons.length && buttons[btnDpadUp]    != null && buttons[btnDpadUp].getPollData()    > 0.5f) cs.dpadUp    = true;
-        if (btnDpadDown  >= 0 && btnDpadDown  < buttons.length && buttons[btnDpadDown]  != null && buttons[btnDpadDown].getPollData()  > 0.5f) cs.dpadDown  = true;
-        if (btnDpadLeft  >= 0 && btnDpadLeft  < buttons.length && buttons[btnDpadLeft]  != null && buttons[btnDpadLeft].getPollData()  > 0.5f) cs.dpadLeft  = true;
-        if (btnDpadRight >= 0 && btnDpadRight < buttons.length && buttons[btnDpadRight] != null && buttons[btnDpadRight].getPollData() > 0.5f) cs.dpadRight = true;
-
-        if (!(cs.dpadUp || cs.dpadDown || cs.dpadLeft || cs.dpadRight)) {
-            for (int i = 0; i < buttons.length; i++) {
-                Component b = buttons[i];
-                if (b == null) continue;
-                String name = b.getName() == null ? "" : b.getName().toLowerCase();
-                float pd = b.getPollData();
-                if (pd <= 0.5f) continue;
-                if (name.contains("up")    || name.contains("dpad up")    || name.contains("hat up"))    cs.dpadUp    = true;
-                if (name.contains("down")  || name.contains("dpad down")  || name.contains("hat down"))  cs.dpadDown  = true;
-                if (name.contains("left")  || name.contains("dpad left")  || name.contains("hat left"))  cs.dpadLeft  = true;
-                if (name.contains("right") || name.contains("dpad right") || name.contains("hat right")) cs.dpadRight = true;
-            }
-        }
-    }
+package com.attackishere.xinput;
+
+import net.java.games.input.Component;
+import net.java.games.input.Component.Identifier;
+import net.java.games.input.Component.Identifier.Axis;
+import net.java.games.input.Component.Identifier.Button;
+import net.java.games.input.Component.POV;
+import net.java.games.input.Controller;
+import net.java.games.input.ControllerEnvironment;
+import net.java.games.input.Event;
+import net.java.games.input.EventQueue;
+import net.java.games.input.Rumbler;
+
+/**
+ * Cross-platform controller backend using JInput (bundled with Minecraft's LWJGL).
+ * (Updated: robust D-pad detection: POV, named hat/pov components, or button fallbacks.)
+ */
+public class JInputController {
+
+    public enum InitResult { OK, NO_CONTROLLER, ENVIRONMENT_BROKEN }
+
+    private enum Layout { STANDARD, ZRZ_RSTICK, SHARED_Z, UNKNOWN }
+    private Layout layout = Layout.UNKNOWN;
+
+    private Controller controller = null;
+
+    // Resolved axis components
+    private Component compLX, compLY, compRX, compRY;
+    private Component compLT, compRT;  // null if triggers are digital buttons
+    private Component compPOV;
+
+    // Resolved button components sized to whatever the controller reports
+    private Component[] buttons = new Component[0];
+
+    // Button index mapping
+    private int btnA, btnB, btnX, btnY;
+    private int btnLB, btnRB;
+    private int btnBack, btnStart;
+    private int btnLStick, btnRStick;
+    private int btnLT = -1, btnRT = -1;
+
+    // Optional button fallbacks for dpad (when no POV)
+    private int btnDpadUp = -1, btnDpadDown = -1, btnDpadLeft = -1, btnDpadRight = -1;
+
+    private boolean initialised = false;
+
+    // Run with -Dxinputmod.debugButtons=true to log every button index the
+    // first time it is pressed (helps identify unknown controllers).
+    public static final String DEBUG_PROPERTY = "xinputmod.debugButtons";
+    private static final boolean DEBUG_BUTTONS = Boolean.getBoolean(DEBUG_PROPERTY);
+    private final boolean[] debugLoggedButton = new boolean[64]; // log each index once
+
+    // Buttons whose names say they're a d-pad direction, classified once per
+    // resolve: index into buttons[] and the ButtonEdgeTracker.DPAD_* bits.
+    // Only consulted when neither the hat nor the mapped d-pad buttons read.
+    private int[] namedDpadIndex = new int[0];
+    private int[] namedDpadBits  = new int[0];
+
+    // Digital triggers, when the pad has no trigger axes
+    private Component compLTButton, compRTButton;
+
+    // Event-queue mode: component -> logical button (ControllerState.BUTTON_*),
+    // built once after resolveComponents(). The hat is handled via compPOV.
+    private boolean eventMode = false;
+    private final Component[] roleComponents = new Component[ControllerState.BUTTON_COUNT];
+    private final Event event = new Event();
+    private static final int EVENT_QUEUE_SIZE = 128;
+
+    // Rumble over the controller's rumblers, looked up on first use (null = none)
+    private HapticsEngine.Motor motor = null;
+    private boolean motorResolved = false;
+
+    // =========================================================================
+    // Public accessors   return the detected JInput button index for each
+    // logical button. Used by XInputTickHandler when forwarding button presses
+    // to the controller settings GUI so bindings store the correct index.
+    // =========================================================================
+
+    public int btnA()      { return btnA; }
+    public int btnB()      { return btnB; }
+    public int btnX()      { return btnX; }
+    public int btnY()      { return btnY; }
+    public int btnLB()     { return btnLB; }
+    public int btnRB()     { return btnRB; }
+    public int btnBack()   { return btnBack; }
+    public int btnStart()  { return btnStart; }
+    public int btnLStick() { return btnLStick; }
+    public int btnRStick() { return btnRStick; }
+
+    /** Name of the pad and its resolved mapping on one line, for logs and ControllerProbe. */
+    public String describeMapping() {
+        Controller c = controller;
+        String dpad = compPOV != null ? "hat \"" + compPOV.getName() + "\""
+            : "buttons " + btnDpadUp + "/" + btnDpadDown + "/" + btnDpadLeft + "/" + btnDpadRight;
+        String triggers = compLT != null ? "axes \"" + compLT.getName() + "\"/\"" + compRT.getName() + "\""
+            : "buttons " + btnLT + "/" + btnRT;
+        return (c != null ? c.getName() : "(none)") + ": layout " + layout + ", " + buttons.length + " buttons"
+            + ", A=" + btnA + " B=" + btnB + " X=" + btnX + " Y=" + btnY
+            + " LB=" + btnLB + " RB=" + btnRB + " Back=" + btnBack + " Start=" + btnStart
+            + " LS=" + btnLStick + " RS=" + btnRStick + ", triggers " + triggers + ", d-pad " + dpad;
+    }
+
+    /**
+     * Returns true if the button at the given JInput index is currently pressed.
+     * Used by CompiledBindings to evaluate user-configured bindings by index,
+     * so the correct physical button is used regardless of layout/platform.
+     *
+     * Falls back to named cs.* fields for known indices so triggers/dpad
+     * handled elsewhere still work even if cs.* was set from a different path.
+     */
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        if (index < 0) return false;
+        // Map known logical indices back to cs.* fields so the result is
+        // always consistent with what poll() already computed.
+        if (index == btnA)      return cs.a();
+        if (index == btnB)      return cs.b();
+        if (index == btnX)      return cs.x();
+        if (index == btnY)      return cs.y();
+        if (index == btnLB)     return cs.lb();
+        if (index == btnRB)     return cs.rb();
+        if (index == btnBack)   return cs.back();
+        if (index == btnStart)  return cs.start();
+        if (index == btnLStick) return cs.lThumb();
+        if (index == btnRStick) return cs.rThumb();
+        // For any other index (e.g. extra buttons on unusual controllers)
+        // read directly from the buttons array populated during poll().
+        return btn(index);
+    }
+
+    // =========================================================================
+    // Init
+    // =========================================================================
+
+    public InitResult init() {
+        if (initialised) return controller != null ? InitResult.OK : InitResult.NO_CONTROLLER;
+        initialised = true;
+
+        Controller[] all = null;
+        try {
+            String os = System.getProperty("os.name", "").toLowerCase();
+            if (os.contains("win")) {
+                all = getControllersWindows();
+            } else {
+                all = ControllerEnvironment.getDefaultEnvironment().getControllers();
+            }
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JInput environment failed: " + t);
+            initialised = false;
+            return InitResult.ENVIRONMENT_BROKEN;
+        }
+
+        if (all == null || all.length == 0) {
+            System.out.println("[XInputMod] JInput returned no controllers.");
+            return InitResult.NO_CONTROLLER;
+        }
+
+        for (Controller c : all) {
+            try { if (c != null && c.getType() == Controller.Type.GAMEPAD) { controller = c; break; } }
+            catch (Throwable ignored) {}
+        }
+        if (controller == null) {
+            for (Controller c : all) {
+                try { if (c != null && c.getType() == Controller.Type.STICK) { controller = c; break; } }
+                catch (Throwable ignored) {}
+            }
+        }
+
+        if (controller == null) {
+            System.out.println("[XInputMod] JInput: no gamepad/stick found. Controllers seen:");
+            for (Controller c : all) {
+                try { System.out.println("[XInputMod]   " + c.getName() + " type=" + c.getType()); }
+                catch (Throwable ignored) {}
+            }
+            return InitResult.NO_CONTROLLER;
+        }
+
+        try {
+            System.out.println("[XInputMod] JInput controller: " + controller.getName()
+                + " (" + controller.getType() + ")");
+            resolveComponents();
+            return InitResult.OK;
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JInput init failed: " + t);
+            controller = null;
+            return InitResult.NO_CONTROLLER;
+        }
+    }
+
+    /**
+     * Wraps a controller that was already enumerated elsewhere (see
+     * ControllerManager) and resolves its mapping. Throws if resolution fails.
+     */
+    public static JInputController attach(Controller c) {
+        return attach(c, null);
+    }
+
+    /**
+     * As {@link #attach(Controller)}, reusing the mapping stored in
+     * {@code cache} for this model when there is one (null = always detect).
+     */
+    public static JInputController attach(Controller c, ControllerMappingCache cache) {
+        return attach(c, cache, null);
+    }
+
+    /**
+     * As {@link #attach(Controller, ControllerMappingCache)}, but an entry in
+     * {@code db} (gamecontrollerdb.txt) for this pad takes precedence over
+     * both the cache and the heuristics.
+     */
+    public static JInputController attach(Controller c, ControllerMappingCache cache, GameControllerDB db) {
+        JInputController j = new JInputController();
+        j.controller  = c;
+        j.initialised = true;
+        System.out.println("[XInputMod] JInput controller: " + c.getName()
+            + " (" + c.getType() + ")");
+        j.resolveComponents(cache, db);
+        return j;
+    }
+
+    private Controller[] getControllersWindows() {
+        String[] plugins = {
+            "net.java.games.input.DirectInputEnvironmentPlugin",
+            "net.java.games.input.DirectAndRawInputEnvironmentPlugin",
+        };
+        for (String cls : plugins) {
+            try {
+                Class<?> c = Class.forName(cls);
+                Object plugin = c.newInstance();
+                Controller[] result = (Controller[]) c.getMethod("getControllers").invoke(plugin);
+                if (result != null) {
+                    System.out.println("[XInputMod] JInput plugin: " + cls + " (" + result.length + " controllers)");
+                    return result;
+                }
+            } catch (Throwable t) {
+                System.out.println("[XInputMod] Plugin " + cls + " failed: " + t);
+            }
+        }
+        System.out.println("[XInputMod] Falling back to DefaultControllerEnvironment.");
+        return ControllerEnvironment.getDefaultEnvironment().getControllers();
+    }
+
+    // =========================================================================
+    // Component resolution
+    // =========================================================================
+
+    private void resolveComponents() {
+        resolveComponents(null, null);
+    }
+
+    /**
+     * Resolves the mapping from {@code db} if it has an entry for this pad,
+     * else from {@code cache} if this model is known there, otherwise runs
+     * the detection heuristics and stores their result in the cache.
+     */
+    private void resolveComponents(ControllerMappingCache cache, GameControllerDB db) {
+        Component[] comps = controller.getComponents();
+        String name = controller.getName();
+        int row = db != null ? db.findName(name) : -1;
+        if (row >= 0) {
+            if (applyDatabase(db, row, comps)) {
+                System.out.println("[XInputMod] gamecontrollerdb mapping \"" + db.name(row) + "\": layout " + layout
+                    + ", A=" + btnA + " B=" + btnB + " X=" + btnX + " Y=" + btnY
+                    + " Back=" + btnBack + " Start=" + btnStart);
+                buildEventRoles();
+                return;
+            }
+            System.out.println("[XInputMod] gamecontrollerdb entry for " + name
+                + " doesn't fit its components, detecting instead.");
+        }
+        String signature = null;
+        if (cache != null) {
+            signature = ControllerMappingCache.signature(comps);
+            ControllerMappingCache.Mapping cached = cache.lookup(name, signature);
+            if (cached != null && applyMapping(cached, comps)) {
+                System.out.println("[XInputMod] Cached mapping for " + name + ": layout " + layout
+                    + ", A=" + btnA + " B=" + btnB + " X=" + btnX + " Y=" + btnY
+                    + " Back=" + btnBack + " Start=" + btnStart);
+                buildEventRoles();
+                return;
+            }
+        }
+        detectMapping(comps);
+        buildEventRoles();
+        if (cache != null) cache.store(name, signature, toMapping(comps));
+    }
+
+    private void detectMapping(Component[] comps) {
+        System.out.println("[XInputMod] JInput components:");
+        for (Component c : comps) {
+            try {
+                System.out.println("[XInputMod]   id=" + c.getIdentifier()
+                    + " name=\"" + c.getName() + "\" analog=" + c.isAnalog());
+            } catch (Throwable ignored) {}
+        }
+
+        // Collect named axes
+        Component axX  = find(comps, Axis.X);
+        Component axY  = find(comps, Axis.Y);
+        Component axZ  = find(comps, Axis.Z);
+        Component axRX = find(comps, Axis.RX);
+        Component axRY = find(comps, Axis.RY);
+        Component axRZ = find(comps, Axis.RZ);
+
+        // Detect layout
+        boolean hasRXRY    = axRX != null && axRY != null;
+        boolean hasZandRZ  = axZ  != null && axRZ != null;
+        boolean hasZonly   = axZ  != null && axRZ == null;
+
+        if (hasRXRY) {
+            compLX = axX;  compLY = axY;
+            compRX = axRX; compRY = axRY;
+            if (hasZandRZ) {
+                compLT = axZ; compRT = axRZ;
+                layout = Layout.STANDARD;
+                System.out.println("[XInputMod] Layout: STANDARD (RX/RY sticks, Z/RZ triggers)");
+            } else if (hasZonly) {
+                compLT = axZ; compRT = axZ;
+                layout = Layout.SHARED_Z;
+                System.out.println("[XInputMod] Layout: SHARED_Z (RX/RY sticks, shared Z trigger)");
+            } else {
+                compLT = null; compRT = null;
+                layout = Layout.STANDARD;
+                System.out.println("[XInputMod] Layout: STANDARD (RX/RY sticks, no analog triggers)");
+            }
+        } else if (hasZandRZ) {
+            compLX = axX;  compLY = axY;
+            compRX = axZ;  compRY = axRZ;
+            compLT = null; compRT = null;
+            layout = Layout.ZRZ_RSTICK;
+            System.out.println("[XInputMod] Layout: ZRZ_RSTICK (Z/RZ = right stick, digital triggers)");
+        } else {
+            compLX = axX;  compLY = axY;
+            compRX = axRX != null ? axRX : axZ;
+            compRY = axRY != null ? axRY : axRZ;
+            compLT = null; compRT = null;
+            layout = Layout.UNKNOWN;
+            System.out.println("[XInputMod] Layout: UNKNOWN (best-effort axis mapping)");
+        }
+
+        // Collect buttons
+        buttons = collectButtons(comps);
+        System.out.println("[XInputMod] Button count: " + buttons.length);
+
+        // Default index map   chosen by button count AND layout.
+        //
+        // Known layouts:
+        //
+        // Xbox 360 / generic 10-btn (Windows XInput via DirectInput fallback):
+        //   0=A 1=B 2=X 3=Y 4=LB 5=RB 6=Back 7=Start 8=LStick 9=RStick
+        //   Triggers: analog axes (STANDARD layout)
+        //
+        // Xbox One / One S / Series (Windows DirectInput, SHARED_Z, 16 btn):
+        //   0=A 1=B 2=X 3=Y 4=LB 5=RB 6=Back/View 7=Start/Menu 8=LStick 9=RStick
+        //   10=Xbox/Guide  11-15=extras (Share, Screenshot, etc.)
+        //   Triggers: shared Z axis (SHARED_Z layout)
+        //
+        // Xbox Wireless (Mac/Linux JInput, ZRZ_RSTICK, 15 btn):
+        //   0=A 1=B 2=X 3=Y 4=LB 5=RB 6=LT 7=RT 8=Back 9=Start 10=Xbox
+        //   11=LStick 12=RStick  13-14=extras
+        //   Triggers: digital buttons 6/7 (ZRZ_RSTICK layout)
+
+        if (layout == Layout.SHARED_Z && buttons.length >= 10) {
+            // Xbox One on Windows DirectInput   Back and Start are at 6/7,
+            // LStick/RStick are at 8/9.  No dedicated trigger buttons.
+            btnA=0; btnB=1; btnX=2; btnY=3;
+            btnLB=4; btnRB=5;
+            btnLT=-1; btnRT=-1;   // triggers come from shared Z axis
+            btnBack=6; btnStart=7;
+            btnLStick=8; btnRStick=9;
+            System.out.println("[XInputMod] Default button map: Xbox One DirectInput / SHARED_Z");
+        } else if (buttons.length >= 13) {
+            // Xbox Wireless on Mac/Linux (ZRZ_RSTICK, 15 btn)
+            // or any other 13+ btn controller that isn't SHARED_Z
+            btnA=0; btnB=1; btnX=2; btnY=3;
+            btnLB=4; btnRB=5;
+            btnLT=6; btnRT=7;
+            btnBack=8; btnStart=9;
+            btnLStick=11; btnRStick=12;
+            System.out.println("[XInputMod] Default button map: Xbox Wireless 13+ btn");
+        } else {
+            // Xbox 360 / generic 10-button
+            btnA=0; btnB=1; btnX=2; btnY=3;
+            btnLB=4; btnRB=5;
+            btnLT=-1; btnRT=-1;
+            btnBack=6; btnStart=7;
+            btnLStick=8; btnRStick=9;
+            System.out.println("[XInputMod] Default button map: Xbox 360 standard 10 btn");
+        }
+
+        //  Name-based button detection 
+        // Covers every known naming convention across Xbox, PlayStation, Nintendo,
+        // and generic HID drivers. Many controllers (including Xbox Wireless on Mac
+        // via JInput) report no names at all   that case is handled by the
+        // count-based fallback above; this pass upgrades it when names ARE present.
+
+        // One classifier pass over the names (identifier strings where a
+        // driver sets no name), keeping the most confident button per role.
+        int[] found = ComponentNameClassifier.assign(buttons, ComponentNameClassifier.STRONG);
+        int foundStart  = found[ControllerState.BUTTON_START];  // Start / Menu / Options / Plus / Mode / Guide
+        int foundBack   = found[ControllerState.BUTTON_BACK];   // Back  / Select / View / Share / Capture / Minus / Create
+        int foundLStick = found[ControllerState.BUTTON_LTHUMB]; // L3 / LS / Left Thumb / Left Stick
+        int foundRStick = found[ControllerState.BUTTON_RTHUMB]; // R3 / RS / Right Thumb / Right Stick
+        int foundLB     = found[ControllerState.BUTTON_LB];     // LB / L1 / Left Bumper / Left Shoulder
+        int foundRB     = found[ControllerState.BUTTON_RB];     // RB / R1 / Right Bumper / Right Shoulder
+
+        // Apply detected indices   only override if not conflicting with face buttons
+        boolean[] faceIndices = new boolean[Math.max(buttons.length, 4)];
+        faceIndices[btnA] = true; faceIndices[btnB] = true;
+        faceIndices[btnX] = true; faceIndices[btnY] = true;
+
+        if (foundStart >= 0 && !faceIndices[foundStart])   btnStart  = foundStart;
+        if (foundBack >= 0 && !faceIndices[foundBack])     btnBack   = foundBack;
+        if (foundLStick >= 0)                              btnLStick = foundLStick;
+        if (foundRStick >= 0)                              btnRStick = foundRStick;
+        if (foundLB >= 0 && !faceIndices[foundLB])         btnLB     = foundLB;
+        if (foundRB >= 0 && !faceIndices[foundRB])         btnRB     = foundRB;
+
+        // ------------------------
+        // D-Pad / POV detection
+        // ------------------------
+
+        // try official POV axis first
+        compPOV = find(comps, Axis.POV);
+
+        // if not found, look for any component whose identifier or name mentions hat/pov/dpad
+        if (compPOV == null) {
+            for (Component c : comps) {
+                try {
+                    String idStr = c.getIdentifier() == null ? "" : c.getIdentifier().toString().toLowerCase();
+                    String name = c.getName() == null ? "" : c.getName().toLowerCase();
+                    if (idStr.contains("pov") || idStr.contains("hat") || name.contains("pov") || name.contains("hat") || name.contains("dpad") || name.contains("hatswitch")) {
+                        compPOV = c;
+                        System.out.println("[XInputMod] Detected POV/hat component by name/identifier: id=" + c.getIdentifier() + " name=\"" + c.getName() + "\"");
+                        break;
+                    }
+                } catch (Throwable ignored) {}
+            }
+        }
+
+        // If we still have no POV component, try to detect dpad buttons by name
+        if (compPOV == null) {
+            btnDpadUp    = found[ControllerState.BUTTON_DPAD_UP];
+            btnDpadDown  = found[ControllerState.BUTTON_DPAD_DOWN];
+            btnDpadLeft  = found[ControllerState.BUTTON_DPAD_LEFT];
+            btnDpadRight = found[ControllerState.BUTTON_DPAD_RIGHT];
+
+            if (btnDpadUp >= 0 || btnDpadDown >= 0 || btnDpadLeft >= 0 || btnDpadRight >= 0) {
+                System.out.println("[XInputMod] Detected D-pad as buttons: up=" + btnDpadUp + " down=" + btnDpadDown + " left=" + btnDpadLeft + " right=" + btnDpadRight);
+            } else {
+                System.out.println("[XInputMod] No POV/hatswitch found and no named dpad buttons detected will attempt POV-only and button-fallback reading at runtime.");
+            }
+        } else {
+            System.out.println("[XInputMod] Using POV component: id=" + compPOV.getIdentifier() + " name=\"" + compPOV.getName() + "\"");
+        }
+
+        // Final sanity check for Start conflicting with L/R stick
+        if (btnStart == btnLStick || btnStart == btnRStick) {
+            System.out.println("[XInputMod] Warning: start index conflicts with stick index; reverting to fallback index.");
+            if (buttons.length >= 13) btnStart = 9;
+            else btnStart = 7;
+            System.out.println("[XInputMod] Using fallback Start index " + btnStart + " (name=\"" + safeButtonName(btnStart) + "\")");
+        }
+
+        // Debug dump of final effective mapping
+        System.out.println("[XInputMod] Final button mapping:");
+        System.out.println("[XInputMod]  A=" + btnA + " B=" + btnB + " X=" + btnX + " Y=" + btnY);
+        System.out.println("[XInputMod]  LB=" + btnLB + " RB=" + btnRB + " LT=" + btnLT + " RT=" + btnRT);
+        System.out.println("[XInputMod]  Back=" + btnBack + " Start=" + btnStart);
+        System.out.println("[XInputMod]  LStick=" + btnLStick + " RStick=" + btnRStick);
+    }
+
+    /** Collects the button components, in the order their indices refer to. */
+    private static Component[] collectButtons(Component[] comps) {
+        java.util.List<Component> btnList = new java.util.ArrayList<Component>();
+        for (Component c : comps)
+            if (c.getIdentifier() instanceof Button) btnList.add(c);
+        return btnList.toArray(new Component[0]);
+    }
+
+    /**
+     * Applies a gamecontrollerdb row. Button and axis numbers index the
+     * pad's buttons and its analog (non-POV) axes in JInput's order, which
+     * follows the same OS enumeration SDL uses. Returns false, with nothing
+     * changed, if the row lacks a stick axis or the face buttons, or refers
+     * past the components this pad has.
+     */
+    private boolean applyDatabase(GameControllerDB db, int row, Component[] comps) {
+        Component[] btns = collectButtons(comps);
+        java.util.List<Component> axisList = new java.util.ArrayList<Component>();
+        for (Component c : comps)
+            if (c.isAnalog() && c.getIdentifier() instanceof Axis && c.getIdentifier() != Axis.POV) axisList.add(c);
+        Component[] axes = axisList.toArray(new Component[0]);
+
+        Component lx = dbAxis(db.source(row, GameControllerDB.LX), axes);
+        Component ly = dbAxis(db.source(row, GameControllerDB.LY), axes);
+        Component rx = dbAxis(db.source(row, GameControllerDB.RX), axes);
+        Component ry = dbAxis(db.source(row, GameControllerDB.RY), axes);
+        int a = dbButton(db.source(row, GameControllerDB.A), btns);
+        int b = dbButton(db.source(row, GameControllerDB.B), btns);
+        int x = dbButton(db.source(row, GameControllerDB.X), btns);
+        int y = dbButton(db.source(row, GameControllerDB.Y), btns);
+        if (lx == null || ly == null || rx == null || ry == null || a < 0 || b < 0 || x < 0 || y < 0)
+            return false;
+
+        buttons = btns;
+        compLX = lx; compLY = ly; compRX = rx; compRY = ry;
+        btnA = a; btnB = b; btnX = x; btnY = y;
+        btnLB     = dbButton(db.source(row, GameControllerDB.LB), btns);
+        btnRB     = dbButton(db.source(row, GameControllerDB.RB), btns);
+        btnBack   = dbButton(db.source(row, GameControllerDB.BACK), btns);
+        btnStart  = dbButton(db.source(row, GameControllerDB.START), btns);
+        btnLStick = dbButton(db.source(row, GameControllerDB.LSTICK), btns);
+        btnRStick = dbButton(db.source(row, GameControllerDB.RSTICK), btns);
+
+        // Triggers: two full axes, one axis split in halves (+ = LT), or buttons
+        int lt = db.source(row, GameControllerDB.LT), rt = db.source(row, GameControllerDB.RT);
+        Component ltAxis = dbAxis(lt, axes), rtAxis = dbAxis(rt, axes);
+        btnLT = dbButton(lt, btns);
+        btnRT = dbButton(rt, btns);
+        int idx = GameControllerDB.INDEX_MASK;
+        if ((lt & GameControllerDB.KIND_MASK) == GameControllerDB.AXIS_POS
+                && (rt & GameControllerDB.KIND_MASK) == GameControllerDB.AXIS_NEG
+                && (lt & idx) == (rt & idx) && (lt & idx) < axes.length) {
+            compLT = compRT = axes[lt & idx];
+            layout = Layout.SHARED_Z;
+        } else {
+            compLT = ltAxis != null && rtAxis != null ? ltAxis : null;
+            compRT = compLT != null ? rtAxis : null;
+            layout = Layout.STANDARD;
+        }
+
+        // D-pad: a hat means the POV component, otherwise buttons
+        boolean hat = false;
+        for (int s = GameControllerDB.DPAD_UP; s <= GameControllerDB.DPAD_RIGHT; s++)
+            hat |= (db.source(row, s) & GameControllerDB.KIND_MASK) == GameControllerDB.HAT;
+        compPOV      = hat ? find(comps, Axis.POV) : null;
+        btnDpadUp    = dbButton(db.source(row, GameControllerDB.DPAD_UP), btns);
+        btnDpadDown  = dbButton(db.source(row, GameControllerDB.DPAD_DOWN), btns);
+        btnDpadLeft  = dbButton(db.source(row, GameControllerDB.DPAD_LEFT), btns);
+        btnDpadRight = dbButton(db.source(row, GameControllerDB.DPAD_RIGHT), btns);
+        return true;
+    }
+
+    private static Component dbAxis(int source, Component[] axes) {
+        if ((source & GameControllerDB.KIND_MASK) != GameControllerDB.AXIS) return null;
+        int i = source & GameControllerDB.INDEX_MASK;
+        return i < axes.length ? axes[i] : null;
+    }
+
+    private static int dbButton(int source, Component[] btns) {
+        if ((source & GameControllerDB.KIND_MASK) != GameControllerDB.BUTTON) return -1;
+        int i = source & GameControllerDB.INDEX_MASK;
+        return i < btns.length ? i : -1;
+    }
+
+    /** Restores a cached mapping; false (state untouched) if it doesn't fit these components. */
+    private boolean applyMapping(ControllerMappingCache.Mapping m, Component[] comps) {
+        Layout l;
+        try { l = Layout.valueOf(m.layout); }
+        catch (IllegalArgumentException e) { return false; }
+        Component[] btns = collectButtons(comps);
+        for (int i : m.axes)    if (i < -1 || i >= comps.length) return false;
+        for (int i : m.buttons) if (i < -1 || i >= btns.length) return false;
+
+        int[] a = m.axes, b = m.buttons;
+        layout  = l;
+        buttons = btns;
+        compLX  = comp(comps, a[ControllerMappingCache.AX_LX]);
+        compLY  = comp(comps, a[ControllerMappingCache.AX_LY]);
+        compRX  = comp(comps, a[ControllerMappingCache.AX_RX]);
+        compRY  = comp(comps, a[ControllerMappingCache.AX_RY]);
+        compLT  = comp(comps, a[ControllerMappingCache.AX_LT]);
+        compRT  = comp(comps, a[ControllerMappingCache.AX_RT]);
+        compPOV = comp(comps, a[ControllerMappingCache.AX_POV]);
+        btnA = b[ControllerMappingCache.B_A];   btnB = b[ControllerMappingCache.B_B];
+        btnX = b[ControllerMappingCache.B_X];   btnY = b[ControllerMappingCache.B_Y];
+        btnLB = b[ControllerMappingCache.B_LB]; btnRB = b[ControllerMappingCache.B_RB];
+        btnLT = b[ControllerMappingCache.B_LT]; btnRT = b[ControllerMappingCache.B_RT];
+        btnBack   = b[ControllerMappingCache.B_BACK];
+        btnStart  = b[ControllerMappingCache.B_START];
+        btnLStick = b[ControllerMappingCache.B_LSTICK];
+        btnRStick = b[ControllerMappingCache.B_RSTICK];
+        btnDpadUp    = b[ControllerMappingCache.B_DPAD_UP];
+        btnDpadDown  = b[ControllerMappingCache.B_DPAD_DOWN];
+        btnDpadLeft  = b[ControllerMappingCache.B_DPAD_LEFT];
+        btnDpadRight = b[ControllerMappingCache.B_DPAD_RIGHT];
+        return true;
+    }
+
+    private ControllerMappingCache.Mapping toMapping(Component[] comps) {
+        int[] a = new int[ControllerMappingCache.AXIS_SLOTS];
+        a[ControllerMappingCache.AX_LX]  = indexOf(comps, compLX);
+        a[ControllerMappingCache.AX_LY]  = indexOf(comps, compLY);
+        a[ControllerMappingCache.AX_RX]  = indexOf(comps, compRX);
+        a[ControllerMappingCache.AX_RY]  = indexOf(comps, compRY);
+        a[ControllerMappingCache.AX_LT]  = indexOf(comps, compLT);
+        a[ControllerMappingCache.AX_RT]  = indexOf(comps, compRT);
+        a[ControllerMappingCache.AX_POV] = indexOf(comps, compPOV);
+        int[] b = new int[] {
+            btnA, btnB, btnX, btnY, btnLB, btnRB, btnLT, btnRT,
+            btnBack, btnStart, btnLStick, btnRStick,
+            btnDpadUp, btnDpadDown, btnDpadLeft, btnDpadRight,
+        };
+        return new ControllerMappingCache.Mapping(layout.name(), a, b);
+    }
+
+    private static Component comp(Component[] comps, int idx) {
+        return idx >= 0 ? comps[idx] : null;
+    }
+
+    private static int indexOf(Component[] comps, Component c) {
+        if (c == null) return -1;
+        for (int i = 0; i < comps.length; i++) if (comps[i] == c) return i;
+        return -1;
+    }
+
+    private void buildEventRoles() {
+        roleComponents[ControllerState.BUTTON_A]      = buttonComp(btnA);
+        roleComponents[ControllerState.BUTTON_B]      = buttonComp(btnB);
+        roleComponents[ControllerState.BUTTON_X]      = buttonComp(btnX);
+        roleComponents[ControllerState.BUTTON_Y]      = buttonComp(btnY);
+        roleComponents[ControllerState.BUTTON_LB]     = buttonComp(btnLB);
+        roleComponents[ControllerState.BUTTON_RB]     = buttonComp(btnRB);
+        roleComponents[ControllerState.BUTTON_BACK]   = buttonComp(btnBack);
+        roleComponents[ControllerState.BUTTON_START]  = buttonComp(btnStart);
+        roleComponents[ControllerState.BUTTON_LTHUMB] = buttonComp(btnLStick);
+        roleComponents[ControllerState.BUTTON_RTHUMB] = buttonComp(btnRStick);
+        boolean hat = compPOV != null;
+        roleComponents[ControllerState.BUTTON_DPAD_UP]    = hat ? null : buttonComp(btnDpadUp);
+        roleComponents[ControllerState.BUTTON_DPAD_DOWN]  = hat ? null : buttonComp(btnDpadDown);
+        roleComponents[ControllerState.BUTTON_DPAD_LEFT]  = hat ? null : buttonComp(btnDpadLeft);
+        roleComponents[ControllerState.BUTTON_DPAD_RIGHT] = hat ? null : buttonComp(btnDpadRight);
+        compLTButton = buttonComp(btnLT);
+        compRTButton = buttonComp(btnRT);
+        classifyNamedDpad();
+        if (eventMode) applyEventQueueSize();
+    }
+
+    /** Finds the buttons named after a d-pad direction, so readPOV never looks at names. */
+    private void classifyNamedDpad() {
+        int[] index = new int[buttons.length], bits = new int[buttons.length];
+        int n = 0;
+        for (int i = 0; i < buttons.length; i++) {
+            int d = dpadBit(ComponentNameClassifier.role(ComponentNameClassifier.classify(buttons[i])));
+            if (d == 0) continue;
+            index[n] = i;
+            bits[n++] = d;
+        }
+        namedDpadIndex = java.util.Arrays.copyOf(index, n);
+        namedDpadBits  = java.util.Arrays.copyOf(bits, n);
+    }
+
+    private Component buttonComp(int idx) {
+        return idx >= 0 && idx < buttons.length ? buttons[idx] : null;
+    }
+
+    private void applyEventQueueSize() {
+        try { controller.setEventQueueSize(EVENT_QUEUE_SIZE); }
+        catch (Throwable t) { System.out.println("[XInputMod] JInput event queue unavailable: " + t); }
+    }
+
+    private static int dpadBit(int role) {
+        switch (role) {
+            case ControllerState.BUTTON_DPAD_UP:    return ButtonEdgeTracker.DPAD_UP;
+            case ControllerState.BUTTON_DPAD_DOWN:  return ButtonEdgeTracker.DPAD_DOWN;
+            case ControllerState.BUTTON_DPAD_LEFT:  return ButtonEdgeTracker.DPAD_LEFT;
+            case ControllerState.BUTTON_DPAD_RIGHT: return ButtonEdgeTracker.DPAD_RIGHT;
+            default:                                return 0;
+        }
+    }
+
+    private String safeButtonName(int idx) {
+        if (idx < 0 || idx >= buttons.length || buttons[idx] == null) return "<n/a>";
+        String n = buttons[idx].getName();
+        return n == null ? "<unnamed>" : n;
+    }
+
+    private Component find(Component[] comps, Identifier id) {
+        for (Component c : comps)
+            if (c.getIdentifier() == id) return c;
+        return null;
+    }
+
+    // =========================================================================
+    // Poll
+    // =========================================================================
+
+    public boolean poll(ControllerState cs) {
+        if (controller == null) return false;
+        try {
+            if (!controller.poll()) {
+                System.out.println("[XInputMod] JInput controller disconnected.");
+                controller = null; initialised = false; cs.zero();
+                return false;
+            }
+            readState(cs);
+            return true;
+
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JInput poll error: " + t);
+            controller = null; initialised = false; cs.zero();
+            return false;
+        }
+    }
+
+    /**
+     * Event-queue variant of {@link #poll}. Drains every component event the
+     * driver queued since the last call and feeds it, in order, to the
+     * tracker, so a press and release that both land between two polls still
+     * produce two edges. {@code cs} is then filled from the latest values as
+     * usual and the tracker is reconciled against it.
+     */
+    public boolean pollEvents(ControllerState cs, ButtonEdgeTracker tracker) {
+        if (controller == null) return false;
+        try {
+            if (!controller.poll()) {
+                System.out.println("[XInputMod] JInput controller disconnected.");
+                controller = null; initialised = false; cs.zero(); tracker.reset();
+                return false;
+            }
+            long now = System.nanoTime();
+            EventQueue queue = controller.getEventQueue();
+            while (queue.getNextEvent(event)) {
+                Component c = event.getComponent();
+                if (c == null) continue;
+                long t = tracker.toHostNanos(event.getNanos(), now);
+                if (c == compPOV) {
+                    tracker.dpad(povBits(event.getValue()), t);
+                    continue;
+                }
+                boolean pressed = event.getValue() > 0.5f;
+                for (int r = 0; r < roleComponents.length; r++)
+                    if (roleComponents[r] == c) tracker.button(r, pressed, t);
+            }
+            readState(cs);
+            tracker.reconcile(cs, now);
+            cs.timestamp = now;   // every edge from this poll is <= now
+            return true;
+
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JInput poll error: " + t);
+            controller = null; initialised = false; cs.zero(); tracker.reset();
+            return false;
+        }
+    }
+
+    /**
+     * Axis-only variant for the render handler: polls the device and reads
+     * the sticks and triggers, leaving {@code cs.buttons} and the driver
+     * event queue for the next full poll. A failed poll is left for that
+     * poll to notice too.
+     */
+    public boolean pollAxes(ControllerState cs) {
+        if (controller == null) return false;
+        try {
+            if (!controller.poll()) return false;
+            readAxes(cs);
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /** Enables sizing the driver event queue for {@link #pollEvents}. */
+    public void setEventMode(boolean on) {
+        if (on == eventMode) return;
+        eventMode = on;
+        if (on && controller != null) applyEventQueueSize();
+    }
+
+    private void readState(ControllerState cs) {
+        readAxes(cs);
+        readButtons(cs);
+    }
+
+    private void readAxes(ControllerState cs) {
+        // Sticks (JInput Y is inverted)
+        cs.setSticks(readAxis(compLX), -readAxis(compLY), readAxis(compRX), -readAxis(compRY));
+
+        // Triggers
+        if (layout == Layout.SHARED_Z) {
+            float z = readAxis(compLT);
+            cs.setTriggers(z > 0f ? z : 0f, z < 0f ? -z : 0f);
+        } else if (compLT != null) {
+            cs.setTriggers((readAxis(compLT) + 1f) * 0.5f, (readAxis(compRT) + 1f) * 0.5f);
+        } else {
+            cs.setTriggers(pressed(compLTButton) ? 1f : 0f, pressed(compRTButton) ? 1f : 0f);
+        }
+    }
+
+    private void readButtons(ControllerState cs) {
+        // Face / shoulder buttons, through the components resolved in buildEventRoles()
+        int mask = 0;
+        for (int r = ControllerState.BUTTON_A; r <= ControllerState.BUTTON_RTHUMB; r++)
+            if (pressed(roleComponents[r])) mask |= 1 << r;
+
+        // Read D-pad / POV (robust)
+        cs.buttons = mask | (readPOV() << ControllerState.BUTTON_DPAD_UP);
+
+        // Debug: log each button index the first time it is pressed
+        if (DEBUG_BUTTONS) {
+            for (int _i = 0; _i < buttons.length && _i < debugLoggedButton.length; _i++) {
+                if (!debugLoggedButton[_i] && pressed(buttons[_i])) {
+                    debugLoggedButton[_i] = true;
+                    System.out.println("[XInputMod] Button " + _i + " (" + buttons[_i].getName() + ") pressed");
+                }
+            }
+        }
+    }
+
+    public boolean isAvailable() { return controller != null; }
+
+    /**
+     * Rumble motors of this pad, or null if it has no rumblers. The first
+     * rumbler is taken as the heavy motor and the second as the light one;
+     * a single rumbler gets the stronger of the two.
+     */
+    public HapticsEngine.Motor motor() {
+        Controller c = controller;
+        if (c == null) return null;
+        if (!motorResolved) {
+            motorResolved = true;
+            motor = rumbleMotor(c);
+        }
+        return motor;
+    }
+
+    private static HapticsEngine.Motor rumbleMotor(Controller c) {
+        final Rumbler[] r;
+        try {
+            r = c.getRumblers();
+        } catch (Throwable t) {
+            return null;
+        }
+        if (r == null || r.length == 0) return null;
+        System.out.println("[XInputMod] " + c.getName() + ": " + r.length + " rumbler(s)");
+        return new HapticsEngine.Motor() {
+            @Override public void set(float low, float high) {
+                if (r.length == 1) { r[0].rumble(Math.max(low, high)); return; }
+                r[0].rumble(low);
+                r[1].rumble(high);
+            }
+        };
+    }
+
+    // =========================================================================
+    // Helpers
+    // =========================================================================
+
+    private float readAxis(Component c) {
+        if (c == null) return 0f;
+        float v = c.getPollData();
+        return Float.isNaN(v) ? 0f : v;
+    }
+
+    private boolean btn(int idx) {
+        return idx >= 0 && idx < buttons.length && pressed(buttons[idx]);
+    }
+
+    private static boolean pressed(Component c) {
+        return c != null && c.getPollData() > 0.5f;
+    }
+
+    /** Decodes a JInput POV value into ButtonEdgeTracker.DPAD_* bits. */
+    private static int povBits(float pov) {
+        if (pov == POV.OFF) return 0;
+        final float EPS = 0.02f;
+        int bits = 0;
+        if (Math.abs(pov - 0.25f) < EPS || (pov > 0.125f && pov < 0.375f)) bits |= ButtonEdgeTracker.DPAD_UP;
+        if (Math.abs(pov - 0.50f) < EPS || (pov > 0.375f && pov < 0.625f)) bits |= ButtonEdgeTracker.DPAD_RIGHT;
+        if (Math.abs(pov - 0.75f) < EPS || (pov > 0.625f && pov < 0.875f)) bits |= ButtonEdgeTracker.DPAD_DOWN;
+        if (Math.abs(pov - 1.00f) < EPS || pov > 0.875f || pov < 0.125f)   bits |= ButtonEdgeTracker.DPAD_LEFT;
+        return bits;
+    }
+
+    /** Current D-pad as ButtonEdgeTracker.DPAD_* bits (0 = centred). */
+    private int readPOV() {
+        if (compPOV != null) {
+            try {
+                return povBits(compPOV.getPollData());
+            } catch (Throwable ignored) {}
+        }
+
+        // Buttons mapped to the d-pad (roleComponents leaves these null when there's a hat)
+        int bits = 0;
+        if (pressed(roleComponents[ControllerState.BUTTON_DPAD_UP]))    bits |= ButtonEdgeTracker.DPAD_UP;
+        if (pressed(roleComponents[ControllerState.BUTTON_DPAD_DOWN]))  bits |= ButtonEdgeTracker.DPAD_DOWN;
+        if (pressed(roleComponents[ControllerState.BUTTON_DPAD_LEFT]))  bits |= ButtonEdgeTracker.DPAD_LEFT;
+        if (pressed(roleComponents[ControllerState.BUTTON_DPAD_RIGHT])) bits |= ButtonEdgeTracker.DPAD_RIGHT;
+
+        if (bits == 0) {
+            for (int i = 0; i < namedDpadIndex.length; i++)
+                if (pressed(buttons[namedDpadIndex[i]])) bits |= namedDpadBits[i];
+        }
+        return bits;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.attackishere.xinput;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import net.java.games.input.Component;
+import net.java.games.input.Component.Identifier.Axis;
+import net.java.games.input.Component.Identifier.Button;
+import net.java.games.input.Controller;
+import net.java.games.input.EventQueue;
+import net.java.games.input.Rumbler;
+
+/**
+ * Per-poll cost of JInputController against an in-memory pad, so only the
+ * mod's own reading and decoding is measured, run outside the game:
+ *
+ *   java -cp xinputmod.jar:jinput.jar com.attackishere.xinput.JInputPollBenchmark [polls]
+ *
+ * Two pads: one with a POV hat, and one whose d-pad is plain buttons that
+ * nothing maps (the name-matching fallback every idle poll used to hit).
+ * Reports time and bytes allocated per poll; the latter should be 0.
+ */
+public class JInputPollBenchmark {
+
+    public static void main(String[] args) {
+        int polls = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        run("hat pad", pad(true), polls);
+        run("button pad", pad(false), polls);
+    }
+
+    private static void run(String label, FakePad pad, int polls) {
+        JInputController j = JInputController.attach(pad);
+        ControllerState cs = new ControllerState();
+        for (int i = 0; i < polls / 4; i++) { pad.step(i); j.poll(cs); }   // warm up
+
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < polls; i++) { pad.step(i); j.poll(cs); }
+        long t = System.nanoTime() - t0;
+        long bytes = allocatedBytes() - bytes0;
+
+        System.out.println(label + ": " + t / polls + " ns/poll, "
+            + (bytes0 < 0 ? "allocation unknown" : String.format("%.3f", bytes / (double) polls) + " bytes/poll")
+            + " over " + polls + " polls");
+    }
+
+    /** Bytes allocated by this thread so far, or -1 if the VM can't tell. */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static FakePad pad(boolean hat) {
+        java.util.List<FakeComponent> c = new java.util.ArrayList<FakeComponent>();
+        c.add(new FakeComponent("X Axis", Axis.X, true));
+        c.add(new FakeComponent("Y Axis", Axis.Y, true));
+        c.add(new FakeComponent("X Rotation", Axis.RX, true));
+        c.add(new FakeComponent("Y Rotation", Axis.RY, true));
+        c.add(new FakeComponent("Z Axis", Axis.Z, true));
+        c.add(new FakeComponent("Z Rotation", Axis.RZ, true));
+        if (hat) c.add(new FakeComponent("Hat Switch", Axis.POV, false));
+        Button[] ids = {
+            Button._0, Button._1, Button._2, Button._3, Button._4, Button._5, Button._6, Button._7,
+            Button._8, Button._9, Button._10, Button._11, Button._12, Button._13, Button._14, Button._15,
+        };
+        for (int i = 0; i < (hat ? 10 : 16); i++) c.add(new FakeComponent("Button " + i, ids[i], false));
+        return new FakePad(hat ? "Benchmark Hat Pad" : "Benchmark Button Pad", c.toArray(new FakeComponent[0]));
+    }
+
+    private static final class FakeComponent implements Component {
+        private final String name;
+        private final Identifier id;
+        private final boolean analog;
+        float value;
+
+        FakeComponent(String name, Identifier id, boolean analog) {
+            this.name = name; this.id = id; this.analog = analog;
+        }
+
+        @Override public Identifier getIdentifier() { return id; }
+        @Override public String getName()           { return name; }
+        @Override public boolean isAnalog()         { return analog; }
+        @Override public boolean isRelative()       { return false; }
+        @Override public float getDeadZone()        { return 0f; }
+        @Override public float getPollData()        { return value; }
+    }
+
+    private static final class FakePad implements Controller {
+        private final String name;
+        private final FakeComponent[] comps;
+
+        FakePad(String name, FakeComponent[] comps) {
+            this.name = name; this.comps = comps;
+        }
+
+        /** Moves the sticks and presses the first button on alternate polls. */
+        void step(int i) {
+            float v = (i & 255) / 128f - 1f;
+            for (FakeComponent f : comps) {
+                if (f.analog) f.value = v;
+                else if (f.id == Button._0) f.value = i & 1;
+            }
+        }
+
+        @Override public Controller[] getControllers()            { return new Controller[0]; }
+        @Override public Type getType()                           { return Type.GAMEPAD; }
+        @Override public Component[] getComponents()              { return comps; }
+        @Override public Component getComponent(Component.Identifier id) {
+            for (Component c : comps) if (c.getIdentifier() == id) return c;
+            return null;
+        }
+        @Override public Rumbler[] getRumblers()                  { return new Rumbler[0]; }
+        @Override public boolean poll()                           { return true; }
+        @Override public void setEventQueueSize(int size)         {}
+        @Override public EventQueue getEventQueue()               { return new EventQueue(0); }
+        @Override public PortType getPortType()                   { return PortType.UNKNOWN; }
+        @Override public int getPortNumber()                      { return 0; }
+        @Override public String getName()                         { return name; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.attackishere.xinput;
+
+/**
+ * Windows XInput backend (via JXInputBridge). Below JInput in priority, as
+ * before: it only gets polled once JInput has finished its first scan and
+ * has nothing to offer.
+ *
+ * Connecting and reconnecting run on a ReconnectScheduler probe thread with
+ * backoff; poll only adopts a bridge the probe has handed over, so an
+ * unplugged pad costs the polling thread nothing.
+ *
+ * Button edges are read off jxinput's button delta on every poll (plus
+ * XInput 1.4 keystrokes), so event-queue mode works here as it does for
+ * JInput.
+ *
+ * Windows only: elsewhere init() fails and no jxinput class is ever loaded.
+ * The first probe extracts the natives into a NativeLibraryCache.
+ */
+public class JXInputBackend implements ControllerBackend {
+
+    public static final int PRIORITY = 50;
+
+    private final ReconnectScheduler reconnect = new ReconnectScheduler("JXInput");
+    private final NativeLibraryCache natives;
+    private volatile JXInputBridge pending = null;
+    private volatile JXInputBridge bridge  = null;
+    // Battery / capabilities of the adopted pad, queried off-thread
+    private final DeviceInfoCache deviceInfo = new DeviceInfoCache("JXInput", DeviceInfoCache.DEFAULT_TTL_MS);
+    private final ReconnectScheduler.Probe probe = new ReconnectScheduler.Probe() {
+        @Override public ReconnectScheduler.Outcome attempt() { return probe(); }
+    };
+
+    public JXInputBackend(NativeLibraryCache natives) {
+        this.natives = natives;
+    }
+
+    @Override public String name()        { return "JXInput"; }
+    @Override public int priority()       { return PRIORITY; }
+    @Override public boolean init()       { return NativeLibraryCache.isWindows(); }   // the pad is probed off-thread
+    @Override public boolean discovering() { return false; }
+    @Override public void close()         { bridge = null; pending = null; deviceInfo.track(null); }
+
+    public ReconnectScheduler reconnect() { return reconnect; }
+
+    @Override
+    public boolean poll(ControllerState out, ButtonEdgeTracker edges) {
+        JXInputBridge b = bridge;
+        if (b == null) {
+            b = pending;
+            if (b == null) {
+                reconnect.reconnectAsync(probe);
+                out.zero();
+                return false;
+            }
+            pending = null;
+            bridge = b;
+            deviceInfo.track(b);
+            System.out.println("[XInputMod] Using JXInput.");
+        }
+        try {
+            if (b.poll(out, edges)) return true;
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JXInput poll error: " + t);
+        }
+        // Reconnection is started by the next poll via reconnect
+        bridge = null;
+        deviceInfo.track(null);
+        if (edges != null) edges.reset();
+        out.zero();
+        return false;
+    }
+
+    @Override
+    public boolean pollAxes(ControllerState out) {
+        JXInputBridge b = bridge;
+        try {
+            return b != null && b.pollAxes(out);
+        } catch (Throwable t) {
+            return false;   // the next full poll reports it
+        }
+    }
+
+    /** One JXInput connection attempt; runs on the reconnect thread. */
+    private ReconnectScheduler.Outcome probe() {
+        try {
+            if (natives != null) natives.prepare();
+            // Probe by name first so a missing jxinput jar is a quiet miss,
+            // not a NoClassDefFoundError out of JXInputBridge.
+            Class.forName("com.github.strikerx3.jxinput.XInputDevice");
+            if (!JXInputBridge.isAvailable()) return ReconnectScheduler.Outcome.UNAVAILABLE;
+            JXInputBridge b = JXInputBridge.open();
+            if (b == null) return ReconnectScheduler.Outcome.RETRY;
+            pending = b;
+            return ReconnectScheduler.Outcome.CONNECTED;
+        } catch (ClassNotFoundException e) {
+            return ReconnectScheduler.Outcome.UNAVAILABLE;
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JXInput init error: " + t);
+            return ReconnectScheduler.Outcome.UNAVAILABLE;
+        }
+    }
+
+    @Override
+    public int capabilities() {
+        return CAP_ANALOG_TRIGGERS | CAP_RUMBLE | CAP_EVENT_QUEUE | CAP_HOTPLUG;
+    }
+
+    @Override public Object device() { return bridge; }
+
+    @Override public DeviceInfoCache.Info info() { return bridge != null ? deviceInfo.get() : null; }
+
+    @Override public HapticsEngine.Motor motor() { return bridge; }
+
+    /**
+     * XInput uses one fixed layout across all controllers:
+     * A=0 B=1 X=2 Y=3 LB=4 RB=5 Back=6 Start=7 LStick=8 RStick=9.
+     */
+    @Override
+    public int buttonIndex(int logicalButton) {
+        return logicalButton <= ControllerState.BUTTON_RTHUMB ? logicalButton : -1;
+    }
+
+    @Override
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        return index >= 0 && index <= ControllerState.BUTTON_RTHUMB && cs.getButton(index);
+    }
+
+    @Override
+    public boolean applyDefaults(XInputConfig config) {
+        config.applyJXInputDefaults();
+        return true;
+    }
+}
\ No newline at end of file
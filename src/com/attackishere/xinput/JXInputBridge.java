@@ -0,0 +1,336 @@
+package com.attackishere.xinput;
+
+import com.github.strikerx3.jxinput.XInputAxes;
+import com.github.strikerx3.jxinput.XInputBatteryInformation;
+import com.github.strikerx3.jxinput.XInputButtons;
+import com.github.strikerx3.jxinput.XInputButtonsDelta;
+import com.github.strikerx3.jxinput.XInputCapabilities;
+import com.github.strikerx3.jxinput.XInputCapsResolutions;
+import com.github.strikerx3.jxinput.XInputComponents;
+import com.github.strikerx3.jxinput.XInputDevice;
+import com.github.strikerx3.jxinput.XInputDevice14;
+import com.github.strikerx3.jxinput.XInputKeystroke;
+import com.github.strikerx3.jxinput.enums.XInputBatteryDeviceType;
+import com.github.strikerx3.jxinput.enums.XInputBatteryType;
+import com.github.strikerx3.jxinput.enums.XInputButton;
+import com.github.strikerx3.jxinput.natives.XInputVirtualKeyCodes;
+
+/**
+ * Windows XInput backend linked directly against the bundled jxinput classes.
+ *
+ * Replaces the old reflective path, which did ~40 getMethod/getField lookups
+ * per tick (plus an exception for every field name that didn't exist). The
+ * device's XInputAxes are a fixed object that jxinput refills in place on
+ * every poll, so a poll is the native call plus plain field reads.
+ *
+ * Buttons come from jxinput's own delta, which the library recomputes in
+ * place on every poll: each button's edge since the previous poll both
+ * maintains the button mask and goes into an edge queue for the tracker.
+ * No listener is registered, because jxinput would call it through a fresh
+ * XInputButton.values() array on every poll. With XInput 1.4 the driver's
+ * keystroke buffer is drained first on each poll into the same queue, so a
+ * tap that starts and ends between two polls still shows up; the tracker
+ * drops the duplicates where both sources report the same edge.
+ *
+ * As a DeviceInfoCache.Source it answers battery and capability queries
+ * (XInput 1.4 only) on the cache's thread. The capabilities also tell poll
+ * which axes and buttons the device really has; the rest read as zero, so
+ * e.g. a guitar's whammy bar doesn't turn the camera.
+ *
+ * As a HapticsEngine.Motor it drives the two XInput motors with
+ * XInputSetState, on the haptics thread.
+ *
+ * Only touch this class after confirming XInputDevice is loadable (see
+ * JXInputBackend.probe); the JVM resolves the jxinput references lazily, so
+ * platforms without the library never load them.
+ */
+public class JXInputBridge implements DeviceInfoCache.Source, HapticsEngine.Motor {
+
+    private static final int MAX_PLAYERS = 4;
+    // Bound on keystrokes taken per poll, should the driver keep reporting
+    private static final int MAX_KEYSTROKES = 64;
+
+    private static final XInputButton[] BUTTONS = XInputButton.values();
+
+    private final XInputDevice   device;
+    private final XInputDevice14 device14;   // null before XInput 1.4
+    private final XInputAxes     axes;
+
+    // Polling thread only
+    private final ButtonEdgeQueue edges = new ButtonEdgeQueue(64);
+    private final ButtonEdgeQueue.Edge edge = new ButtonEdgeQueue.Edge();
+    private final XInputButtonsDelta delta;
+    private int     mask = 0;
+    private long    pollNanos = 0;
+
+    // What the device has, from the last capabilities query
+    private volatile int presentButtons = ControllerState.MASK_ALL;
+    private volatile int presentAxes    = DeviceInfoCache.ALL_AXES;
+
+    private JXInputBridge(XInputDevice device) {
+        this.device   = device;
+        this.device14 = device instanceof XInputDevice14 ? (XInputDevice14) device : null;
+        XInputComponents comps = device.getComponents();
+        this.axes = comps.getAxes();
+        this.delta = device.getDelta().getButtons();
+        // Held since the probe's poll: no delta will ever report these
+        XInputButtons b = comps.getButtons();
+        for (XInputButton xb : BUTTONS)
+            if (isDown(b, xb)) mask |= 1 << buttonIndex(xb);
+        if (device14 != null) while (device14.getKeystroke() != null) {}   // stale from before we attached
+    }
+
+    /** True if the XInput native library loaded on this platform. */
+    public static boolean isAvailable() {
+        return XInputDevice.isAvailable();
+    }
+
+    /**
+     * Finds the first connected XInput pad. Returns null if XInput isn't
+     * available or nothing is plugged in.
+     */
+    public static JXInputBridge open() {
+        if (!XInputDevice.isAvailable()) return null;
+        boolean v14 = XInputDevice14.isAvailable();
+        try {
+            XInputDevice[] devs = v14 ? XInputDevice14.getAllDevices() : XInputDevice.getAllDevices();
+            if (devs != null) {
+                for (XInputDevice d : devs) {
+                    if (d != null && d.poll()) {
+                        XInputDevice.setPreProcessData(true);
+                        System.out.println("[XInputMod] JXInput connected" + (v14 ? " (XInput 1.4)." : "."));
+                        return new JXInputBridge(d);
+                    }
+                }
+            }
+        } catch (Throwable ignored) {}
+        for (int i = 0; i < MAX_PLAYERS; i++) {
+            try {
+                XInputDevice d = v14 ? XInputDevice14.getDeviceFor(i) : XInputDevice.getDeviceFor(i);
+                if (d != null && d.poll()) {
+                    XInputDevice.setPreProcessData(true);
+                    System.out.println("[XInputMod] JXInput connected at player " + i);
+                    return new JXInputBridge(d);
+                }
+            } catch (Throwable ignored) {}
+        }
+        return null;
+    }
+
+    /**
+     * Polls the device and copies its state into {@code cs}. With a tracker,
+     * the edges since the last poll are fed to it in order and it is then
+     * reconciled against {@code cs}. Returns false if the pad has been
+     * disconnected.
+     */
+    public boolean poll(ControllerState cs, ButtonEdgeTracker tracker) {
+        pollNanos = System.nanoTime();
+        drainKeystrokes();
+        if (!pollDevice()) {
+            edges.clear();
+            return false;
+        }
+
+        readAxes(cs);
+        cs.buttons = mask & presentButtons;
+        cs.timestamp = pollNanos;
+
+        if (tracker != null) {
+            while (edges.poll(edge)) tracker.button(edge.button, edge.pressed, edge.nanos);
+            tracker.reconcile(cs, pollNanos);
+        } else {
+            edges.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Sticks and triggers only; {@code cs.buttons} is left as it is. The
+     * poll's button edges are queued for the next full poll.
+     */
+    public boolean pollAxes(ControllerState cs) {
+        pollNanos = System.nanoTime();
+        if (!pollDevice()) return false;
+        readAxes(cs);
+        return true;
+    }
+
+    /** device.poll(), then this poll's button edges into the mask and the queue. */
+    private boolean pollDevice() {
+        if (!device.poll()) return false;
+        mask = takeEdges(delta, mask, edges, pollNanos);
+        return true;
+    }
+
+    /**
+     * Applies {@code d}'s edges to {@code mask} and queues them, in
+     * jxinput's button order. Returns the new mask.
+     */
+    static int takeEdges(XInputButtonsDelta d, int mask, ButtonEdgeQueue edges, long nanos) {
+        for (int i = 0; i < BUTTONS.length; i++) {
+            XInputButton xb = BUTTONS[i];
+            boolean pressed = d.isPressed(xb);
+            if (!pressed && !d.isReleased(xb)) continue;
+            int button = buttonIndex(xb);
+            if (button < 0) continue;
+            if (pressed) mask |= 1 << button;
+            else         mask &= ~(1 << button);
+            edges.offer(button, pressed, nanos);
+        }
+        return mask;
+    }
+
+    private void readAxes(ControllerState cs) {
+        readAxes(axes, presentAxes, cs);
+    }
+
+    /** Copies {@code axes} into {@code cs}, zeroing the axes not in {@code present}. */
+    static void readAxes(XInputAxes axes, int present, ControllerState cs) {
+        cs.setSticks(axes.lx, axes.ly, axes.rx, axes.ry);
+        cs.setTriggers(axes.lt, axes.rt);
+        if (present == DeviceInfoCache.ALL_AXES) return;
+        for (int i = 0; i < ControllerState.AXIS_COUNT; i++)
+            if ((present & (1 << i)) == 0) cs.axes[i] = 0f;
+    }
+
+    /** Battery and capabilities; XInput 1.4 only. Runs on the DeviceInfoCache thread. */
+    @Override
+    public DeviceInfoCache.Info query() {
+        if (device14 == null) return null;
+        boolean wireless = false, rumble = true;
+        int buttons = ControllerState.MASK_ALL, present = DeviceInfoCache.ALL_AXES;
+        XInputCapabilities caps = device14.getGamepadCapabilities();
+        if (caps != null) {
+            wireless = caps.isWireless();
+            rumble   = caps.isForceFeedbackSupported();
+            int b = 0;
+            for (XInputButton xb : caps.getSupportedButtons()) {
+                int i = buttonIndex(xb);
+                if (i >= 0) b |= 1 << i;
+            }
+            int a = 0;
+            XInputCapsResolutions r = caps.getResolutions();
+            if (r != null) {
+                if (r.getThumbLX() != 0)     a |= 1 << ControllerState.AXIS_LX;
+                if (r.getThumbLY() != 0)     a |= 1 << ControllerState.AXIS_LY;
+                if (r.getThumbRX() != 0)     a |= 1 << ControllerState.AXIS_RX;
+                if (r.getThumbRY() != 0)     a |= 1 << ControllerState.AXIS_RY;
+                if (r.getLeftTrigger() != 0)  a |= 1 << ControllerState.AXIS_LT;
+                if (r.getRightTrigger() != 0) a |= 1 << ControllerState.AXIS_RT;
+            }
+            // Some drivers report no capabilities at all; trust the state then
+            if (b != 0) buttons = b;
+            if (a != 0) present = a;
+        }
+        presentButtons = buttons;
+        presentAxes    = present;
+        return new DeviceInfoCache.Info(battery(), wireless, rumble, buttons, present);
+    }
+
+    private int battery() {
+        XInputBatteryInformation info = device14.getBatteryInformation(XInputBatteryDeviceType.GAMEPAD);
+        if (info == null || info.getLevel() == null) return DeviceInfoCache.BATTERY_UNKNOWN;
+        XInputBatteryType type = info.getType();
+        if (type == XInputBatteryType.WIRED || type == XInputBatteryType.DISCONNECTED)
+            return DeviceInfoCache.BATTERY_UNKNOWN;
+        switch (info.getLevel()) {
+            case EMPTY:  return DeviceInfoCache.BATTERY_EMPTY;
+            case LOW:    return DeviceInfoCache.BATTERY_LOW;
+            case MEDIUM: return DeviceInfoCache.BATTERY_MEDIUM;
+            case FULL:   return DeviceInfoCache.BATTERY_FULL;
+            default:     return DeviceInfoCache.BATTERY_UNKNOWN;
+        }
+    }
+
+    public int playerNum() {
+        return device.getPlayerNum();
+    }
+
+    @Override
+    public void set(float low, float high) {
+        device.setVibration((int) (low * 65535f), (int) (high * 65535f));
+    }
+
+    /** XInput 1.4 keystrokes buffered since the last poll, as edges. */
+    private void drainKeystrokes() {
+        if (device14 == null) return;
+        for (int n = 0; n < MAX_KEYSTROKES; n++) {
+            XInputKeystroke k = device14.getKeystroke();
+            if (k == null) return;
+            if (k.isRepeat()) continue;
+            int button = keystrokeButton(k.getVirtualKey());
+            if (button < 0) continue;
+            if (k.isKeyDown()) edges.offer(button, true, pollNanos);
+            else if (k.isKeyUp()) edges.offer(button, false, pollNanos);
+        }
+    }
+
+    // =========================================================================
+    // Mapping
+    // =========================================================================
+
+    /** ControllerState.BUTTON_* for a jxinput button, or -1 (guide, unknown). */
+    static int buttonIndex(XInputButton b) {
+        switch (b) {
+            case A:                return ControllerState.BUTTON_A;
+            case B:                return ControllerState.BUTTON_B;
+            case X:                return ControllerState.BUTTON_X;
+            case Y:                return ControllerState.BUTTON_Y;
+            case LEFT_SHOULDER:    return ControllerState.BUTTON_LB;
+            case RIGHT_SHOULDER:   return ControllerState.BUTTON_RB;
+            case BACK:             return ControllerState.BUTTON_BACK;
+            case START:            return ControllerState.BUTTON_START;
+            case LEFT_THUMBSTICK:  return ControllerState.BUTTON_LTHUMB;
+            case RIGHT_THUMBSTICK: return ControllerState.BUTTON_RTHUMB;
+            case DPAD_UP:          return ControllerState.BUTTON_DPAD_UP;
+            case DPAD_DOWN:        return ControllerState.BUTTON_DPAD_DOWN;
+            case DPAD_LEFT:        return ControllerState.BUTTON_DPAD_LEFT;
+            case DPAD_RIGHT:       return ControllerState.BUTTON_DPAD_RIGHT;
+            default:               return -1;
+        }
+    }
+
+    /**
+     * ControllerState.BUTTON_* for an XInput 1.4 virtual key, or -1. Trigger
+     * and stick-direction keys have no button; those come from the axes.
+     */
+    static int keystrokeButton(short vk) {
+        switch (vk) {
+            case XInputVirtualKeyCodes.VK_PAD_A:            return ControllerState.BUTTON_A;
+            case XInputVirtualKeyCodes.VK_PAD_B:            return ControllerState.BUTTON_B;
+            case XInputVirtualKeyCodes.VK_PAD_X:            return ControllerState.BUTTON_X;
+            case XInputVirtualKeyCodes.VK_PAD_Y:            return ControllerState.BUTTON_Y;
+            case XInputVirtualKeyCodes.VK_PAD_LSHOULDER:    return ControllerState.BUTTON_LB;
+            case XInputVirtualKeyCodes.VK_PAD_RSHOULDER:    return ControllerState.BUTTON_RB;
+            case XInputVirtualKeyCodes.VK_PAD_BACK:         return ControllerState.BUTTON_BACK;
+            case XInputVirtualKeyCodes.VK_PAD_START:        return ControllerState.BUTTON_START;
+            case XInputVirtualKeyCodes.VK_PAD_LTHUMB_PRESS: return ControllerState.BUTTON_LTHUMB;
+            case XInputVirtualKeyCodes.VK_PAD_RTHUMB_PRESS: return ControllerState.BUTTON_RTHUMB;
+            case XInputVirtualKeyCodes.VK_PAD_DPAD_UP:      return ControllerState.BUTTON_DPAD_UP;
+            case XInputVirtualKeyCodes.VK_PAD_DPAD_DOWN:    return ControllerState.BUTTON_DPAD_DOWN;
+            case XInputVirtualKeyCodes.VK_PAD_DPAD_LEFT:    return ControllerState.BUTTON_DPAD_LEFT;
+            case XInputVirtualKeyCodes.VK_PAD_DPAD_RIGHT:   return ControllerState.BUTTON_DPAD_RIGHT;
+            default:                                        return -1;
+        }
+    }
+
+    private static boolean isDown(XInputButtons b, XInputButton xb) {
+        switch (xb) {
+            case A:                return b.a;
+            case B:                return b.b;
+            case X:                return b.x;
+            case Y:                return b.y;
+            case LEFT_SHOULDER:    return b.lShoulder;
+            case RIGHT_SHOULDER:   return b.rShoulder;
+            case BACK:             return b.back;
+            case START:            return b.start;
+            case LEFT_THUMBSTICK:  return b.lThumb;
+            case RIGHT_THUMBSTICK: return b.rThumb;
+            case DPAD_UP:          return b.up;
+            case DPAD_DOWN:        return b.down;
+            case DPAD_LEFT:        return b.left;
+            case DPAD_RIGHT:       return b.right;
+            default:               return false;
+        }
+    }
+}
\ No newline at end of file
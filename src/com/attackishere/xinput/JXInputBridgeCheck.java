@@ -0,0 +1,168 @@
+package com.attackishere.xinput;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.github.strikerx3.jxinput.XInputButtons;
+import com.github.strikerx3.jxinput.XInputButtonsDelta;
+import com.github.strikerx3.jxinput.enums.XInputButton;
+
+/**
+ * Check and timing for JXInputBridge's button path against a stub device,
+ * run outside the game (no XInput natives needed):
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.JXInputBridgeCheck [polls]
+ *
+ * The stub is what jxinput keeps per device: the previous and current
+ * XInputButtons and a delta over the two, refilled in place on each poll.
+ * A scripted sequence of presses and releases must come out of
+ * JXInputBridge.takeEdges as the same edges and button mask; failures are
+ * listed and the exit status is 1. Then the bytes allocated per poll are
+ * reported for takeEdges (should be 0) and for what jxinput does per poll
+ * for a registered listener (a values() walk), the path the bridge used
+ * before.
+ */
+public class JXInputBridgeCheck {
+
+    private static int failures = 0;
+
+    public static void main(String[] args) {
+        int polls = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        StubDevice dev = new StubDevice();
+        ButtonEdgeQueue edges = new ButtonEdgeQueue(64);
+        ButtonEdgeQueue.Edge edge = new ButtonEdgeQueue.Edge();
+        int mask = 0;
+
+        int[] script = {
+            ControllerState.MASK_A,
+            ControllerState.MASK_A | ControllerState.MASK_DPAD_UP,
+            ControllerState.MASK_DPAD_UP | ControllerState.MASK_START,
+            ControllerState.MASK_DPAD_UP | ControllerState.MASK_START,   // no change
+            ControllerState.MASK_LB | ControllerState.MASK_RTHUMB,
+            0,
+        };
+        for (int step = 0; step < script.length; step++) {
+            int before = mask;
+            dev.poll(script[step]);
+            mask = JXInputBridge.takeEdges(dev.delta, mask, edges, step);
+            if (mask != script[step])
+                fail("poll " + step + ": mask 0x" + Integer.toHexString(mask)
+                    + ", expected 0x" + Integer.toHexString(script[step]));
+            int seen = 0;
+            while (edges.poll(edge)) {
+                int bit = 1 << edge.button;
+                if ((seen & bit) != 0) fail("poll " + step + ": button " + edge.button + " twice");
+                seen |= bit;
+                if (edge.pressed != ((script[step] & bit) != 0))
+                    fail("poll " + step + ": button " + edge.button + " pressed=" + edge.pressed);
+                if (edge.nanos != step) fail("poll " + step + ": edge stamped " + edge.nanos);
+            }
+            if (seen != (before ^ script[step]))
+                fail("poll " + step + ": edges for 0x" + Integer.toHexString(seen)
+                    + ", expected 0x" + Integer.toHexString(before ^ script[step]));
+        }
+        System.out.println(failures == 0 ? "edges OK" : failures + " failure(s)");
+
+        int sink = 0;
+        for (int i = 0; i < polls / 4; i++) {   // warm up
+            dev.poll(i & ControllerState.MASK_ALL);
+            mask = JXInputBridge.takeEdges(dev.delta, mask, edges, i);
+            edges.clear();
+            sink += listenerPath(dev.delta);
+        }
+
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < polls; i++) {
+            dev.poll(i & ControllerState.MASK_ALL);
+            mask = JXInputBridge.takeEdges(dev.delta, mask, edges, i);
+            edges.clear();
+        }
+        report("takeEdges    ", System.nanoTime() - t0, allocatedBytes() - bytes0, bytes0 < 0, polls);
+
+        bytes0 = allocatedBytes();
+        t0 = System.nanoTime();
+        for (int i = 0; i < polls; i++) {
+            dev.poll(i & ControllerState.MASK_ALL);
+            sink += listenerPath(dev.delta);
+        }
+        report("listener path", System.nanoTime() - t0, allocatedBytes() - bytes0, bytes0 < 0, polls);
+        System.out.println("(checksum " + (sink + mask) + ")");
+
+        if (failures > 0) System.exit(1);
+    }
+
+    /** jxinput's per-poll walk for one registered listener; returns the edges it would report. */
+    private static int listenerPath(XInputButtonsDelta d) {
+        int n = 0;
+        for (XInputButton b : XInputButton.values())
+            if (d.isPressed(b) || d.isReleased(b)) n++;
+        return n;
+    }
+
+    /** jxinput's per-device button state: refilled in place, with a delta over the last two polls. */
+    private static final class StubDevice {
+        final XInputButtons last = new XInputButtons() {};
+        final XInputButtons now  = new XInputButtons() {};
+        final XInputButtonsDelta delta = new XInputButtonsDelta(last, now) {};
+
+        void poll(int mask) {
+            set(last, toMask(now));
+            set(now, mask);
+        }
+
+        private static void set(XInputButtons b, int m) {
+            b.a         = (m & ControllerState.MASK_A) != 0;
+            b.b         = (m & ControllerState.MASK_B) != 0;
+            b.x         = (m & ControllerState.MASK_X) != 0;
+            b.y         = (m & ControllerState.MASK_Y) != 0;
+            b.lShoulder = (m & ControllerState.MASK_LB) != 0;
+            b.rShoulder = (m & ControllerState.MASK_RB) != 0;
+            b.back      = (m & ControllerState.MASK_BACK) != 0;
+            b.start     = (m & ControllerState.MASK_START) != 0;
+            b.lThumb    = (m & ControllerState.MASK_LTHUMB) != 0;
+            b.rThumb    = (m & ControllerState.MASK_RTHUMB) != 0;
+            b.up        = (m & ControllerState.MASK_DPAD_UP) != 0;
+            b.down      = (m & ControllerState.MASK_DPAD_DOWN) != 0;
+            b.left      = (m & ControllerState.MASK_DPAD_LEFT) != 0;
+            b.right     = (m & ControllerState.MASK_DPAD_RIGHT) != 0;
+        }
+
+        private static int toMask(XInputButtons b) {
+            int m = 0;
+            if (b.a)         m |= ControllerState.MASK_A;
+            if (b.b)         m |= ControllerState.MASK_B;
+            if (b.x)         m |= ControllerState.MASK_X;
+            if (b.y)         m |= ControllerState.MASK_Y;
+            if (b.lShoulder) m |= ControllerState.MASK_LB;
+            if (b.rShoulder) m |= ControllerState.MASK_RB;
+            if (b.back)      m |= ControllerState.MASK_BACK;
+            if (b.start)     m |= ControllerState.MASK_START;
+            if (b.lThumb)    m |= ControllerState.MASK_LTHUMB;
+            if (b.rThumb)    m |= ControllerState.MASK_RTHUMB;
+            if (b.up)        m |= ControllerState.MASK_DPAD_UP;
+            if (b.down)      m |= ControllerState.MASK_DPAD_DOWN;
+            if (b.left)      m |= ControllerState.MASK_DPAD_LEFT;
+            if (b.right)     m |= ControllerState.MASK_DPAD_RIGHT;
+            return m;
+        }
+    }
+
+    private static void report(String label, long nanos, long bytes, boolean unknown, int polls) {
+        System.out.println(label + ": " + nanos / polls + " ns/poll, "
+            + (unknown ? "allocation unknown" : String.format("%.3f", bytes / (double) polls) + " bytes/poll")
+            + " over " + polls + " polls");
+    }
+
+    /** Bytes allocated by this thread so far, or -1 if the VM can't tell. */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void fail(String what) {
+        failures++;
+        System.out.println("FAIL " + what);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.attackishere.xinput;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+
+import com.github.strikerx3.jxinput.XInputAxes;
+import com.github.strikerx3.jxinput.XInputButtons;
+import com.github.strikerx3.jxinput.XInputButtonsDelta;
+import com.github.strikerx3.jxinput.XInputComponents;
+
+/**
+ * Per-poll cost of reading a JXInput pad: the reflective path the tick
+ * handler used before JXInputBridge, against the bridge's direct reads, run
+ * outside the game (no XInput natives needed):
+ *
+ *   java -cp xinputmod.jar com.attackishere.xinput.JXInputPollBenchmark [polls]
+ *
+ * XInputDevice can't be loaded without the natives, so a stub device stands
+ * in: a public poll() / getComponents() pair over real jxinput components
+ * that it refills in place, as the library does. The native XInputGetState
+ * call is the same for both paths and not part of the measurement. The
+ * reflective path is the old pollJXInput(): a getMethod per call, and a
+ * getField (falling back to getDeclaredField, throwing for the names jxinput
+ * doesn't have) per axis and button. The bridge path is JXInputBridge's
+ * readAxes plus takeEdges over the button delta. Reports time and bytes
+ * allocated per poll; the bridge's should be 0.
+ */
+public class JXInputPollBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int polls = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        StubDevice dev = new StubDevice();
+        ControllerState cs = new ControllerState();
+        ButtonEdgeQueue edges = new ButtonEdgeQueue(64);
+        int mask = 0;
+        int sink = 0;
+
+        for (int i = 0; i < polls / 4; i++) {   // warm up
+            dev.step(i);
+            if (pollReflective(dev, cs)) sink += cs.buttons;
+            dev.step(i);
+            mask = pollBridge(dev, cs, mask, edges, i);
+        }
+
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < polls; i++) {
+            dev.step(i);
+            if (pollReflective(dev, cs)) sink += cs.buttons;
+        }
+        report("reflective", System.nanoTime() - t0, allocatedBytes() - bytes0, bytes0 < 0, polls);
+
+        bytes0 = allocatedBytes();
+        t0 = System.nanoTime();
+        for (int i = 0; i < polls; i++) {
+            dev.step(i);
+            mask = pollBridge(dev, cs, mask, edges, i);
+        }
+        report("bridge    ", System.nanoTime() - t0, allocatedBytes() - bytes0, bytes0 < 0, polls);
+        System.out.println("(checksum " + (sink + mask) + ")");
+    }
+
+    /** JXInputBridge.poll after the native call: axes, then the delta's edges. */
+    private static int pollBridge(StubDevice dev, ControllerState cs, int mask, ButtonEdgeQueue edges, long nanos) {
+        if (!dev.poll()) return mask;
+        JXInputBridge.readAxes(dev.axes, DeviceInfoCache.ALL_AXES, cs);
+        mask = JXInputBridge.takeEdges(dev.delta, mask, edges, nanos);
+        cs.buttons = mask;
+        edges.clear();
+        return mask;
+    }
+
+    // =========================================================================
+    // The tick handler's reflective pollJXInput(), as it was
+    // =========================================================================
+
+    private static boolean pollReflective(Object device, ControllerState cs) {
+        try {
+            Class<?> dc = device.getClass();
+            if (!(Boolean) dc.getMethod("poll").invoke(device)) {
+                cs.zero();
+                return false;
+            }
+            Object comps = dc.getMethod("getComponents").invoke(device);
+            if (comps == null) return false;
+            Object axes = comps.getClass().getMethod("getAxes").invoke(comps);
+            Object btns = comps.getClass().getMethod("getButtons").invoke(comps);
+            if (axes == null || btns == null) return false;
+            float lt = jxAxis(axes, "lt"); if (lt == 0f) lt = jxAxis(axes, "lz");
+            float rt = jxAxis(axes, "rt"); if (rt == 0f) rt = jxAxis(axes, "rz");
+            cs.setSticks(jxAxis(axes, "lx"), jxAxis(axes, "ly"), jxAxis(axes, "rx"), jxAxis(axes, "ry"));
+            cs.setTriggers(lt, rt);
+            cs.setButton(ControllerState.BUTTON_A,      jxBtn(btns, "a"));
+            cs.setButton(ControllerState.BUTTON_B,      jxBtn(btns, "b"));
+            cs.setButton(ControllerState.BUTTON_X,      jxBtn(btns, "x"));
+            cs.setButton(ControllerState.BUTTON_Y,      jxBtn(btns, "y"));
+            cs.setButton(ControllerState.BUTTON_LB,     jxBtn(btns, "lShoulder"));
+            cs.setButton(ControllerState.BUTTON_RB,     jxBtn(btns, "rShoulder"));
+            cs.setButton(ControllerState.BUTTON_LTHUMB, jxBtn(btns, "lThumb"));
+            cs.setButton(ControllerState.BUTTON_RTHUMB, jxBtn(btns, "rThumb"));
+            cs.setButton(ControllerState.BUTTON_START,  jxBtn(btns, "start"));
+            cs.setButton(ControllerState.BUTTON_BACK,   jxBtn(btns, "back"));
+            cs.setButton(ControllerState.BUTTON_DPAD_UP,    jxBtn(btns, "up")    || jxBtn(btns, "dpadUp"));
+            cs.setButton(ControllerState.BUTTON_DPAD_DOWN,  jxBtn(btns, "down")  || jxBtn(btns, "dpadDown"));
+            cs.setButton(ControllerState.BUTTON_DPAD_LEFT,  jxBtn(btns, "left")  || jxBtn(btns, "dpadLeft"));
+            cs.setButton(ControllerState.BUTTON_DPAD_RIGHT, jxBtn(btns, "right") || jxBtn(btns, "dpadRight"));
+            return true;
+        } catch (Throwable t) {
+            cs.zero();
+            return false;
+        }
+    }
+
+    private static boolean jxBtn(Object b, String n) {
+        try {
+            Field f; try { f = b.getClass().getField(n); }
+            catch (Throwable i) { f = b.getClass().getDeclaredField(n); }
+            f.setAccessible(true); return f.getBoolean(b);
+        } catch (Throwable i) { return false; }
+    }
+
+    private static float jxAxis(Object a, String n) {
+        try {
+            Field f; try { f = a.getClass().getField(n); }
+            catch (Throwable i) { f = a.getClass().getDeclaredField(n); }
+            f.setAccessible(true); return f.getFloat(a);
+        } catch (Throwable i) { return 0f; }
+    }
+
+    // =========================================================================
+    // Stub device
+    // =========================================================================
+
+    /** Real jxinput components, refilled in place each step, behind XInputDevice's method names. */
+    public static final class StubDevice {
+        final XInputComponents comps = new XInputComponents() {};
+        final XInputAxes axes = comps.getAxes();
+        final XInputButtons last = new XInputButtons() {};
+        final XInputButtonsDelta delta = new XInputButtonsDelta(last, comps.getButtons()) {};
+
+        public boolean poll() { return true; }
+        public XInputComponents getComponents() { return comps; }
+
+        /** Next sample: sticks sweep, a few buttons toggle. */
+        void step(int i) {
+            XInputButtons b = comps.getButtons();
+            last.a = b.a; last.b = b.b; last.up = b.up; last.start = b.start;
+            b.a = (i & 8) != 0;
+            b.b = (i & 32) != 0;
+            b.up = (i & 64) != 0;
+            b.start = (i & 256) != 0;
+            float v = ((i % 200) - 100) / 100f;
+            axes.lx = v; axes.ly = -v; axes.rx = v * 0.5f; axes.ry = -v * 0.5f;
+            axes.lt = (i % 50) / 49f; axes.rt = 1f - axes.lt;
+        }
+    }
+
+    private static void report(String label, long nanos, long bytes, boolean unknown, int polls) {
+        System.out.println(label + ": " + nanos / polls + " ns/poll, "
+            + (unknown ? "allocation unknown" : String.format("%.3f", bytes / (double) polls) + " bytes/poll")
+            + " over " + polls + " polls");
+    }
+
+    /** Bytes allocated by this thread so far, or -1 if the VM can't tell. */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.attackishere.xinput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps jxinput's native DLLs extracted under the game directory, so they
+ * are written once per version instead of into the temp directory, which
+ * gets cleaned between sessions.
+ *
+ * jxinput's own loader (NativeLibraryHelper) extracts lib/native/win-ARCH/
+ * NAME.dll into ${native.lib.path}/ARCH and loads it from there, and only
+ * rewrites the file when it no longer matches. This class picks that
+ * directory before the loader initialises: a folder named after a CRC32 of
+ * the bundled DLLs, which it fills (and checks by length and CRC) itself.
+ * A mod update that ships different DLLs gets a fresh folder and the old
+ * ones are removed. The property is put back afterwards, since the loader
+ * reads it only once.
+ *
+ * Only meaningful on Windows; callers check {@link #isWindows} first so
+ * other platforms never load any jxinput class.
+ */
+public class NativeLibraryCache {
+
+    private static final String[] LIBRARIES = { "XInputNatives", "XInputNatives14" };
+    private static final String HELPER   = "com.github.strikerx3.jxinput.natives.NativeLibraryHelper";
+    private static final String PROPERTY = "native.lib.path";
+
+    private final File root;
+    private boolean prepared = false;
+
+    /** {@code root}: folder under the game directory holding one subfolder per DLL version. */
+    public NativeLibraryCache(File root) {
+        this.root = root;
+    }
+
+    public static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().contains("windows");
+    }
+
+    /** jxinput's architecture folder: the same test its loader uses. */
+    private static String arch() {
+        return System.getProperty("os.arch", "").contains("64") ? "x64" : "x86";
+    }
+
+    /**
+     * Makes sure the current DLLs are in the cache and points jxinput's
+     * loader at them. Runs once; call before the first jxinput class is
+     * touched. On any failure the loader keeps its default directory.
+     */
+    public synchronized void prepare() {
+        if (prepared) return;
+        prepared = true;
+        long t0 = System.nanoTime();
+        try {
+            String arch = arch();
+            ClassLoader loader = NativeLibraryCache.class.getClassLoader();
+            byte[][] libs = new byte[LIBRARIES.length][];
+            CRC32 key = new CRC32();
+            for (int i = 0; i < LIBRARIES.length; i++) {
+                libs[i] = resource(loader, "lib/native/win-" + arch + "/" + LIBRARIES[i] + ".dll");
+                if (libs[i] != null) key.update(libs[i]);
+            }
+            if (libs[0] == null) return;   // no natives in this jar: leave it to the loader's error
+
+            File dir = new File(root, Long.toHexString(key.getValue()));
+            File archDir = new File(dir, arch);
+            int written = 0;
+            for (int i = 0; i < LIBRARIES.length; i++) {
+                if (libs[i] == null) continue;
+                File f = new File(archDir, LIBRARIES[i] + ".dll");
+                if (matches(f, libs[i])) continue;
+                write(f, libs[i]);
+                written++;
+            }
+            if (written > 0) prune(dir);
+
+            String previous = System.getProperty(PROPERTY);
+            System.setProperty(PROPERTY, dir.getAbsolutePath());
+            try {
+                Class.forName(HELPER, true, loader);
+            } finally {
+                if (previous == null) System.clearProperty(PROPERTY);
+                else System.setProperty(PROPERTY, previous);
+            }
+            System.out.println("[XInputMod] JXInput natives: " + archDir + " (" + written + " extracted, "
+                + (System.nanoTime() - t0) / 1000000L + " ms)");
+        } catch (Throwable t) {
+            System.out.println("[XInputMod] JXInput native cache unavailable: " + t);
+        }
+    }
+
+    private static byte[] resource(ClassLoader loader, String path) throws IOException {
+        InputStream in = loader.getResourceAsStream(path);
+        if (in == null) return null;
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 17);
+            byte[] buf = new byte[1 << 16];
+            int n;
+            while ((n = in.read(buf)) > 0) out.write(buf, 0, n);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /** Length first, then a CRC over the file. */
+    private static boolean matches(File f, byte[] expected) throws IOException {
+        if (!f.isFile() || f.length() != expected.length) return false;
+        CRC32 want = new CRC32(), have = new CRC32();
+        want.update(expected);
+        InputStream in = new FileInputStream(f);
+        try {
+            byte[] buf = new byte[1 << 16];
+            int n;
+            while ((n = in.read(buf)) > 0) have.update(buf, 0, n);
+        } finally {
+            in.close();
+        }
+        return want.getValue() == have.getValue();
+    }
+
+    /** Writes beside the target and renames, so a crash never leaves a half-written DLL in place. */
+    private static void write(File f, byte[] data) throws IOException {
+        File dir = f.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+        File tmp = new File(dir, f.getName() + ".tmp");
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+        if (f.exists() && !f.delete()) throw new IOException("cannot replace " + f);
+        if (!tmp.renameTo(f)) throw new IOException("cannot rename " + tmp);
+    }
+
+    /** Removes the folders of older DLL versions (a DLL still loaded elsewhere just stays). */
+    private void prune(File keep) {
+        File[] dirs = root.listFiles();
+        if (dirs == null) return;
+        for (File d : dirs)
+            if (d.isDirectory() && !d.equals(keep)) delete(d);
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) for (File c : children) delete(c);
+        f.delete();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.attackishere.xinput;
+
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces reconnection attempts after a controller goes away.
+ *
+ * Retrying on every tick (or every poll) while a pad is unplugged means a
+ * full enumeration 20+ times a second for nothing. Instead the delay between
+ * attempts doubles from BASE_MS up to MAX_MS, with "equal jitter" (a random
+ * point in the upper half of the window) so several sources don't retry in
+ * lockstep. A successful attempt resets the sequence.
+ *
+ * Two ways to use it:
+ *  - a thread that already loops (ControllerManager's scan thread) calls
+ *    {@link #markLost}, {@link #nextDelayNanos} and {@link #markConnected}
+ *    itself;
+ *  - otherwise {@link #reconnectAsync} runs a {@link Probe} on a short-lived
+ *    daemon thread until it connects or reports the backend unavailable.
+ *
+ * Counters (attempts, reconnects, last time-to-reconnect) are readable from
+ * any thread.
+ */
+public class ReconnectScheduler {
+
+    public static final long BASE_MS = 250;
+    public static final long MAX_MS  = 10000;
+
+    public enum Outcome { CONNECTED, RETRY, UNAVAILABLE }
+
+    public interface Probe {
+        /** One reconnection attempt. Runs on the scheduler's thread. */
+        Outcome attempt();
+    }
+
+    private final String name;
+    private final Random random = new Random();
+
+    private volatile boolean reconnecting = false;
+    private volatile boolean unavailable  = false;
+    private volatile boolean workerActive = false;
+    private int  step = 0;
+    private int  retries = 0;   // attempts in the current sequence
+    private long lostAt = 0;
+
+    private volatile long attempts   = 0;
+    private volatile long reconnects = 0;
+    private volatile long lastReconnectMillis = -1;
+
+    public ReconnectScheduler(String name) {
+        this.name = name;
+    }
+
+    // =========================================================================
+    // Policy (single owning thread)
+    // =========================================================================
+
+    /** The source went away; starts a backoff sequence unless one is running. */
+    public void markLost() {
+        if (reconnecting) return;
+        reconnecting = true;
+        step    = 0;
+        retries = 0;
+        lostAt = System.nanoTime();
+    }
+
+    /** Delay before the next attempt; counts that attempt. */
+    public long nextDelayNanos() {
+        attempts++;
+        retries++;
+        long window = Math.min(MAX_MS, BASE_MS << Math.min(step, 16));
+        if (window < MAX_MS) step++;
+        long half = window / 2;
+        long ms = half + (long) (random.nextDouble() * (window - half));
+        return ms * 1000000L;
+    }
+
+    /** An attempt succeeded; records time-to-reconnect if one was pending. */
+    public void markConnected() {
+        if (!reconnecting) return;
+        reconnecting = false;
+        reconnects++;
+        lastReconnectMillis = (System.nanoTime() - lostAt) / 1000000L;
+        System.out.println("[XInputMod] " + name + " connected after " + retries
+            + " retries, " + lastReconnectMillis + " ms");
+        step = 0;
+        retries = 0;
+    }
+
+    // =========================================================================
+    // Background probing
+    // =========================================================================
+
+    /**
+     * Starts probing on a daemon thread if it isn't already. Cheap to call
+     * every tick: it returns immediately while a probe loop is running, and
+     * forever once the probe has reported {@link Outcome#UNAVAILABLE}.
+     */
+    public void reconnectAsync(final Probe probe) {
+        if (workerActive || unavailable) return;
+        synchronized (this) {
+            if (workerActive || unavailable) return;
+            workerActive = true;
+        }
+        Thread t = new Thread(new Runnable() {
+            @Override public void run() {
+                try {
+                    markLost();
+                    while (true) {
+                        Outcome o = probe.attempt();
+                        if (o == Outcome.CONNECTED) { markConnected(); return; }
+                        if (o == Outcome.UNAVAILABLE) {
+                            unavailable = true;
+                            reconnecting = false;
+                            System.out.println("[XInputMod] " + name + " unavailable, not retrying.");
+                            return;
+                        }
+                        LockSupport.parkNanos(nextDelayNanos());
+                    }
+                } catch (Throwable t) {
+                    System.out.println("[XInputMod] " + name + " reconnect failed: " + t);
+                } finally {
+                    workerActive = false;
+                }
+            }
+        }, "XInputMod Reconnect " + name);
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.start();
+    }
+
+    // =========================================================================
+    // Metrics
+    // =========================================================================
+
+    public boolean isReconnecting()     { return reconnecting; }
+    public boolean isUnavailable()      { return unavailable; }
+    public long attempts()              { return attempts; }
+    public long reconnects()            { return reconnects; }
+    /** Time from loss to reconnection for the most recent reconnect, or -1. */
+    public long lastReconnectMillis()   { return lastReconnectMillis; }
+}
\ No newline at end of file
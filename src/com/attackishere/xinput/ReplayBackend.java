@@ -0,0 +1,161 @@
+package com.attackishere.xinput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Plays back a capture written by InputRecorder as if it were a controller.
+ *
+ * Realtime mode hands out, on each poll, the newest sample whose recorded
+ * time has elapsed since playback started, so the tick sees the session at
+ * its original pace. Otherwise every poll returns the next sample, which is
+ * what throughput runs want. Either way the sequence is fully determined by
+ * the file.
+ *
+ * Outranks every real backend while it is playing; once a non-looping
+ * capture ends, poll returns false and the real pads take over again.
+ * Buttons use the logical ControllerState.BUTTON_* numbering as binding
+ * indices, and the user's bindings are left untouched.
+ */
+public class ReplayBackend implements ControllerBackend {
+
+    public static final int PRIORITY = 200;
+
+    private final File file;
+    private final boolean realtime;
+    private final boolean loop;
+
+    private MappedByteBuffer data = null;
+    private long count = 0;
+
+    private int  next = 0;          // next record not yet handed out
+    private long startNanos = 0;    // realtime: host time of record 0
+    private boolean finished = false;
+
+    public ReplayBackend(File file, boolean realtime, boolean loop) {
+        this.file = file;
+        this.realtime = realtime;
+        this.loop = loop;
+    }
+
+    @Override public String name()         { return "Replay"; }
+    @Override public int priority()        { return PRIORITY; }
+    @Override public boolean discovering() { return false; }
+    @Override public void close()          { data = null; }
+    @Override public int capabilities()    { return CAP_ANALOG_TRIGGERS | CAP_EVENT_QUEUE; }
+    @Override public Object device()       { return this; }
+    @Override public DeviceInfoCache.Info info() { return null; }
+    @Override public HapticsEngine.Motor motor()  { return null; }
+
+    @Override
+    public boolean init() {
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                FileChannel ch = raf.getChannel();
+                long size = ch.size();
+                if (size < InputRecorder.HEADER_BYTES) throw new IOException("too short");
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                if (map.getInt(0) != InputRecorder.MAGIC
+                        || map.getInt(4) != InputRecorder.VERSION
+                        || map.getInt(InputRecorder.OFF_RECORD_BYTES) != InputRecorder.RECORD_BYTES)
+                    throw new IOException("not a capture file");
+                long n = map.getLong(InputRecorder.OFF_COUNT);
+                long fit = (size - InputRecorder.HEADER_BYTES) / InputRecorder.RECORD_BYTES;
+                count = Math.min(n, fit);
+                data = map;
+            } finally {
+                raf.close();   // the mapping stays valid after the channel closes
+            }
+            System.out.println("[XInputMod] Replaying " + count + " samples from " + file.getName()
+                + (realtime ? " (realtime)" : " (as fast as polled)") + (loop ? ", looping" : ""));
+            return count > 0;
+        } catch (IOException e) {
+            System.out.println("[XInputMod] Replay file " + file + " unusable: " + e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean poll(ControllerState out, ButtonEdgeTracker edges) {
+        if (data == null || finished) { out.zero(); return false; }
+        long now = System.nanoTime();
+
+        int idx;
+        if (realtime) {
+            if (next == 0 && startNanos == 0) startNanos = now;
+            long elapsed = now - startNanos;
+            while (next < count && recordNanos(next) <= elapsed) next++;
+            if (next >= count && !rewind(now)) idx = (int) count - 1;
+            else idx = Math.max(0, next - 1);
+        } else {
+            if (next >= count && !rewind(now)) { finished = true; out.zero(); return false; }
+            idx = next++;
+        }
+
+        read(idx, out);
+        out.timestamp = now;
+        if (edges != null) edges.reconcile(out, now);
+        if (realtime && next >= count && !loop) finished = true;   // last sample handed out
+        return true;
+    }
+
+    /**
+     * Realtime only: axes of the newest sample whose time has come, without
+     * handing it out (the next poll still sees its buttons). Fixed-step
+     * playback has no notion of "newer" between polls.
+     */
+    @Override
+    public boolean pollAxes(ControllerState out) {
+        if (!realtime || data == null || finished || startNanos == 0) return false;
+        long elapsed = System.nanoTime() - startNanos;
+        int j = next;
+        while (j < count && recordNanos(j) <= elapsed) j++;
+        if (j == 0) return false;
+        int off = InputRecorder.HEADER_BYTES + (j - 1) * InputRecorder.RECORD_BYTES + 8;
+        for (int a = 0; a < ControllerState.AXIS_COUNT; a++)
+            out.axes[a] = data.getFloat(off + 4 + a * 4);
+        return true;
+    }
+
+    /** At the end of the capture: start over if looping. */
+    private boolean rewind(long now) {
+        if (!loop) return false;
+        next = 0;
+        startNanos = now;
+        return true;
+    }
+
+    private long recordNanos(int i) {
+        return data.getLong(InputRecorder.HEADER_BYTES + i * InputRecorder.RECORD_BYTES);
+    }
+
+    private void read(int i, ControllerState out) {
+        int off = InputRecorder.HEADER_BYTES + i * InputRecorder.RECORD_BYTES + 8;
+        out.buttons = data.getInt(off) & ControllerState.MASK_ALL;
+        for (int a = 0; a < ControllerState.AXIS_COUNT; a++)
+            out.axes[a] = data.getFloat(off + 4 + a * 4);
+    }
+
+    public long sampleCount() { return count; }
+
+    @Override
+    public int buttonIndex(int logicalButton) {
+        return logicalButton;
+    }
+
+    @Override
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        return index >= 0 && index < ControllerState.BUTTON_COUNT && cs.getButton(index);
+    }
+
+    @Override
+    public boolean applyDefaults(XInputConfig config) {
+        return true;   // recorded logical states; keep the user's bindings
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.attackishere.xinput;
+
+/**
+ * Stand-in controller with no hardware behind it. Every poll advances a
+ * counter and derives the whole ControllerState from it, so the sample is
+ * fully deterministic and internally redundant: the sticks, triggers and
+ * buttons all encode the same counter value. Buttons use the logical
+ * ControllerState.BUTTON_* numbering as binding indices.
+ *
+ * That redundancy is what makes it useful for stress-testing the poller
+ * handoff headless: a reader that ever observes a state where
+ * {@link #isConsistent} is false has seen a torn or half-written sample.
+ *
+ * Lowest priority, and only registered when the JVM is started with
+ * -Dxinputmod.synthetic=true, so it never shadows a real pad.
+ */
+public class SyntheticBackend implements ControllerBackend {
+
+    public static final int PRIORITY = 0;
+    public static final String PROPERTY = "xinputmod.synthetic";
+
+    // Samples per full sweep of the left stick from -1 to +1
+    private static final int PERIOD = 1000;
+
+    private long counter = 0;
+
+    @Override public String name()         { return "Synthetic"; }
+    @Override public int priority()        { return PRIORITY; }
+    @Override public boolean init()        { return true; }
+    @Override public boolean discovering() { return false; }
+    @Override public void close()          {}
+    @Override public int capabilities()    { return CAP_ANALOG_TRIGGERS | CAP_EVENT_QUEUE; }
+    @Override public Object device()       { return this; }
+    @Override public DeviceInfoCache.Info info() { return null; }
+    @Override public HapticsEngine.Motor motor()  { return null; }
+
+    @Override
+    public boolean poll(ControllerState out, ButtonEdgeTracker edges) {
+        fill(out, counter++);
+        out.timestamp = System.nanoTime();
+        if (edges != null) edges.reconcile(out, out.timestamp);
+        return true;
+    }
+
+    /** Samples only advance on poll, so a frame has nothing newer to see. */
+    @Override
+    public boolean pollAxes(ControllerState out) {
+        return false;
+    }
+
+    @Override
+    public int buttonIndex(int logicalButton) {
+        return logicalButton;
+    }
+
+    @Override
+    public boolean rawButtonPressed(int index, ControllerState cs) {
+        return index >= 0 && index < ControllerState.BUTTON_COUNT && cs.getButton(index);
+    }
+
+    @Override
+    public boolean applyDefaults(XInputConfig config) {
+        // Same numbering as the fixed XInput layout for the first ten buttons
+        config.applyJXInputDefaults();
+        return true;
+    }
+
+    public long samplesProduced() {
+        return counter;
+    }
+
+    /** Deterministic state for sample number {@code n}. */
+    static void fill(ControllerState out, long n) {
+        int phase = (int) (n % PERIOD);
+        int cycle = (int) ((n / PERIOD) % 16);
+
+        float lx = phase / (PERIOD / 2f) - 1f;
+        out.setSticks(lx, -lx, lx * 0.5f, -(lx * 0.5f));
+        out.setTriggers(phase / (float) (PERIOD - 1), cycle / 15f);
+
+        // Low phase bits drive A..RThumb, cycle bits the D-pad (BUTTON_* order)
+        out.buttons = (phase & 0x3FF) | (cycle << ControllerState.BUTTON_DPAD_UP);
+    }
+
+    /**
+     * True if {@code s} is exactly a state this source could have produced.
+     * A zeroed state (nothing published yet) does not count as consistent.
+     */
+    public static boolean isConsistent(ControllerState s) {
+        int phase = Math.round((s.lx() + 1f) * (PERIOD / 2f));
+        int cycle = Math.round(s.rt() * 15f);
+        if (phase < 0 || phase >= PERIOD || cycle < 0 || cycle > 15) return false;
+
+        ControllerState expect = new ControllerState();
+        fill(expect, (long) cycle * PERIOD + phase);
+        if (s.buttons != expect.buttons) return false;
+        for (int i = 0; i < ControllerState.AXIS_COUNT; i++)
+            if (s.axes[i] != expect.axes[i]) return false;
+        return true;
+    }
+}
\ No newline at end of file
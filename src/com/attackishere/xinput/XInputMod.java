@@ -1,41 +1,78 @@
-package com.attackishere.xinput;
-
-import cpw.mods.fml.common.Mod;
-import cpw.mods.fml.common.Mod.Init;
-import cpw.mods.fml.common.event.FMLInitializationEvent;
-import cpw.mods.fml.common.event.FMLPreInitializationEvent;
-import cpw.mods.fml.common.registry.TickRegistry;
-import cpw.mods.fml.relauncher.Side;
-import net.minecraft.client.Minecraft;
-import net.minecraftforge.common.MinecraftForge;
-
-@Mod(modid = "xinputmod", name = "XInput Mod", version = "1.0")
-public class XInputMod {
-
-    private final XInputSharedState sharedState = new XInputSharedState();
-
-    public static boolean modEnabled;
-    public static XInputConfig config;
-
-    
-    @Mod.PreInit
-    public void preInit(FMLPreInitializationEvent event) {
-        config = new XInputConfig(event.getSuggestedConfigurationFile());
-        modEnabled = config.enableController;
-
-      
-    }
-
-    @Init
-    public void init(FMLInitializationEvent event) {
-        Minecraft mc = Minecraft.getMinecraft();
-
-        XInputTickHandler tickHandler = new XInputTickHandler(sharedState);
-        XInputGuiRenderer guiRenderer = new XInputGuiRenderer(mc, sharedState);
-
-        guiRenderer.tickHandler = tickHandler;
-
-        TickRegistry.registerTickHandler(tickHandler, Side.CLIENT);
-        TickRegistry.registerTickHandler(guiRenderer, Side.CLIENT);
-    }
+package com.attackishere.xinput;
+
+import cpw.mods.fml.common.Mod;
+import cpw.mods.fml.common.Mod.Init;
+import cpw.mods.fml.common.event.FMLInitializationEvent;
+import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+import cpw.mods.fml.common.registry.TickRegistry;
+import cpw.mods.fml.relauncher.Side;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.common.MinecraftForge;
+
+import java.io.File;
+import java.io.IOException;
+
+@Mod(modid = "xinputmod", name = "XInput Mod", version = "1.0")
+public class XInputMod {
+
+    private final XInputSharedState sharedState = new XInputSharedState();
+
+    public static boolean modEnabled;
+    public static XInputConfig config;
+    public static ControllerManager controllers;
+    public static ControllerBackendRegistry backends;
+    // System.nanoTime() at preInit, for startup timing
+    public static long startNanos;
+
+    
+    @Mod.PreInit
+    public void preInit(FMLPreInitializationEvent event) {
+        startNanos = System.nanoTime();
+        config = new XInputConfig(event.getSuggestedConfigurationFile());
+        modEnabled = config.enableController;
+
+        // Enumerate and resolve pads on a worker while the game keeps loading;
+        // the tick handler reads zeroed input until discovery completes.
+        controllers = new ControllerManager();
+        controllers.select(config.activeController);
+        File configDir = event.getSuggestedConfigurationFile().getParentFile();
+        controllers.setMappingCache(new ControllerMappingCache(new File(configDir, "xinputmod-mappings.properties")));
+        controllers.setControllerDBFile(new File(configDir, GameControllerDB.FILE_NAME));
+
+        backends = new ControllerBackendRegistry();
+        if (!config.replayFile.trim().isEmpty())
+            backends.register(new ReplayBackend(new File(config.replayFile.trim()),
+                config.replayRealtime, config.replayLoop));
+        if (!config.hidrawDevice.trim().equalsIgnoreCase(HidrawBackend.OFF))
+            backends.register(new HidrawBackend(config.hidrawDevice, config.hidrawProfile));
+        if (!config.evdevDevice.trim().equalsIgnoreCase(EvdevBackend.OFF))
+            backends.register(new EvdevBackend(config.evdevDevice));
+        backends.register(new JInputBackend(controllers));
+        File gameDir = configDir.getParentFile();
+        backends.register(new JXInputBackend(new NativeLibraryCache(new File(gameDir, "xinputmod-natives"))));
+        if (Boolean.getBoolean(SyntheticBackend.PROPERTY)) backends.register(new SyntheticBackend());
+        backends.init();
+        if (!config.recordFile.trim().isEmpty()) {
+            try {
+                backends.setRecorder(InputRecorder.open(new File(config.recordFile.trim())));
+            } catch (IOException e) {
+                System.out.println("[XInputMod] Could not start recording: " + e);
+            }
+        }
+
+      
+    }
+
+    @Init
+    public void init(FMLInitializationEvent event) {
+        Minecraft mc = Minecraft.getMinecraft();
+
+        XInputTickHandler tickHandler = new XInputTickHandler(sharedState, backends, controllers);
+        XInputGuiRenderer guiRenderer = new XInputGuiRenderer(mc, sharedState);
+
+        guiRenderer.tickHandler = tickHandler;
+
+        TickRegistry.registerTickHandler(tickHandler, Side.CLIENT);
+        TickRegistry.registerTickHandler(guiRenderer, Side.CLIENT);
+    }
 }
\ No newline at end of file
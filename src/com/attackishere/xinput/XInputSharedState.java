@@ -1,20 +1,27 @@
-package com.attackishere.xinput;
-
-/**
- * Shared between all XInput handlers. All run on the same client thread.
- */
-public class XInputSharedState {
-
-    public float rawRx = 0f;
-    public float rawRy = 0f;
-    public float rawLx = 0f;
-    public float rawLy = 0f;
-
-
-    public float  cursorGuiX       = 0f;
-    public float  cursorGuiY       = 0f;
-    public boolean cursorInitialised = false;
-
-
-    public boolean stickMovedThisTick = false;
+package com.attackishere.xinput;
+
+/**
+ * Shared between all XInput handlers. All run on the same client thread.
+ * (The background poller, when enabled, is only reached through {@link #poller}.)
+ */
+public class XInputSharedState {
+
+    public float rawRx = 0f;
+    public float rawRy = 0f;
+    public float rawLx = 0f;
+    public float rawLy = 0f;
+    // System.nanoTime() of the sample the raw sticks above came from (0 = none)
+    public long  stickNanos = 0;
+
+
+    public float  cursorGuiX       = 0f;
+    public float  cursorGuiY       = 0f;
+    public boolean cursorInitialised = false;
+
+
+    public boolean stickMovedThisTick = false;
+
+    // Set by XInputTickHandler while background polling is active, so the
+    // render handler can read sticks at frame rate instead of tick rate.
+    public ControllerPoller poller = null;
 }
\ No newline at end of file